@@ -0,0 +1,9 @@
+package com.e_commerce_product_catalog_api.analytics;
+
+/**
+ * What top-seller rankings are ordered by.
+ */
+public enum SalesMetric {
+    REVENUE,
+    UNITS
+}
@@ -0,0 +1,178 @@
+package com.e_commerce_product_catalog_api.analytics;
+
+import com.e_commerce_product_catalog_api.repository.SalesRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps {@code sales_rollups} current. Placing an order only writes its lines; this writer periodically counts the
+ * lines not yet rolled up into the per-day, per-product totals, so concurrent orders for the same product never
+ * queue on the same rollup row inside their transactions. Deleting an order or changing its date takes its counted
+ * lines back out in the same transaction.
+ * <p>
+ * A rebuild empties the rollups and counts every line again, splitting the line ids into ranges that are counted
+ * in parallel. Reports show partial totals until it finishes.
+ */
+@Slf4j
+@Component
+public class SalesRollupWriter {
+
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final Duration interval;
+    private final int batchSize;
+    private final int rebuildThreads;
+    private final long rebuildChunkSize;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private ScheduledExecutorService writer;
+
+    public SalesRollupWriter(SalesRollupRepository salesRollupRepository,
+                             @Value("${catalog.analytics.rollup-interval:1s}") Duration interval,
+                             @Value("${catalog.analytics.batch-size:10000}") int batchSize,
+                             @Value("${catalog.analytics.rebuild-threads:4}") int rebuildThreads,
+                             @Value("${catalog.analytics.rebuild-chunk-size:100000}") long rebuildChunkSize) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.rebuildThreads = rebuildThreads;
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-rollup-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::applyQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer != null) {
+            writer.shutdown();
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Counts every line not yet in the rollups, a batch at a time. Returns the number of lines counted.
+     */
+    public long apply() {
+        return applyRange(0, UNBOUNDED);
+    }
+
+    /**
+     * Starts a rebuild on the writer thread, which holds off incremental runs until it is done. Returns false when
+     * a rebuild is already running.
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            writer.execute(() -> {
+                try {
+                    rebuild();
+                }
+                catch (RuntimeException | InterruptedException e) {
+                    log.error("Sales rollup rebuild failed, lines not yet counted will be picked up incrementally", e);
+                }
+                finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            rebuilding.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    /**
+     * Empties the rollups and counts every line again, the id range split into chunks counted in parallel. Lines
+     * added meanwhile above the last chunk are left to the incremental runs.
+     */
+    long rebuild() throws InterruptedException {
+        long start = System.nanoTime();
+        salesRollupRepository.reset();
+        Optional<long[]> range = salesRollupRepository.findLineIdRange();
+        if (range.isEmpty()) {
+            return 0;
+        }
+        long first = range.get()[0];
+        long last = range.get()[1];
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(rebuildThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sales-rollup-rebuild-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long counted = 0;
+        try {
+            List<Future<Long>> chunks = new ArrayList<>();
+            for (long from = first; from <= last; from += rebuildChunkSize) {
+                long chunkStart = from;
+                long chunkEnd = Math.min(from + rebuildChunkSize, last + 1);
+                chunks.add(workers.submit(() -> applyRange(chunkStart, chunkEnd)));
+            }
+            for (Future<Long> chunk : chunks) {
+                counted += chunk.get();
+            }
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Sales rollup rebuild chunk failed", e.getCause());
+        }
+        finally {
+            workers.shutdownNow();
+        }
+        log.info("Sales rollups rebuilt from {} order lines in {} ms", counted,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return counted;
+    }
+
+    private long applyRange(long fromId, long toId) {
+        long counted = 0;
+        int applied;
+        do {
+            applied = salesRollupRepository.applyPending(fromId, toId, batchSize);
+            counted += applied;
+        } while (applied == batchSize);
+        return counted;
+    }
+
+    private void applyQuietly() {
+        try {
+            apply();
+        }
+        catch (RuntimeException e) {
+            log.warn("Sales rollup run failed, the lines will be counted on the next run", e);
+        }
+    }
+}
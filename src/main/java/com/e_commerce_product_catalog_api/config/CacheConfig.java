@@ -0,0 +1,36 @@
+package com.e_commerce_product_catalog_api.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    /**
+     * Caffeine caches (W-TinyLFU admission, bounded by size and age) with statistics recorded, so the actuator
+     * reports them as cache.gets, cache.puts and cache.evictions. Evictions made inside a transaction are deferred
+     * until it commits, so a concurrent read cannot cache the row it is about to replace.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${catalog.cache.products.max-size:10000}") long maximumSize,
+                                     @Value("${catalog.cache.products.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCTS_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,31 @@
+package com.e_commerce_product_catalog_api.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt that asks for a rehash whenever a hash's cost differs from the configured one, lower or higher, so the
+ * cost can be tuned down as well as up. The stock encoder only upgrades hashes weaker than its strength.
+ */
+final class CostPinnedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    CostPinnedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher cost = COST.matcher(encodedPassword);
+        return cost.find() && Integer.parseInt(cost.group(1)) != strength;
+    }
+}
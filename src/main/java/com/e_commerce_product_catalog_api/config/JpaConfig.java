@@ -0,0 +1,26 @@
+package com.e_commerce_product_catalog_api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    /**
+     * Sends the updates of a flush as JDBC batches, ordered by entity and primary key so that batches stay long and
+     * concurrent transactions touch rows in the same order. Entity ids come from sequences read with the pooled-lo
+     * optimizer, so a new entity gets its id from a block in memory and its insert can join the batch; the blocks
+     * mean the same as the ones {@link com.e_commerce_product_catalog_api.repository.IdSequences} hands out.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(@Value("${catalog.jpa.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.put("hibernate.jdbc.batch_size", batchSize);
+            properties.put("hibernate.order_updates", true);
+            properties.put("hibernate.order_inserts", true);
+            properties.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        };
+    }
+}
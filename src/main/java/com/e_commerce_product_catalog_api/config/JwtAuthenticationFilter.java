@@ -1,53 +1,88 @@
 package com.e_commerce_product_catalog_api.config;
 
 import com.e_commerce_product_catalog_api.jwt.JwtTokenUtil;
+import com.e_commerce_product_catalog_api.jwt.SessionRevocationList;
+import com.e_commerce_product_catalog_api.jwt.VerifiedToken;
+import com.e_commerce_product_catalog_api.jwt.VerifiedTokenCache;
 import com.e_commerce_product_catalog_api.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Authenticates requests carrying a bearer token. The token is verified once and the principal and authorities are
+ * taken from its claims, so an authenticated request needs no database query. Tokens issued before roles were
+ * embedded fall back to loading the user until they expire.
+ * <p>
+ * Tokens carrying their roles are remembered in the {@link VerifiedTokenCache} once verified, and a repeat of one is
+ * authenticated from there before any signature check. Either way a token whose session has been ended is turned
+ * away, checked in memory against the {@link SessionRevocationList}.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SessionRevocationList sessionRevocationList;
 
-    public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil, CustomUserDetailsService userDetailsService,
+                                   VerifiedTokenCache verifiedTokenCache, SessionRevocationList sessionRevocationList) {
         this.jwtTokenUtil = jwtTokenUtil;
         this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.sessionRevocationList = sessionRevocationList;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String header = request.getHeader("Authorization");
 
-        if(header == null || !header.startsWith("Bearer ")) {
+        if(header == null || !header.startsWith("Bearer ") || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String jwtToken = header.substring(7);
-        String username = jwtTokenUtil.getUsernameFromToken(jwtToken);
-
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if(jwtTokenUtil.validateToken(jwtToken)) {
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+        String token = header.substring(7);
+        VerifiedToken verified = verifiedTokenCache.get(token);
+        if(verified == null) {
+            verified = jwtTokenUtil.parseToken(token)
+                    .filter(claims -> claims.getSubject() != null)
+                    .map(claims -> verify(token, claims))
+                    .orElse(null);
+        }
+        if(verified != null && !sessionRevocationList.isRevoked(verified.sessionId())) {
+            UserDetails userDetails = verified.user();
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
+    }
 
+    private VerifiedToken verify(String token, Claims claims) {
+        String sessionId = jwtTokenUtil.getSessionId(claims);
+        long expiresAt = claims.getExpiration() == null ? 0 : claims.getExpiration().getTime();
+        List<String> roles = jwtTokenUtil.getRoles(claims);
+        if(roles == null) {
+            return new VerifiedToken(userDetailsService.loadUserByUsername(claims.getSubject()), sessionId, expiresAt);
+        }
+        VerifiedToken verified = new VerifiedToken(new User(claims.getSubject(), "", AuthorityUtils.createAuthorityList(roles)),
+                sessionId, expiresAt);
+        verifiedTokenCache.put(token, verified);
+        return verified;
     }
 }
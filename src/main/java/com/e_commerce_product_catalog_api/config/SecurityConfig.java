@@ -1,7 +1,12 @@
 package com.e_commerce_product_catalog_api.config;
 
 import com.e_commerce_product_catalog_api.jwt.JwtTokenUtil;
+import com.e_commerce_product_catalog_api.jwt.SessionRevocationList;
+import com.e_commerce_product_catalog_api.jwt.VerifiedTokenCache;
+import com.e_commerce_product_catalog_api.ratelimit.RateLimitFilter;
+import com.e_commerce_product_catalog_api.ratelimit.RateLimiter;
 import com.e_commerce_product_catalog_api.service.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,20 +15,31 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 public class SecurityConfig{
 
     private final CustomUserDetailsService customUserDetailsService;
     private final JwtTokenUtil jwtTokenUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SessionRevocationList sessionRevocationList;
+    private final RateLimiter rateLimiter;
 
-    public SecurityConfig(CustomUserDetailsService customUserDetailsService, JwtTokenUtil jwtTokenUtil) {
+    public SecurityConfig(CustomUserDetailsService customUserDetailsService, JwtTokenUtil jwtTokenUtil,
+                          VerifiedTokenCache verifiedTokenCache, SessionRevocationList sessionRevocationList,
+                          RateLimiter rateLimiter) {
         this.customUserDetailsService = customUserDetailsService;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.sessionRevocationList = sessionRevocationList;
+        this.rateLimiter = rateLimiter;
     }
 
     @Bean
@@ -43,7 +59,9 @@ public class SecurityConfig{
                         // Secure all other endpoints
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenUtil, customUserDetailsService), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenUtil, customUserDetailsService, verifiedTokenCache, sessionRevocationList), UsernamePasswordAuthenticationFilter.class)
+                // Limits callers by the user the bearer token has just established, as well as by address
+                .addFilterAfter(new RateLimitFilter(rateLimiter), JwtAuthenticationFilter.class);
         http.csrf(AbstractHttpConfigurer::disable);
         return http.build();
     }
@@ -54,15 +72,26 @@ public class SecurityConfig{
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(customUserDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         return authenticationProvider;
     }
 
+    /**
+     * New hashes are written with the {@code encoder} algorithm, prefixed with its id; hashes without a prefix are
+     * BCrypt from before the prefix was written. A hash in another algorithm, or BCrypt at a cost other than
+     * {@code bcrypt-strength}, reports that it needs upgrading and is rehashed at the user's next login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${catalog.security.password.encoder:bcrypt}") String encodingId,
+                                           @Value("${catalog.security.password.bcrypt-strength:10}") int bcryptStrength) {
+        PasswordEncoder bcrypt = new CostPinnedBCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encodingId, Map.of(
+                "bcrypt", bcrypt,
+                "pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 }
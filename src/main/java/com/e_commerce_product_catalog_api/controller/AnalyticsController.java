@@ -0,0 +1,109 @@
+package com.e_commerce_product_catalog_api.controller;
+
+import com.e_commerce_product_catalog_api.analytics.SalesMetric;
+import com.e_commerce_product_catalog_api.dtos.CategorySalesDTO;
+import com.e_commerce_product_catalog_api.dtos.DailySalesDTO;
+import com.e_commerce_product_catalog_api.dtos.ProductSalesDTO;
+import com.e_commerce_product_catalog_api.service.AnalyticsService;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+@Validated
+@Tag(name = "Analytics", description = "Sales reports served from the daily sales rollups")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @GetMapping("/products")
+    @Operation(
+            summary = "Get Product Sales",
+            description = "Retrieves units sold and revenue per product for days in [from, to), best sellers first",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Product sales retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid date range or limit")
+            }
+    )
+    public ResponseEntity<List<ProductSalesDTO>> getProductSales(
+            @Parameter(description = "First day, inclusive") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, exclusive") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Rank products by revenue or by units sold")
+            @RequestParam(defaultValue = "REVENUE") SalesMetric metric,
+            @Parameter(description = "Number of products to return")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int limit) {
+        List<ProductSalesDTO> products = analyticsService.getTopProducts(from, to, metric, limit);
+        return new ResponseEntity<>(products, HttpStatus.OK);
+    }
+
+    @GetMapping("/categories")
+    @Operation(
+            summary = "Get Category Sales",
+            description = "Retrieves units sold and revenue per category for days in [from, to). A product's sales "
+                    + "for a day stay with the category it was in when they were first counted",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Category sales retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid date range")
+            }
+    )
+    public ResponseEntity<List<CategorySalesDTO>> getCategorySales(
+            @Parameter(description = "First day, inclusive") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, exclusive") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<CategorySalesDTO> categories = analyticsService.getCategorySales(from, to);
+        return new ResponseEntity<>(categories, HttpStatus.OK);
+    }
+
+    @GetMapping("/daily")
+    @Operation(
+            summary = "Get Daily Sales",
+            description = "Retrieves units sold and revenue per day for days in [from, to)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Daily sales retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid date range")
+            }
+    )
+    public ResponseEntity<List<DailySalesDTO>> getDailySales(
+            @Parameter(description = "First day, inclusive") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, exclusive") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DailySalesDTO> days = analyticsService.getDailySales(from, to);
+        return new ResponseEntity<>(days, HttpStatus.OK);
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(
+            summary = "Rebuild Sales Rollups",
+            description = "Recounts the sales rollups from every order line in the background; reports show partial "
+                    + "totals until it finishes",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Rebuild started"),
+                    @ApiResponse(responseCode = "409", description = "A rebuild is already running")
+            }
+    )
+    public ResponseEntity<Void> rebuildRollups() {
+        return new ResponseEntity<>(analyticsService.rebuildRollups() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT);
+    }
+}
@@ -1,8 +1,11 @@
 package com.e_commerce_product_catalog_api.controller;
 
 import com.e_commerce_product_catalog_api.entity.User;
-import com.e_commerce_product_catalog_api.jwt.JwtTokenUtil;
+import com.e_commerce_product_catalog_api.exception.BadRequestException;
 import com.e_commerce_product_catalog_api.repository.UserRepository;
+import com.e_commerce_product_catalog_api.service.CustomUserDetailsService;
+import com.e_commerce_product_catalog_api.service.PasswordVerificationService;
+import com.e_commerce_product_catalog_api.service.RefreshTokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,19 +19,25 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/auth")
 public class AuthController {
 
-    private final JwtTokenUtil jwtTokenUtil;
+    private final RefreshTokenService refreshTokenService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
+    private final PasswordVerificationService passwordVerificationService;
 
-    public AuthController(JwtTokenUtil jwtTokenUtil, UserRepository userRepository, PasswordEncoder passwordEncoder) {
-        this.jwtTokenUtil = jwtTokenUtil;
+    public AuthController(RefreshTokenService refreshTokenService, UserRepository userRepository, PasswordEncoder passwordEncoder,
+                          CustomUserDetailsService userDetailsService, PasswordVerificationService passwordVerificationService) {
+        this.refreshTokenService = refreshTokenService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.passwordVerificationService = passwordVerificationService;
     }
 
     @Operation(
@@ -44,29 +53,75 @@ public class AuthController {
                                                @Valid @RequestBody User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepository.save(user);
+        // A user cached under this username before the change must not be served again
+        userDetailsService.evict(user.getUsername());
         return new ResponseEntity<String>("User registered successfully!", HttpStatus.OK);
     }
 
     @Operation(
             summary = "User login",
-            description = "User login will generate a JWT token",
+            description = "User login will generate a short-lived JWT access token and a refresh token",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Token will be generated successfully"),
+                    @ApiResponse(responseCode = "429", description = "Too many logins are being verified"),
                     @ApiResponse(responseCode = "500", description = "Internal Server Error")
             }
     )
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@Parameter(description = "A map contains the required user details to login", required = true)
-                                                         @RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(@Parameter(description = "A map contains the required user details to login", required = true)
+                                                                           @RequestBody Map<String, String> request) {
         User user = userRepository.findByUsername(request.get("username"))
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if(passwordEncoder.matches(request.get("password"), user.getPassword())) {
-            String token = jwtTokenUtil.generateToken(user.getUsername());
-            return new ResponseEntity<>(Map.of("token", token), HttpStatus.OK);
-        }
-        else {
-            throw new RuntimeException("Invalid Credentials");
+        // The password is checked off the request thread, on the bounded verifier pool; the session is started on
+        // the thread the outcome is handed over on, leaving the verifier free for the next login
+        return passwordVerificationService.verify(user, request.get("password")).thenApply(matches -> {
+            if(!matches) {
+                throw new RuntimeException("Invalid Credentials");
+            }
+            return new ResponseEntity<>(toResponse(refreshTokenService.startSession(user)), HttpStatus.OK);
+        });
+    }
+
+    @Operation(
+            summary = "Refresh tokens",
+            description = "Exchanges a refresh token for a new access token and refresh token; the old refresh token is spent",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "New tokens generated successfully"),
+                    @ApiResponse(responseCode = "400", description = "No refresh token provided"),
+                    @ApiResponse(responseCode = "401", description = "Refresh token invalid, expired or already used")
+            }
+    )
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, String>> refresh(@Parameter(description = "A map containing the refresh token", required = true)
+                                                           @RequestBody Map<String, String> request) {
+        return new ResponseEntity<>(toResponse(refreshTokenService.refresh(refreshToken(request))), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "User logout",
+            description = "Ends the session of the refresh token; its access tokens are rejected from then on",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Session ended"),
+                    @ApiResponse(responseCode = "400", description = "No refresh token provided")
+            }
+    )
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Parameter(description = "A map containing the refresh token", required = true)
+                                           @RequestBody Map<String, String> request) {
+        refreshTokenService.logout(refreshToken(request));
+        return ResponseEntity.noContent().build();
+    }
+
+    private static String refreshToken(Map<String, String> request) {
+        String refreshToken = request.get("refreshToken");
+        if(refreshToken == null || refreshToken.isBlank()) {
+            throw new BadRequestException("refreshToken is required");
         }
+        return refreshToken;
+    }
+
+    private static Map<String, String> toResponse(RefreshTokenService.Tokens tokens) {
+        return Map.of("token", tokens.accessToken(), "refreshToken", tokens.refreshToken());
     }
 }
@@ -1,6 +1,7 @@
 package com.e_commerce_product_catalog_api.controller;
 
 import com.e_commerce_product_catalog_api.dtos.CategoryDTO;
+import com.e_commerce_product_catalog_api.entity.EntityVersion;
 import com.e_commerce_product_catalog_api.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -67,13 +69,22 @@ public class CategoryController {
             description = "Retrieve a category by its ID",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Category retrieved successfully"),
+                    @ApiResponse(responseCode = "304", description = "Category has not changed since the version in If-None-Match"),
                     @ApiResponse(responseCode = "404", description = "Category not found")
             }
     )
     public ResponseEntity<CategoryDTO> getCategoryById(@Parameter(description = "ID of the category to be retrieved", required = true)
-                                                           @PathVariable("id") @Min(1) Long id) {
+                                                           @PathVariable("id") @Min(1) Long id,
+                                                       @Parameter(description = "ETag of a previously retrieved copy of the category")
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            EntityVersion current = categoryService.getCategoryVersion(id);
+            if (EntityTags.matches(ifNoneMatch, EntityTags.of(current.version()))) {
+                return EntityTags.validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), current.version(), current.updatedAt()).build();
+            }
+        }
         CategoryDTO category = categoryService.getCategoryById(id);
-        return new ResponseEntity<>(category, HttpStatus.OK);
+        return EntityTags.validators(ResponseEntity.ok(), category.getVersion(), category.getUpdatedAt()).body(category);
     }
 
     // Update Category
@@ -0,0 +1,50 @@
+package com.e_commerce_product_catalog_api.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+
+/**
+ * Builds and compares the validators sent with single-resource GET responses. The ETag is the JPA version of the
+ * entity, which changes on every committed update, so it is a strong validator for the JSON representation.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches the current ETag. Weak comparison is used, as RFC 9110
+     * requires for {@code If-None-Match}, so a {@code W/} prefix added by an intermediary does not defeat the match.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <B extends ResponseEntity.HeadersBuilder<B>> B validators(B builder, Long version, Instant updatedAt) {
+        builder.eTag(of(version));
+        if (updatedAt != null) {
+            builder.lastModified(updatedAt);
+        }
+        return builder;
+    }
+}
@@ -1,6 +1,10 @@
 package com.e_commerce_product_catalog_api.controller;
 
 import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+import com.e_commerce_product_catalog_api.dtos.OrderStatusDTO;
+import com.e_commerce_product_catalog_api.service.OrderAcceptanceService;
+import com.e_commerce_product_catalog_api.service.OrderExportService;
+import com.e_commerce_product_catalog_api.service.OrderIngestionService;
 import com.e_commerce_product_catalog_api.service.OrderService;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -8,17 +12,26 @@ import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
-import java.util.List;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -29,37 +42,80 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderIngestionService orderIngestionService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderAcceptanceService orderAcceptanceService;
+
     @PostMapping
     @Operation(
             summary = "Create a new Order",
-            description = "Creates a new order along with the list of items included in the order",
+            description = "Creates a new order along with the list of items included in the order. A retry sent with the "
+                    + "same Idempotency-Key returns the first attempt's order instead of placing another. In async mode the "
+                    + "order is accepted under its id and placed in the background; poll the Location for its status",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Order created successfully"),
-                    @ApiResponse(responseCode = "400", description = "Invalid input data provided")
+                    @ApiResponse(responseCode = "202", description = "Order accepted for placement (async mode)"),
+                    @ApiResponse(responseCode = "400", description = "Invalid input data provided, or an Idempotency-Key reused for a different order"),
+                    @ApiResponse(responseCode = "429", description = "Too many orders are waiting to be placed")
             }
     )
-    public ResponseEntity<OrderDTO> createOrder(
+    public CompletableFuture<ResponseEntity<OrderDTO>> createOrder(
+            @Parameter(description = "Client-chosen key identifying this order across retries")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Parameter(description = "Order data to be created", required = true)
             @Valid @RequestBody OrderDTO orderDTO
     ) {
-        OrderDTO createdOrder = orderService.createOrder(orderDTO);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        if (orderAcceptanceService.isEnabled()) {
+            return orderAcceptanceService.accept(orderDTO, idempotencyKey)
+                    .thenApply(acceptedOrder -> ResponseEntity.accepted()
+                            .location(URI.create("/api/v1/orders/" + acceptedOrder.getId() + "/status"))
+                            .body(acceptedOrder));
+        }
+        return orderIngestionService.submit(orderDTO, idempotencyKey)
+                .thenApply(createdOrder -> new ResponseEntity<>(createdOrder, HttpStatus.CREATED));
     }
 
     @GetMapping
     @Operation(
-            summary = "Get all Orders",
-            description = "Retrieves all orders along with their details",
+            summary = "Get Orders",
+            description = "Retrieves a page of orders with their items, optionally limited to orders placed in [from, to)",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Orders retrieved successfully"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             }
     )
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
-        List<OrderDTO> orders = orderService.getAllOrders();
+    public ResponseEntity<Page<OrderDTO>> getOrders(
+            @Parameter(description = "Earliest order date, inclusive") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest order date, exclusive") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @PageableDefault(size = 20, sort = {"orderDate", "id"}, direction = Sort.Direction.DESC) Pageable pageable) {
+        Page<OrderDTO> orders = orderService.getOrders(from, to, pageable);
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Export Orders as NDJSON",
+            description = "Streams one JSON order per line, oldest first, optionally limited to orders placed in [since, until)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Orders streamed successfully")
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "Earliest order date, inclusive; pass the end of the previous export for an incremental one")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @Parameter(description = "Latest order date, exclusive") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until) {
+        StreamingResponseBody body = out -> orderExportService.exportNdjson(since, until, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get Order by ID",
@@ -77,6 +133,23 @@ public class OrderController {
         return new ResponseEntity<>(order, HttpStatus.OK);
     }
 
+    @GetMapping("/{id}/status")
+    @Operation(
+            summary = "Get Order Status",
+            description = "Reports whether an order is still being placed, was confirmed, or was rejected and why",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Order status retrieved successfully"),
+                    @ApiResponse(responseCode = "404", description = "Order not found with the provided ID")
+            }
+    )
+    public ResponseEntity<OrderStatusDTO> getOrderStatus(
+            @Parameter(description = "ID of the order", required = true)
+            @PathVariable("id") @Min(1) Long id
+    ) {
+        OrderStatusDTO status = orderAcceptanceService.getStatus(id);
+        return new ResponseEntity<>(status, HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Update an Order",
@@ -1,15 +1,27 @@
 package com.e_commerce_product_catalog_api.controller;
 
+import com.e_commerce_product_catalog_api.dtos.CursorPageDTO;
+import com.e_commerce_product_catalog_api.dtos.FacetedPage;
 import com.e_commerce_product_catalog_api.dtos.ProductDTO;
+import com.e_commerce_product_catalog_api.dtos.SuggestionDTO;
+import com.e_commerce_product_catalog_api.entity.EntityVersion;
+import com.e_commerce_product_catalog_api.pagination.CountMode;
+import com.e_commerce_product_catalog_api.service.ProductImportService;
 import com.e_commerce_product_catalog_api.service.ProductService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -20,6 +32,11 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/products")
 @Validated
@@ -29,6 +46,9 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
     @PostMapping
     @Operation(
             summary = "Create a new Product",
@@ -46,6 +66,37 @@ public class ProductController {
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
 
+    // Both imports write their progress on the request thread rather than through a StreamingResponseBody, so a
+    // long feed is not cut off by the async request timeout
+    @PostMapping(value = "/import", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Import Products from NDJSON",
+            description = "Creates products from a feed with one product JSON object per line. The body is streamed and written in batches; invalid rows are skipped. "
+                    + "The response streams one progress line after every batch, listing the rows rejected since the previous line, and a last line marked done",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Feed processed, see the progress lines for rejected rows")
+            }
+    )
+    public void importProductsNdjson(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        productImportService.importNdjson(body, productImportService.ndjsonProgress(response.getOutputStream()));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Import Products from CSV",
+            description = "Creates products from a CSV feed whose header names the columns name, description, price, stock and categoryId. The body is streamed and written in batches; invalid rows are skipped. "
+                    + "The response streams one progress line after every batch, listing the rows rejected since the previous line, and a last line marked done",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Feed processed, see the progress lines for rejected rows"),
+                    @ApiResponse(responseCode = "400", description = "CSV header is missing required columns")
+            }
+    )
+    public void importProductsCsv(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        productImportService.importCsv(body, productImportService.ndjsonProgress(response.getOutputStream()));
+    }
+
     @GetMapping
     @Operation(
             summary = "Get paginated list of Products",
@@ -60,20 +111,80 @@ public class ProductController {
         return new ResponseEntity<>(products, HttpStatus.OK);
     }
 
+    @GetMapping("/scroll")
+    @Operation(
+            summary = "Get Products by cursor",
+            description = "Retrieves products page by page using the continuation token of the previous page instead of an offset. No total count is returned",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort")
+            }
+    )
+    public ResponseEntity<CursorPageDTO<ProductDTO>> scrollProducts(
+            @Parameter(description = "Continuation token returned with the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of products per page") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @Parameter(description = "Sort for the first page (id, name or price); later pages keep the sort of their cursor") Sort sort) {
+        CursorPageDTO<ProductDTO> products = productService.scrollProducts(cursor, sort, size);
+        return new ResponseEntity<>(products, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get Product by ID",
             description = "Retrieves the details of a product by its ID",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Product retrieved successfully"),
+                    @ApiResponse(responseCode = "304", description = "Product has not changed since the version in If-None-Match"),
                     @ApiResponse(responseCode = "404", description = "Product not found with the provided ID")
             }
     )
     public ResponseEntity<ProductDTO> getProductById(
             @Parameter(description = "ID of the product to be retrieved", required = true)
-            @PathVariable("id") @Min(1) Long id
+            @PathVariable("id") @Min(1) Long id,
+            @Parameter(description = "ETag of a previously retrieved copy of the product")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
+        if (ifNoneMatch != null) {
+            EntityVersion current = productService.getProductVersion(id);
+            if (EntityTags.matches(ifNoneMatch, EntityTags.of(current.version()))) {
+                return EntityTags.validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), current.version(), current.updatedAt()).build();
+            }
+        }
         ProductDTO product = productService.getProductById(id);
+        return EntityTags.validators(ResponseEntity.ok(), product.getVersion(), product.getUpdatedAt()).body(product);
+    }
+
+    @PutMapping("/{id}/hot-sku")
+    @Operation(
+            summary = "Switch a Product to hot-SKU mode",
+            description = "Serves the product's stock from an in-memory ledger for flash sales; orders reserve from memory and the stored stock is updated in the background",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Hot-SKU mode switched on"),
+                    @ApiResponse(responseCode = "404", description = "Product not found with the provided ID")
+            }
+    )
+    public ResponseEntity<ProductDTO> enableHotSku(
+            @Parameter(description = "ID of the product", required = true)
+            @PathVariable("id") @Min(1) Long id
+    ) {
+        ProductDTO product = productService.setHotSku(id, true);
+        return new ResponseEntity<>(product, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/{id}/hot-sku")
+    @Operation(
+            summary = "Switch a Product out of hot-SKU mode",
+            description = "Applies the product's pending reservations and returns its stock to the database",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Hot-SKU mode switched off"),
+                    @ApiResponse(responseCode = "404", description = "Product not found with the provided ID")
+            }
+    )
+    public ResponseEntity<ProductDTO> disableHotSku(
+            @Parameter(description = "ID of the product", required = true)
+            @PathVariable("id") @Min(1) Long id
+    ) {
+        ProductDTO product = productService.setHotSku(id, false);
         return new ResponseEntity<>(product, HttpStatus.OK);
     }
 
@@ -82,11 +193,56 @@ public class ProductController {
             @Parameter(description = "Product name to filter") @RequestParam(required = false) String name,
             @Parameter(description = "Category name to filter") @RequestParam(required = false) String category,
             @Parameter(description = "Product description to filter") @RequestParam(required = false) String description,
+            @Parameter(description = "How totalElements is computed: EXACT, APPROXIMATE (a recent count for the same filters) or NONE (not counted: totalElements and totalPages are left out, counted is false and last tells whether another page follows). Defaults to EXACT for the first page and APPROXIMATE after it")
+            @RequestParam(required = false) CountMode count,
+            @Parameter(description = "Whether to include category, price-range and availability counts for the same filters")
+            @RequestParam(defaultValue = "false") boolean facets,
+            @Parameter(description = "Width of each price range in the price histogram facet")
+            @RequestParam(defaultValue = "100") @DecimalMin(value = "0", inclusive = false) BigDecimal priceBucketWidth,
             Pageable pageable) {
-        Page<ProductDTO> filteredProducts = productService.filterProducts(name, category, description, pageable);
+        Page<ProductDTO> filteredProducts = productService.filterProducts(name, category, description, pageable, count);
+        if (facets) {
+            filteredProducts = FacetedPage.of(filteredProducts, productService.getProductFacets(name, category, description, priceBucketWidth));
+        }
         return new ResponseEntity<Page<ProductDTO>>(filteredProducts, HttpStatus.OK);
     }
 
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Suggest Product and Category names",
+            description = "Completes a partially typed search term with the most common matching product and category names. Any word of a name can be completed",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid input data provided")
+            }
+    )
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @Parameter(description = "The partially typed search term", required = true) @RequestParam @NotBlank String prefix,
+            @Parameter(description = "Maximum number of suggestions") @RequestParam(defaultValue = "10") @Min(1) @Max(10) int limit) {
+        List<SuggestionDTO> suggestions = productService.suggest(prefix, limit);
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
+    }
+
+    @GetMapping("/search/scroll")
+    @Operation(
+            summary = "Search Products by cursor",
+            description = "Filters products like /search, reading page by page with a continuation token instead of an offset. No total count is returned",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort")
+            }
+    )
+    public ResponseEntity<CursorPageDTO<ProductDTO>> scrollFilteredProducts(
+            @Parameter(description = "Product name to filter") @RequestParam(required = false) String name,
+            @Parameter(description = "Category name to filter") @RequestParam(required = false) String category,
+            @Parameter(description = "Product description to filter") @RequestParam(required = false) String description,
+            @Parameter(description = "Continuation token returned with the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of products per page") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @Parameter(description = "Sort for the first page (id, name or price); later pages keep the sort of their cursor") Sort sort) {
+        CursorPageDTO<ProductDTO> filteredProducts = productService.scrollFilteredProducts(name, category, description, cursor, sort, size);
+        return new ResponseEntity<>(filteredProducts, HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Update an existing Product",
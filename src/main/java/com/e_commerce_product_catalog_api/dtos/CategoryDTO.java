@@ -4,6 +4,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
+import java.time.Instant;
+
 @Data
 @Schema(description = "Represents a category in the product catalog")
 public class CategoryDTO {
@@ -17,6 +19,10 @@ public class CategoryDTO {
 
     @Schema(description = "A brief description of the category", example = "Devices, gadgets, and appliances")
     private String description;
-}
 
+    @Schema(description = "The version of the category, incremented on every change", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
 
+    @Schema(description = "When the category was last changed", example = "2025-01-24T10:00:00Z", accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant updatedAt;
+}
@@ -0,0 +1,27 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Sales of one category over the requested period")
+public class CategorySalesDTO {
+
+    @Schema(description = "The unique identifier of the category", example = "1")
+    private Long categoryId;
+
+    @Schema(description = "The name of the category, absent once it has been deleted", example = "Electronics")
+    private String categoryName;
+
+    @Schema(description = "Units sold", example = "340")
+    private long units;
+
+    @Schema(description = "Revenue at the prices the orders were placed at", example = "152300.00")
+    private BigDecimal revenue;
+}
@@ -0,0 +1,22 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "A page of results read by cursor, without a total count")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDTO<T> {
+
+    @Schema(description = "The results on this page")
+    private List<T> content;
+
+    @Schema(description = "Whether more results follow this page", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque token to pass as the cursor parameter to read the next page", example = "eyJzb3J0IjpbImlkOkFTQyJdLCJrZXlzIjp7ImlkIjoiMjAifX0")
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Sales of one day")
+public class DailySalesDTO {
+
+    @Schema(description = "The day the orders were placed", example = "2025-01-24")
+    private LocalDate date;
+
+    @Schema(description = "Units sold", example = "870")
+    private long units;
+
+    @Schema(description = "Revenue at the prices the orders were placed at", example = "402150.00")
+    private BigDecimal revenue;
+}
@@ -0,0 +1,44 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import com.e_commerce_product_catalog_api.pagination.UncountedPage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * A page of search results serialized like any other page, with the facet counts for the same filters alongside.
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final ProductFacetsDTO facets;
+
+    public FacetedPage(Page<T> page, ProductFacetsDTO facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    // Keeps an uncounted page uncounted, so the facets do not bring back a total that was never counted
+    public static <T> Page<T> of(Page<T> page, ProductFacetsDTO facets) {
+        if (page instanceof UncountedPage<T> uncounted) {
+            return new Uncounted<>(uncounted, facets);
+        }
+        return new FacetedPage<>(page, facets);
+    }
+
+    public ProductFacetsDTO getFacets() {
+        return facets;
+    }
+
+    public static class Uncounted<T> extends UncountedPage<T> {
+
+        private final ProductFacetsDTO facets;
+
+        public Uncounted(UncountedPage<T> page, ProductFacetsDTO facets) {
+            super(page.getContent(), page.getPageable(), page.hasNext());
+            this.facets = facets;
+        }
+
+        public ProductFacetsDTO getFacets() {
+            return facets;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "One line of the order export: an order with its items, products referenced by id")
+public class OrderExportDTO {
+
+    @Schema(description = "The unique identifier of the order", example = "1")
+    private Long id;
+
+    @Schema(description = "The date and time when the order was placed", example = "2025-01-24T10:00:00")
+    private LocalDateTime orderDate;
+
+    @Schema(description = "The items of the order")
+    private List<Item> orderItems = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "An item of an exported order")
+    public static class Item {
+
+        @Schema(description = "The unique identifier of the order item", example = "1")
+        private Long id;
+
+        @Schema(description = "The identifier of the ordered product", example = "1")
+        private Long productId;
+
+        @Schema(description = "The quantity of the product in the order", example = "2")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,28 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Where an accepted order stands")
+public class OrderStatusDTO {
+
+    @Schema(description = "The unique identifier of the order", example = "1")
+    private Long orderId;
+
+    @Schema(description = "PENDING while the order is being placed, then CONFIRMED once stored or REJECTED", example = "CONFIRMED")
+    private Status status;
+
+    @Schema(description = "Why the order was rejected", example = "Insufficient stock for product ID: 1")
+    private String reason;
+
+    public enum Status {
+        PENDING,
+        CONFIRMED,
+        REJECTED
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Data
 @Schema(description = "Represents a product in the catalog")
@@ -41,4 +42,13 @@ public class ProductDTO {
 
     @Schema(description = "The name of the category the product belongs to", example = "Electronics")
     private String categoryName;
+
+    @Schema(description = "The version of the product, incremented on every change", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
+    @Schema(description = "When the product was last changed", example = "2025-01-24T10:00:00Z", accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant updatedAt;
+
+    @Schema(description = "Whether stock is reserved in memory for flash sales", example = "false", accessMode = Schema.AccessMode.READ_ONLY)
+    private Boolean hotSku;
 }
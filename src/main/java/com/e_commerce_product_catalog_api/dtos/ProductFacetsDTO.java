@@ -0,0 +1,59 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "Product counts for the current search filters, grouped by category, price range and availability")
+public class ProductFacetsDTO {
+
+    @Schema(description = "Number of matching products per category")
+    private List<CategoryCount> categories = new ArrayList<>();
+
+    @Schema(description = "Number of matching products per fixed-width price range, in ascending order")
+    private List<PriceBucket> priceHistogram = new ArrayList<>();
+
+    @Schema(description = "Number of matching products with stock left", example = "42")
+    private long inStock;
+
+    @Schema(description = "Number of matching products that are out of stock", example = "3")
+    private long outOfStock;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Number of matching products in a category")
+    public static class CategoryCount {
+
+        @Schema(description = "The unique identifier of the category", example = "1")
+        private Long categoryId;
+
+        @Schema(description = "The name of the category", example = "Electronics")
+        private String categoryName;
+
+        @Schema(description = "Number of matching products in the category", example = "12")
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Number of matching products priced within a range")
+    public static class PriceBucket {
+
+        @Schema(description = "Lower bound of the range, inclusive", example = "100")
+        private BigDecimal from;
+
+        @Schema(description = "Upper bound of the range, exclusive", example = "200")
+        private BigDecimal to;
+
+        @Schema(description = "Number of matching products priced within the range", example = "7")
+        private long count;
+    }
+}
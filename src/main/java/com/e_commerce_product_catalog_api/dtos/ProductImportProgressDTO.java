@@ -0,0 +1,27 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "One line of a streamed product import, written after every batch and once more at the end")
+public class ProductImportProgressDTO {
+
+    @Schema(description = "Number of data rows read from the feed so far", example = "250000")
+    private long received;
+
+    @Schema(description = "Number of products created so far", example = "249999")
+    private long imported;
+
+    @Schema(description = "Number of rows rejected so far", example = "1")
+    private long failed;
+
+    @Schema(description = "The rows rejected since the previous line")
+    private List<ProductImportResultDTO.RowError> errors = new ArrayList<>();
+
+    @Schema(description = "Whether the whole feed has been processed; only the last line is done", example = "false")
+    private boolean done;
+}
@@ -0,0 +1,42 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "Outcome of a bulk product import")
+public class ProductImportResultDTO {
+
+    @Schema(description = "Number of data rows read from the feed", example = "500000")
+    private long received;
+
+    @Schema(description = "Number of products created", example = "499998")
+    private long imported;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private long failed;
+
+    @Schema(description = "The rejected rows, up to the reporting limit")
+    private List<RowError> errors = new ArrayList<>();
+
+    @Schema(description = "Whether more rows were rejected than are listed in errors", example = "false")
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "A row of the feed that was not imported")
+    public static class RowError {
+
+        @Schema(description = "The line of the feed the row starts on", example = "42")
+        private long line;
+
+        @Schema(description = "Why the row was rejected", example = "Category not found with id: 99")
+        private String message;
+    }
+}
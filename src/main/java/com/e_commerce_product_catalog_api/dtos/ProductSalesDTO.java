@@ -0,0 +1,27 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Sales of one product over the requested period")
+public class ProductSalesDTO {
+
+    @Schema(description = "The unique identifier of the product", example = "1")
+    private Long productId;
+
+    @Schema(description = "The name of the product, absent once it has been deleted", example = "Smartphone")
+    private String productName;
+
+    @Schema(description = "Units sold", example = "120")
+    private long units;
+
+    @Schema(description = "Revenue at the prices the orders were placed at", example = "59880.00")
+    private BigDecimal revenue;
+}
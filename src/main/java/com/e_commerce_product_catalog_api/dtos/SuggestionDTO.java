@@ -0,0 +1,19 @@
+package com.e_commerce_product_catalog_api.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A completion for a partially typed search term")
+public class SuggestionDTO {
+
+    @Schema(description = "The completed product or category name", example = "Smartphone")
+    private String text;
+
+    @Schema(description = "Whether the completion is a product or a category name", example = "PRODUCT")
+    private String type;
+}
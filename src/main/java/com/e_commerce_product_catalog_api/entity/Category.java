@@ -1,10 +1,14 @@
 package com.e_commerce_product_catalog_api.entity;
 
+import com.e_commerce_product_catalog_api.repository.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -15,7 +19,8 @@ import java.util.List;
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories")
+    @SequenceGenerator(name = "categories", sequenceName = IdSequences.CATEGORIES, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -24,4 +29,13 @@ public class Category {
 
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Product> products;
+
+    // Incremented on every update; identifies the representation in ETags
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
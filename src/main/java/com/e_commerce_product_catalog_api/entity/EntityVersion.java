@@ -0,0 +1,6 @@
+package com.e_commerce_product_catalog_api.entity;
+
+import java.time.Instant;
+
+public record EntityVersion(Long version, Instant updatedAt) {
+}
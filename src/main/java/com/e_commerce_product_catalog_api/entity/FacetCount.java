@@ -0,0 +1,14 @@
+package com.e_commerce_product_catalog_api.entity;
+
+import java.math.BigDecimal;
+
+public interface FacetCount {
+
+    String getFacet();
+    Long getCategoryId();
+    String getCategoryName();
+    BigDecimal getPriceBucket();
+    Boolean getInStock();
+    Long getProductCount();
+
+}
@@ -0,0 +1,30 @@
+package com.e_commerce_product_catalog_api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+public class IdempotencyRecord {
+
+    @Id
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, to tell a retry from a different request reusing the key
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // The response body returned when the request first succeeded
+    @Column(nullable = false, columnDefinition = "text")
+    private String response;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -1,9 +1,13 @@
 package com.e_commerce_product_catalog_api.entity;
 
+import com.e_commerce_product_catalog_api.repository.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,16 +16,26 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_order_date", columnList = "order_date"))
+@FilterDef(name = Order.ORDER_DATE_FILTER, parameters = {
+        @ParamDef(name = "first", type = LocalDateTime.class),
+        @ParamDef(name = "last", type = LocalDateTime.class)
+})
 public class Order {
 
+    // Limits the lines read with an order to its date range, so the database reads only the order_items partitions
+    // holding it; lines share their order's date, so no line of an order in the range is left out
+    public static final String ORDER_DATE_FILTER = "orderDateRange";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders")
+    @SequenceGenerator(name = "orders", sequenceName = IdSequences.ORDERS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
     private LocalDateTime orderDate;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Filter(name = ORDER_DATE_FILTER, condition = "(order_date IS NULL OR order_date BETWEEN :first AND :last)")
     private List<OrderItem> orderItems;
 }
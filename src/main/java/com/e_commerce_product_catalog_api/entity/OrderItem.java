@@ -1,28 +1,55 @@
 package com.e_commerce_product_catalog_api.entity;
 
+import com.e_commerce_product_catalog_api.repository.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id"),
+        @Index(name = "idx_order_items_stock_pending", columnList = "stock_pending"),
+        @Index(name = "idx_order_items_rolled_up", columnList = "rolled_up")
+})
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items")
+    @SequenceGenerator(name = "order_items", sequenceName = IdSequences.ORDER_ITEMS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
+    // A copy of the order's date, by which order_items is partitioned alongside orders; null on lines placed
+    // before it was recorded
+    private LocalDateTime orderDate;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
     @Column(nullable = false)
     private Integer quantity;
+
+    // Set for hot-SKU lines: reserved in memory, not yet taken off products.stock by the background writer
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean stockPending;
+
+    // The product's price when the order was placed; null for lines placed before prices were recorded
+    private BigDecimal unitPrice;
+
+    // Set once the line is counted in sales_rollups by the background rollup writer
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean rolledUp;
 }
@@ -0,0 +1,10 @@
+package com.e_commerce_product_catalog_api.entity;
+
+import java.time.LocalDateTime;
+
+public interface OrderKey {
+
+    Long getId();
+    LocalDateTime getOrderDate();
+
+}
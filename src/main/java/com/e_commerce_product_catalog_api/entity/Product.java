@@ -1,11 +1,15 @@
 package com.e_commerce_product_catalog_api.entity;
 
+import com.e_commerce_product_catalog_api.repository.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -16,7 +20,8 @@ import java.util.List;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products")
+    @SequenceGenerator(name = "products", sequenceName = IdSequences.PRODUCTS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -37,5 +42,19 @@ public class Product {
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems;
 
+    // Incremented on every update; identifies the representation in ETags
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    // Stock is reserved from the in-memory ledger instead of the row while set
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean hotSku;
+
 
 }
@@ -0,0 +1,37 @@
+package com.e_commerce_product_catalog_api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_session_id", columnList = "session_id"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
+public class RefreshToken {
+
+    // SHA-256 of the token; the token itself is only ever held by the client
+    @Id
+    @Column(length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private String username;
+
+    // The login this token descends from; every token rotated from it shares the id, and so do its access tokens
+    @Column(nullable = false, length = 36)
+    private String sessionId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Set when the token is exchanged; presenting it again means it was stolen
+    private Instant usedAt;
+}
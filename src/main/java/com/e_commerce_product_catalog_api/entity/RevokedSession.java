@@ -0,0 +1,30 @@
+package com.e_commerce_product_catalog_api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_sessions", indexes = {
+        @Index(name = "idx_revoked_sessions_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_sessions_expires_at", columnList = "expires_at")
+})
+public class RevokedSession {
+
+    @Id
+    @Column(length = 36)
+    private String sessionId;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    // When the last access token the session could have been issued expires; the row is useless after that
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,46 @@
+package com.e_commerce_product_catalog_api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Units sold and revenue of one product on one day, kept up to date by the rollup writer so sales reports read a
+ * row per product and day instead of every order line.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sales_rollups", indexes = @Index(name = "idx_sales_rollups_category_id", columnList = "category_id"))
+public class SalesRollup {
+
+    @EmbeddedId
+    private Key key;
+
+    // The product's category when its sales were first counted for the day
+    @Column(nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+
+        private LocalDate saleDate;
+
+        private Long productId;
+    }
+}
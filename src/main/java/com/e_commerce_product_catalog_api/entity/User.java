@@ -1,5 +1,6 @@
 package com.e_commerce_product_catalog_api.entity;
 
+import com.e_commerce_product_catalog_api.repository.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +18,8 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users")
+    @SequenceGenerator(name = "users", sequenceName = IdSequences.USERS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     private String username;
@@ -0,0 +1,7 @@
+package com.e_commerce_product_catalog_api.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
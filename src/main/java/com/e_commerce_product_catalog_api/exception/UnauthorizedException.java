@@ -0,0 +1,7 @@
+package com.e_commerce_product_catalog_api.exception;
+
+public class UnauthorizedException extends RuntimeException {
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+}
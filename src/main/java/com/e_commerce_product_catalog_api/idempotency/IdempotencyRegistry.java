@@ -0,0 +1,139 @@
+package com.e_commerce_product_catalog_api.idempotency;
+
+import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory record of recent idempotency keys, split into independently locked stripes so unrelated keys never
+ * contend. An entry lives while its request is in flight and for {@code ttl} after it succeeded; expired entries
+ * are swept from a stripe the next time that stripe is touched.
+ */
+final class IdempotencyRegistry {
+
+    private final Stripe[] stripes;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    IdempotencyRegistry(int stripeCount, Duration ttl, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns the entry for the key, creating it when there is none. Only the caller that created an entry sees
+     * {@link Claim#owner()} set and is expected to run the request.
+     */
+    Claim claim(String key, String fingerprint) {
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            stripe.sweep(now);
+            Entry entry = stripe.entries.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                return new Claim(entry, false);
+            }
+            entry = new Entry(fingerprint);
+            stripe.entries.put(key, entry);
+            return new Claim(entry, true);
+        }
+    }
+
+    // Keeps a succeeded entry around for the TTL, so retries arriving shortly after are answered from memory
+    void succeeded(String key, Entry entry) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            entry.expiresAt = nanoClock.getAsLong() + ttlNanos;
+        }
+    }
+
+    // Forgets a failed entry, so the next attempt with the key runs the request again
+    void failed(String key, Entry entry) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.entries.remove(key, entry);
+        }
+    }
+
+    // Forgets the key once its request completes, if it completed with the given order, so an answer that turned
+    // out to be wrong is not handed to retries
+    void forget(String key, Long orderId) {
+        Stripe stripe = stripeFor(key);
+        Entry entry;
+        synchronized (stripe) {
+            entry = stripe.entries.get(key);
+        }
+        if (entry != null) {
+            entry.result.thenAccept(order -> {
+                if (orderId.equals(order.getId())) {
+                    failed(key, entry);
+                }
+            });
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    record Claim(Entry entry, boolean owner) {
+    }
+
+    static final class Entry {
+
+        private final String fingerprint;
+        private final CompletableFuture<OrderDTO> result = new CompletableFuture<>();
+        private long expiresAt = Long.MAX_VALUE;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        String fingerprint() {
+            return fingerprint;
+        }
+
+        CompletableFuture<OrderDTO> result() {
+            return result;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+        }
+    }
+
+    private final class Stripe {
+
+        private final Map<String, Entry> entries = new HashMap<>();
+        private long nextSweep = nanoClock.getAsLong();
+
+        // Drops expired entries at most once per TTL, keeping a sweep off the common path
+        void sweep(long now) {
+            if (now - nextSweep < 0) {
+                return;
+            }
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            nextSweep = now + ttlNanos;
+        }
+    }
+}
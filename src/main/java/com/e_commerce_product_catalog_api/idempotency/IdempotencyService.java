@@ -0,0 +1,174 @@
+package com.e_commerce_product_catalog_api.idempotency;
+
+import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+import com.e_commerce_product_catalog_api.entity.IdempotencyRecord;
+import com.e_commerce_product_catalog_api.exception.BadRequestException;
+import com.e_commerce_product_catalog_api.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@code Idempotency-Key} handling for order submission. A repeat of a request still in flight, or one that
+ * succeeded within {@code ttl}, is answered from {@link IdempotencyRegistry} and shares the first attempt's outcome.
+ * Older repeats are answered from the {@code idempotency_keys} table, whose row is written in the same transaction
+ * as the order, so a committed order always has its key stored and a rolled-back one never does.
+ * <p>
+ * Failed attempts are not remembered: the client may retry them with the same key. Neither are orders accepted
+ * for asynchronous placement that end up rejected, see {@link #forget}.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int STRIPES = 64;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final IdempotencyRegistry registry;
+    private ScheduledExecutorService purger;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                              @Value("${catalog.orders.idempotency.ttl:10m}") Duration ttl,
+                              @Value("${catalog.orders.idempotency.retention:24h}") Duration retention) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.registry = new IdempotencyRegistry(STRIPES, ttl, System::nanoTime);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-key-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeQuietly, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    /**
+     * Places the order at most once per key. {@code placement} is only run by the first request with the key, and
+     * must call the recorder it is given inside the transaction that places the order.
+     */
+    public CompletableFuture<OrderDTO> execute(String key, OrderDTO orderDTO,
+                                               Function<Consumer<OrderDTO>, CompletableFuture<OrderDTO>> placement) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(orderDTO);
+        IdempotencyRegistry.Claim claim = registry.claim(key, fingerprint);
+        IdempotencyRegistry.Entry entry = claim.entry();
+        if (!claim.owner()) {
+            checkFingerprint(entry.fingerprint(), fingerprint);
+            return entry.result();
+        }
+
+        CompletableFuture<OrderDTO> placed;
+        try {
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key);
+            if (stored.isPresent()) {
+                checkFingerprint(stored.get().getFingerprint(), fingerprint);
+                placed = CompletableFuture.completedFuture(objectMapper.readValue(stored.get().getResponse(), OrderDTO.class));
+            }
+            else {
+                placed = placement.apply(order -> record(key, fingerprint, order));
+            }
+        }
+        catch (JsonProcessingException | RuntimeException e) {
+            registry.failed(key, entry);
+            entry.result().completeExceptionally(e);
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Stored response for Idempotency-Key " + key + " is unreadable", e);
+        }
+        placed.whenComplete((order, error) -> {
+            if (error != null) {
+                registry.failed(key, entry);
+                entry.result().completeExceptionally(error);
+            }
+            else {
+                registry.succeeded(key, entry);
+                entry.result().complete(order);
+            }
+        });
+        return entry.result();
+    }
+
+    /**
+     * Forgets a key whose request was answered with an order that was then not placed, so a retry with the key
+     * places the order again instead of getting back the id of an order that does not exist. Nothing is stored for
+     * such a key, as its recorder never ran in a committed transaction.
+     */
+    public void forget(String key, Long orderId) {
+        registry.forget(key, orderId);
+    }
+
+    // Deletes stored keys older than the retention; a repeat arriving later is treated as a new request
+    public int purgeExpired() {
+        return idempotencyRecordRepository.deleteByCreatedAtBefore(Instant.now().minus(retention));
+    }
+
+    private void record(String key, String fingerprint, OrderDTO order) {
+        try {
+            idempotencyRecordRepository.insert(key, fingerprint, objectMapper.writeValueAsString(order), Instant.now());
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store the response for Idempotency-Key " + key, e);
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = purgeExpired();
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+        catch (RuntimeException e) {
+            log.warn("Idempotency key purge failed, it will be retried on the next run", e);
+        }
+    }
+
+    private static void checkFingerprint(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private String fingerprint(OrderDTO orderDTO) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderDTO));
+            return HexFormat.of().formatHex(digest);
+        }
+        catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint the order", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.e_commerce_product_catalog_api.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -10,41 +11,72 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtTokenUtil {
 
+    // Claim holding the user's roles, so a request can be authorised from its token alone
+    public static final String ROLES_CLAIM = "roles";
+    // Claim holding the login session the token was issued for, so revoking the session revokes the token
+    public static final String SESSION_CLAIM = "sid";
+
     private final Key key;
-    private static final long EXPIRATION_TIME = 86400000;
+    // Built once: a parser is immutable and safe to share between request threads
+    private final JwtParser parser;
+    // Kept short: a token is only checked against revoked sessions, never against the user, until it expires
+    private final Duration accessTokenTtl;
 
-    public JwtTokenUtil(@Value("${jwt.secret}") String secretKey) {
+    public JwtTokenUtil(@Value("${jwt.secret}") String secretKey,
+                        @Value("${catalog.security.access-token-ttl:15m}") Duration accessTokenTtl) {
         key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.accessTokenTtl = accessTokenTtl;
     }
 
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
 
-
-    public String generateToken(String username) {
+    public String generateToken(String username, Collection<String> roles, String sessionId) {
         return Jwts.builder()
                 .setSubject(username)
+                .claim(ROLES_CLAIM, roles == null ? List.of() : List.copyOf(roles))
+                .claim(SESSION_CLAIM, sessionId)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtl.toMillis()))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token's signature and expiry and returns its claims, or empty when the token is not valid.
+     * The token is parsed once.
+     */
+    public Optional<Claims> parseToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            return Optional.of(parser.parseClaimsJws(token).getBody());
         }
         catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
+
+    // The roles carried by the token, or null for a token issued before roles were added to it
+    public List<String> getRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return null;
+        }
+        return values.stream().map(String::valueOf).toList();
+    }
+
+    // The session the token was issued for, or null for a token issued before sessions were added to it
+    public String getSessionId(Claims claims) {
+        return claims.get(SESSION_CLAIM, String.class);
+    }
 }
@@ -0,0 +1,66 @@
+package com.e_commerce_product_catalog_api.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size Bloom filter over session ids, sized for an expected number of ids and false-positive rate. Bits are
+ * only ever set, so it can be read without locking while ids are added; an id is dropped by building a new filter
+ * without it.
+ */
+final class SessionBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    SessionBloomFilter(int expectedIds, double falsePositiveRate) {
+        int expected = Math.max(expectedIds, 1);
+        long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Math.max((bits + 63) / 64, 1), Integer.MAX_VALUE >> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expected * Math.log(2)));
+    }
+
+    void add(String id) {
+        long hash = hash(id);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bit(hash, i);
+            long mask = 1L << bit;
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, set) -> word | set);
+        }
+    }
+
+    // False means the id was never added; true means it probably was
+    boolean mightContain(String id) {
+        long hash = hash(id);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bit(hash, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The i-th probe, derived from the two halves of one 64-bit hash (Kirsch and Mitzenmacher)
+    private long bit(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    // FNV-1a over the characters, then the MurmurHash3 finalizer to spread the bits
+    private static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,161 @@
+package com.e_commerce_product_catalog_api.jwt;
+
+import com.e_commerce_product_catalog_api.entity.RevokedSession;
+import com.e_commerce_product_catalog_api.repository.RevokedSessionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login sessions that were ended before their access tokens expired. A session stays listed until the last access
+ * token it could have been issued has expired, so the list only ever holds the sessions revoked within the last
+ * access token lifetime.
+ * <p>
+ * {@link #isRevoked} is answered from memory without locking: a Bloom filter rules out almost every session that was
+ * never revoked, and the exact map settles the rest. The list is loaded from {@code revoked_sessions} at startup and
+ * every {@code refresh-interval} picks up sessions revoked by other instances and drops the expired ones, rebuilding
+ * the filter without them.
+ */
+@Slf4j
+@Component
+public class SessionRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedSessionRepository revokedSessionRepository;
+    private final Duration accessTokenTtl;
+    private final Duration refreshInterval;
+    private final int expectedSessions;
+    private final Clock clock;
+
+    // Session id to the epoch millisecond its last access token expires
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile SessionBloomFilter filter;
+    private Instant refreshedAt = Instant.EPOCH;
+    private ScheduledExecutorService refresher;
+
+    @Autowired
+    public SessionRevocationList(RevokedSessionRepository revokedSessionRepository, MeterRegistry meterRegistry,
+                                 @Value("${catalog.security.access-token-ttl:15m}") Duration accessTokenTtl,
+                                 @Value("${catalog.security.revocation.refresh-interval:10s}") Duration refreshInterval,
+                                 @Value("${catalog.security.revocation.expected-sessions:100000}") int expectedSessions) {
+        this(revokedSessionRepository, meterRegistry, accessTokenTtl, refreshInterval, expectedSessions, Clock.systemUTC());
+    }
+
+    SessionRevocationList(RevokedSessionRepository revokedSessionRepository, MeterRegistry meterRegistry,
+                          Duration accessTokenTtl, Duration refreshInterval, int expectedSessions, Clock clock) {
+        this.revokedSessionRepository = revokedSessionRepository;
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshInterval = refreshInterval;
+        this.expectedSessions = expectedSessions;
+        this.clock = clock;
+        this.filter = new SessionBloomFilter(expectedSessions, FALSE_POSITIVE_RATE);
+        Gauge.builder("auth.revoked_sessions", revoked, Map::size)
+                .description("Revoked sessions whose access tokens may not have expired yet")
+                .register(meterRegistry);
+    }
+
+    // Loaded before the application takes requests, so a session revoked before a restart stays revoked
+    @PostConstruct
+    public void start() {
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-revocation-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public boolean isRevoked(String sessionId) {
+        return sessionId != null && filter.mightContain(sessionId) && revoked.containsKey(sessionId);
+    }
+
+    /**
+     * Stores the revocation for the other instances, which see it within their refresh interval, in the caller's
+     * transaction, and revokes the session here once that transaction commits. A revocation that is rolled back
+     * never takes effect anywhere.
+     */
+    public void revoke(String sessionId) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(accessTokenTtl);
+        revokedSessionRepository.save(new RevokedSession(sessionId, now, expiresAt));
+        afterCommit(() -> remember(sessionId, expiresAt.toEpochMilli()));
+    }
+
+    /**
+     * Picks up sessions revoked since the last run, with an overlap so a revocation committed late is not missed,
+     * then drops those that have expired.
+     */
+    void refresh() {
+        Instant now = clock.instant();
+        Instant since = refreshedAt.equals(Instant.EPOCH) ? Instant.EPOCH : refreshedAt.minus(refreshInterval.multipliedBy(6));
+        for (RevokedSession session : revokedSessionRepository.findRevokedSince(since, now)) {
+            remember(session.getSessionId(), session.getExpiresAt().toEpochMilli());
+        }
+        refreshedAt = now;
+        prune(now.toEpochMilli());
+        revokedSessionRepository.deleteByExpiresAtBefore(now);
+    }
+
+    private synchronized void remember(String sessionId, long expiresAt) {
+        revoked.merge(sessionId, expiresAt, Math::max);
+        filter.add(sessionId);
+    }
+
+    private synchronized void prune(long now) {
+        if (!revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            return;
+        }
+        SessionBloomFilter rebuilt = new SessionBloomFilter(Math.max(expectedSessions, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    // Runs the action once the surrounding transaction commits, never if it rolls back, or at once outside one
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        }
+        catch (RuntimeException e) {
+            log.warn("Refreshing revoked sessions failed, retrying on the next run", e);
+        }
+    }
+}
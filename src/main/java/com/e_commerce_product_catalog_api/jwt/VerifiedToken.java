@@ -0,0 +1,10 @@
+package com.e_commerce_product_catalog_api.jwt;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * What a verified bearer token stands for: the user, the session it was issued for (null for tokens from before
+ * sessions) and its expiry in epoch milliseconds.
+ */
+public record VerifiedToken(UserDetails user, String sessionId, long expiresAt) {
+}
@@ -0,0 +1,104 @@
+package com.e_commerce_product_catalog_api.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bearer tokens already verified, keyed by the SHA-256 digest of the token, so a token sent again is authenticated
+ * without checking its signature or decoding its claims. Each entry expires at the token's own {@code exp} and is
+ * checked against it again on every hit, so an expired token is never served; the cache is bounded by
+ * {@code max-size}. Revocation is by session and is checked on every request, cached or not, so entries need not be
+ * taken out when a session ends.
+ * <p>
+ * Reported by the actuator as cache.gets, cache.puts and cache.evictions with {@code cache=jwt.verified-tokens}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final Cache<String, VerifiedToken> tokens;
+    private final LongSupplier clock;
+
+    @Autowired
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${catalog.security.token-cache.max-size:100000}") long maximumSize) {
+        this(meterRegistry, maximumSize, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(MeterRegistry meterRegistry, long maximumSize, LongSupplier clock) {
+        this.clock = clock;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, CACHE_NAME);
+    }
+
+    // The token as verified before, or null when it has not been verified or has expired since
+    public VerifiedToken get(String token) {
+        VerifiedToken verified = tokens.getIfPresent(digest(token));
+        if (verified == null || verified.expiresAt() <= clock.getAsLong()) {
+            return null;
+        }
+        return verified;
+    }
+
+    // Remembers a token whose signature and expiry have just been checked, until it expires
+    public void put(String token, VerifiedToken verified) {
+        if (verified.expiresAt() > clock.getAsLong()) {
+            tokens.put(digest(token), verified);
+        }
+    }
+
+    public void invalidate(String token) {
+        tokens.invalidate(digest(token));
+    }
+
+    public void invalidateAll() {
+        tokens.invalidateAll();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt() - clock.getAsLong()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -26,6 +26,8 @@ public class CategoryMapper {
         dto.setId(category.getId());
         dto.setName(category.getName());
         dto.setDescription(category.getDescription());
+        dto.setVersion(category.getVersion());
+        dto.setUpdatedAt(category.getUpdatedAt());
         return dto;
     }
 
@@ -26,6 +26,12 @@ public interface OrderMapper {
     @Mapping(source = "product", target = "product")
     OrderItemDTO toOrderItemDTO(OrderItem orderItem);
 
+    // The order, its date, price and stock flags are set by the server when the order is placed
+    @Mapping(target = "order", ignore = true)
+    @Mapping(target = "orderDate", ignore = true)
+    @Mapping(target = "unitPrice", ignore = true)
+    @Mapping(target = "stockPending", ignore = true)
+    @Mapping(target = "rolledUp", ignore = true)
     OrderItem toOrderItem(OrderItemDTO orderItemDTO);
 }
 
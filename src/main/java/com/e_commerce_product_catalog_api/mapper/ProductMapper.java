@@ -17,6 +17,9 @@ public interface ProductMapper {
     ProductDTO toDTO(Product product);
 
     @Mapping(source = "categoryId", target = "category", qualifiedByName = "categoryFromId") // Convert categoryId to a Category object
+    @Mapping(target = "version", ignore = true) // Managed by JPA, never taken from the client
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "hotSku", ignore = true) // Switched through its own endpoint
     Product toEntity(ProductDTO productDTO);
 }
 
@@ -0,0 +1,29 @@
+package com.e_commerce_product_catalog_api.pagination;
+
+import org.springframework.data.domain.Pageable;
+
+/**
+ * How the total of a paged search is computed.
+ */
+public enum CountMode {
+
+    /** Runs the count query for every page. */
+    EXACT,
+
+    /** Reuses a recent count for the same filters, counting again only once it has expired. */
+    APPROXIMATE,
+
+    /** Skips counting; the page has no total, only whether another page follows. */
+    NONE;
+
+    /**
+     * Returns the requested mode, or by default an exact count for the first page and an approximate one for
+     * later pages, whose callers have already seen the total once.
+     */
+    public static CountMode resolve(CountMode requested, Pageable pageable) {
+        if (requested != null) {
+            return requested;
+        }
+        return pageable.isPaged() && pageable.getPageNumber() > 0 ? APPROXIMATE : EXACT;
+    }
+}
@@ -0,0 +1,92 @@
+package com.e_commerce_product_catalog_api.pagination;
+
+import com.e_commerce_product_catalog_api.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Opaque continuation token for keyset (seek) pagination. The token carries the sort of the listing it was issued
+ * for together with the sort-key values of the last row returned, so the next page is read with
+ * {@code WHERE (key, id) > (:lastKey, :lastId)} instead of skipping rows with {@code OFFSET}.
+ */
+public record KeysetCursor(Sort sort, ScrollPosition position) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Starts a listing with the given sort. Only the properties in {@code keyTypes} may be sorted on, and an
+     * unsorted request is ordered by {@code id}.
+     */
+    public static KeysetCursor first(Sort sort, Map<String, Function<String, Object>> keyTypes) {
+        for (Sort.Order order : sort) {
+            if (!keyTypes.containsKey(order.getProperty())) {
+                throw new BadRequestException("Cannot page by cursor when sorting by: " + order.getProperty());
+            }
+        }
+        return new KeysetCursor(sort.isSorted() ? sort : Sort.by("id"), ScrollPosition.keyset());
+    }
+
+    /**
+     * Decodes a token issued by {@link #encode}. Key values are converted back to their property types with
+     * {@code keyTypes}, so the position compares against the columns exactly as the first page did.
+     */
+    public static KeysetCursor decode(String token, Map<String, Function<String, Object>> keyTypes) {
+        try {
+            Payload payload = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(token), Payload.class);
+            List<Sort.Order> orders = new ArrayList<>();
+            for (String order : payload.sort()) {
+                String[] parts = order.split(":");
+                if (!keyTypes.containsKey(parts[0])) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+                orders.add(new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]));
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (Map.Entry<String, String> key : payload.keys().entrySet()) {
+                Function<String, Object> type = keyTypes.get(key.getKey());
+                if (type == null) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+                keys.put(key.getKey(), type.apply(key.getValue()));
+            }
+            return new KeysetCursor(Sort.by(orders), ScrollPosition.forward(keys));
+        }
+        catch (BadRequestException e) {
+            throw e;
+        }
+        catch (IOException | RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Encodes the position after the last row of a page for the listing this cursor belongs to.
+     */
+    public String encode(ScrollPosition next) {
+        List<String> orders = sort.stream().map(order -> order.getProperty() + ":" + order.getDirection()).toList();
+        Map<String, String> keys = new LinkedHashMap<>();
+        ((KeysetScrollPosition) next).getKeys().forEach((property, value) -> keys.put(property, String.valueOf(value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(OBJECT_MAPPER.writeValueAsString(new Payload(orders, keys)).getBytes(StandardCharsets.UTF_8));
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    private record Payload(List<String> sort, Map<String, String> keys) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.e_commerce_product_catalog_api.pagination;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * The rows of a page and one more: same offset and sort, one row larger, so a query run with it tells whether
+ * another page follows without counting.
+ */
+record LookAheadPageable(Pageable page) implements Pageable {
+
+    @Override
+    public int getPageNumber() {
+        return page.getPageNumber();
+    }
+
+    @Override
+    public int getPageSize() {
+        return page.getPageSize() + 1;
+    }
+
+    @Override
+    public long getOffset() {
+        return page.getOffset();
+    }
+
+    @Override
+    public Sort getSort() {
+        return page.getSort();
+    }
+
+    @Override
+    public Pageable next() {
+        return new LookAheadPageable(page.next());
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return new LookAheadPageable(page.previousOrFirst());
+    }
+
+    @Override
+    public Pageable first() {
+        return new LookAheadPageable(page.first());
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new LookAheadPageable(page.withPage(pageNumber));
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return page.hasPrevious();
+    }
+}
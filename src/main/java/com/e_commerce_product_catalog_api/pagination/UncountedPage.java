@@ -0,0 +1,55 @@
+package com.e_commerce_product_catalog_api.pagination;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page whose total was not counted. Whether another page follows is known from one row read past the page; the
+ * total is left out of the response, which says {@code "counted": false} instead. {@link #getTotalElements()} only
+ * holds the rows seen so far, the page's offset plus its content and the row read past it, and is not a count.
+ */
+@JsonIgnoreProperties({"totalElements", "totalPages"})
+public class UncountedPage<T> extends PageImpl<T> {
+
+    private final boolean hasNext;
+
+    public UncountedPage(List<T> content, Pageable pageable, boolean hasNext) {
+        super(content, pageable, (pageable.isPaged() ? pageable.getOffset() : 0) + content.size() + (hasNext ? 1 : 0));
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Reads up to one row past the page through the query and returns the page with that row left out.
+     */
+    public static <T> UncountedPage<T> of(Pageable pageable, Function<Pageable, List<T>> query) {
+        if (pageable.isUnpaged()) {
+            return new UncountedPage<>(query.apply(pageable), pageable, false);
+        }
+        List<T> rows = query.apply(new LookAheadPageable(pageable));
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new UncountedPage<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    public boolean isCounted() {
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public boolean isLast() {
+        return !hasNext;
+    }
+
+    @Override
+    public <U> UncountedPage<U> map(Function<? super T, ? extends U> converter) {
+        return new UncountedPage<>(getConvertedContent(converter), getPageable(), hasNext);
+    }
+}
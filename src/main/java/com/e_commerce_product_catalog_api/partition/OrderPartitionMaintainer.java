@@ -0,0 +1,96 @@
+package com.e_commerce_product_catalog_api.partition;
+
+import com.e_commerce_product_catalog_api.repository.OrderPartitionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps monthly partitions of {@code orders} and {@code order_items} created ahead of the orders that will need
+ * them, from the current month to {@code months-ahead} months on, checked every {@code check-interval}. Off by
+ * default; when switched on against tables that are not yet partitioned, the first run converts them, keeping every
+ * order and its id.
+ */
+@Slf4j
+@Component
+public class OrderPartitionMaintainer {
+
+    private final OrderPartitionRepository orderPartitionRepository;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final Duration checkInterval;
+
+    private ScheduledExecutorService maintainer;
+
+    public OrderPartitionMaintainer(OrderPartitionRepository orderPartitionRepository,
+                                    @Value("${catalog.orders.partitioning.enabled:false}") boolean enabled,
+                                    @Value("${catalog.orders.partitioning.months-ahead:3}") int monthsAhead,
+                                    @Value("${catalog.orders.partitioning.check-interval:6h}") Duration checkInterval) {
+        this.orderPartitionRepository = orderPartitionRepository;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.checkInterval = checkInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        maintainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-partition-maintainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintainer.scheduleWithFixedDelay(this::maintainQuietly, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (maintainer != null) {
+            maintainer.shutdown();
+            maintainer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Partitions the tables if they are not yet, with a month for every month of order history, then makes sure
+     * every month from {@code current} to {@code months-ahead} months on has its partitions.
+     */
+    void maintain(YearMonth current) {
+        YearMonth last = current.plusMonths(monthsAhead);
+        if (!orderPartitionRepository.isPartitioned()) {
+            YearMonth first = orderPartitionRepository.findFirstOrderDate()
+                    .map(YearMonth::from)
+                    .filter(month -> month.isBefore(current))
+                    .orElse(current);
+            long start = System.nanoTime();
+            if (orderPartitionRepository.partition(first, last)) {
+                log.info("Partitioned orders by month from {} to {} in {} ms", first, last,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+        for (YearMonth month = current; !month.isAfter(last); month = month.plusMonths(1)) {
+            orderPartitionRepository.createMonth(month);
+        }
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain(YearMonth.from(LocalDateTime.now()));
+        }
+        catch (RuntimeException e) {
+            log.warn("Order partition maintenance failed, it will be retried on the next check", e);
+        }
+    }
+}
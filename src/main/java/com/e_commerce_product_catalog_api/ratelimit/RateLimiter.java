@@ -0,0 +1,107 @@
+package com.e_commerce_product_catalog_api.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-caller limits on the routes that load the database most, see {@link RouteGroup}. A request to a limited route
+ * takes a token from the bucket of its client address and, when authenticated, from the bucket of its user; it is
+ * turned away when either is empty. The address is the one the server sees, so behind a proxy the server must be set
+ * up to take it from the forwarding headers.
+ * <p>
+ * At most {@code max-buckets} buckets are kept; see {@link TokenBuckets} for how they are dropped.
+ */
+@Component
+public class RateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+    private final TokenBuckets buckets;
+    private final Map<RouteGroup, GroupLimits> limits = new EnumMap<>(RouteGroup.class);
+
+    @Autowired
+    public RateLimiter(Environment environment, MeterRegistry meterRegistry,
+                       @Value("${catalog.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${catalog.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this(environment, meterRegistry, enabled, maxBuckets, System::nanoTime);
+    }
+
+    RateLimiter(Environment environment, MeterRegistry meterRegistry, boolean enabled, int maxBuckets, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.buckets = new TokenBuckets(STRIPES, maxBuckets, nanoClock);
+        for (RouteGroup group : RouteGroup.values()) {
+            String prefix = "catalog.rate-limit." + group.key() + ".";
+            limits.put(group, new GroupLimits(
+                    limit(environment.getProperty(prefix + "user-rate", Double.class, group.userRate()),
+                            environment.getProperty(prefix + "user-burst", Integer.class, group.userBurst())),
+                    limit(environment.getProperty(prefix + "ip-rate", Double.class, group.ipRate()),
+                            environment.getProperty(prefix + "ip-burst", Integer.class, group.ipBurst())),
+                    rejections(meterRegistry, group, "user"),
+                    rejections(meterRegistry, group, "ip")));
+        }
+        Gauge.builder("http.rate_limit.buckets", buckets, TokenBuckets::size)
+                .description("Rate-limit buckets currently held")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token for the request. Returns 0 when it may proceed, otherwise the whole seconds after which it may be
+     * retried. {@code principal} is null for an unauthenticated request.
+     */
+    public long acquire(HttpServletRequest request, String principal) {
+        if (!enabled) {
+            return 0;
+        }
+        RouteGroup group = RouteGroup.of(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        if (group == null) {
+            return 0;
+        }
+        GroupLimits groupLimits = limits.get(group);
+        if (groupLimits.ip() != null) {
+            long wait = buckets.tryTake(group.key() + "|ip|" + request.getRemoteAddr(), groupLimits.ip());
+            if (wait > 0) {
+                groupLimits.ipRejections().increment();
+                return toRetryAfterSeconds(wait);
+            }
+        }
+        if (groupLimits.user() != null && principal != null) {
+            long wait = buckets.tryTake(group.key() + "|user|" + principal, groupLimits.user());
+            if (wait > 0) {
+                groupLimits.userRejections().increment();
+                return toRetryAfterSeconds(wait);
+            }
+        }
+        return 0;
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static TokenBuckets.Limit limit(double ratePerSecond, int burst) {
+        return ratePerSecond > 0 ? TokenBuckets.Limit.of(ratePerSecond, burst) : null;
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, RouteGroup group, String scope) {
+        return Counter.builder("http.rate_limit.rejected")
+                .description("Requests turned away by a rate limit")
+                .tag("group", group.key())
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    private record GroupLimits(TokenBuckets.Limit user, TokenBuckets.Limit ip, Counter userRejections, Counter ipRejections) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.e_commerce_product_catalog_api.ratelimit;
+
+import java.util.Set;
+
+/**
+ * Routes limited together, with the default rate (requests per second) and burst for each caller. Every default can
+ * be overridden under {@code catalog.rate-limit.<key>}, e.g. {@code catalog.rate-limit.search.user-rate}; a rate of
+ * 0 turns that limit off.
+ */
+enum RouteGroup {
+
+    SEARCH("search", "GET", Set.of("/api/v1/products/search", "/api/v1/products/search/scroll", "/api/v1/products/suggest"),
+            20, 40, 50, 100),
+    ORDERS("orders", "POST", Set.of("/api/v1/orders"),
+            5, 10, 20, 40),
+    // Per address only: logins carry no principal, and a password guesser has none to limit
+    AUTH("auth", "POST", Set.of("/api/v1/auth/login", "/api/v1/auth/refresh"),
+            0, 0, 1, 10);
+
+    private final String key;
+    private final String method;
+    private final Set<String> paths;
+    private final double userRate;
+    private final int userBurst;
+    private final double ipRate;
+    private final int ipBurst;
+
+    RouteGroup(String key, String method, Set<String> paths, double userRate, int userBurst, double ipRate, int ipBurst) {
+        this.key = key;
+        this.method = method;
+        this.paths = paths;
+        this.userRate = userRate;
+        this.userBurst = userBurst;
+        this.ipRate = ipRate;
+        this.ipBurst = ipBurst;
+    }
+
+    // The group the request belongs to, or null when it is not limited
+    static RouteGroup of(String method, String path) {
+        for (RouteGroup group : values()) {
+            if (group.method.equals(method) && group.paths.contains(path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    String key() {
+        return key;
+    }
+
+    double userRate() {
+        return userRate;
+    }
+
+    int userBurst() {
+        return userBurst;
+    }
+
+    double ipRate() {
+        return ipRate;
+    }
+
+    int ipBurst() {
+        return ipBurst;
+    }
+}
@@ -0,0 +1,129 @@
+package com.e_commerce_product_catalog_api.ratelimit;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets by key, split into independently locked stripes so callers with different keys rarely contend. Each
+ * stripe keeps its buckets in least-recently-used order and is capped, so memory stays bounded however many keys pass
+ * through.
+ * <p>
+ * A bucket that has refilled completely is indistinguishable from a new one, so the least recently used buckets are
+ * dropped as soon as they are full again. Only when a stripe is at its cap with no full bucket is a partly drained one
+ * dropped, which lets that caller start over with a full bucket.
+ */
+final class TokenBuckets {
+
+    // Full buckets dropped per call at most, so no call pays for a long sweep
+    private static final int MAX_SWEEP = 4;
+
+    private final Stripe[] stripes;
+    private final int maxBucketsPerStripe;
+    private final LongSupplier nanoClock;
+
+    TokenBuckets(int stripeCount, int maxBuckets, LongSupplier nanoClock) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[size];
+        this.maxBucketsPerStripe = Math.max(1, maxBuckets / size);
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(maxBucketsPerStripe);
+        }
+    }
+
+    /**
+     * Takes a token from the key's bucket, created full on first use. Returns 0 when a token was taken, otherwise the
+     * nanoseconds until the next one is available.
+     */
+    long tryTake(String key, Limit limit) {
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            stripe.sweep(now);
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(limit, now);
+                stripe.buckets.put(key, bucket);
+            }
+            return bucket.tryTake(now);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * A bucket holding up to {@code burst} tokens, refilled by one every {@code nanosPerToken}.
+     */
+    record Limit(int burst, double nanosPerToken) {
+
+        static Limit of(double ratePerSecond, int burst) {
+            return new Limit(Math.max(burst, 1), 1_000_000_000d / ratePerSecond);
+        }
+    }
+
+    private static final class Stripe {
+
+        private final LinkedHashMap<String, Bucket> buckets;
+
+        private Stripe(int capacity) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private void sweep(long now) {
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            for (int i = 0; i < MAX_SWEEP && iterator.hasNext(); i++) {
+                if (!iterator.next().isFull(now)) {
+                    return;
+                }
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        private final Limit limit;
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(Limit limit, long now) {
+            this.limit = limit;
+            this.tokens = limit.burst();
+            this.updatedAt = now;
+        }
+
+        private long tryTake(long now) {
+            tokens = Math.min(limit.burst(), tokens + (now - updatedAt) / limit.nanosPerToken());
+            updatedAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * limit.nanosPerToken());
+        }
+
+        private boolean isFull(long now) {
+            return tokens + (now - updatedAt) / limit.nanosPerToken() >= limit.burst();
+        }
+    }
+}
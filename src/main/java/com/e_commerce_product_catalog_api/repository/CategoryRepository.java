@@ -1,9 +1,18 @@
 package com.e_commerce_product_catalog_api.repository;
 
 import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.EntityVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // Primary-key lookup of the version columns only, for answering conditional requests
+    @Query("SELECT new com.e_commerce_product_catalog_api.entity.EntityVersion(e.version, e.updatedAt) FROM Category e WHERE e.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
 }
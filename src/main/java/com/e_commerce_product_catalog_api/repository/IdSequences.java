@@ -0,0 +1,122 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The sequences every entity id is drawn from. A sequence steps by {@link #ALLOCATION_SIZE}, and each value it
+ * returns reserves the block of ids starting there, the pooled-lo scheme Hibernate is configured to use for the
+ * entities. Ids taken here for plain JDBC batches therefore never clash with ids Hibernate assigns, and, as in
+ * Hibernate, a block is handed out from memory until it is used up, so most ids cost no round trip at all.
+ * <p>
+ * Ids of a block left unused at shutdown are skipped, so ids are unique and increasing per instance but not
+ * gapless.
+ */
+@Repository
+public class IdSequences {
+
+    public static final int ALLOCATION_SIZE = 500;
+
+    public static final String CATEGORIES = "categories_seq";
+    public static final String PRODUCTS = "products_seq";
+    public static final String ORDERS = "orders_seq";
+    public static final String ORDER_ITEMS = "order_items_seq";
+    public static final String USERS = "users_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public IdSequences(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes the next count ids of the sequence, first from the block in hand and then from as many new blocks as
+     * are still needed, all fetched in one query.
+     */
+    public List<Long> reserve(String sequence, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        Block block = blocks.computeIfAbsent(sequence, name -> new Block());
+        synchronized (block) {
+            block.drainTo(ids, count);
+            int missing = count - ids.size();
+            if (missing > 0) {
+                int blockCount = (missing + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+                List<Long> starts = jdbcTemplate.queryForList(
+                        "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)", Long.class, sequence, blockCount);
+                for (long start : starts) {
+                    block.next = start;
+                    block.end = start + ALLOCATION_SIZE;
+                    block.drainTo(ids, count);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Moves the table's id column onto the sequence, keeping every id it holds: the sequence is created if missing
+     * and set to step by {@link #ALLOCATION_SIZE}, the column's identity or serial default is replaced by one
+     * drawing from the sequence, and the sequence is moved past the highest id the table holds or its old sequence
+     * handed out. Returns false, changing nothing, when the column already draws from the sequence.
+     */
+    @Transactional
+    public boolean adopt(String table, String sequence) {
+        if (isAdopted(table, sequence)) {
+            return false;
+        }
+        jdbcTemplate.execute("LOCK TABLE " + table + " IN ACCESS EXCLUSIVE MODE");
+        if (isAdopted(table, sequence)) {
+            return false;
+        }
+        long lastId = lastId(table);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS " + table + "_id_seq");
+        if (highestReserved(sequence) < lastId) {
+            jdbcTemplate.queryForObject("SELECT setval(CAST(? AS regclass), ?, false)", Long.class, sequence, lastId + 1);
+        }
+        return true;
+    }
+
+    private boolean isAdopted(String table, String sequence) {
+        List<String> defaults = jdbcTemplate.queryForList("SELECT column_default FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'id'", String.class, table);
+        return defaults.contains("nextval('" + sequence + "'::regclass)");
+    }
+
+    // The highest id the table holds or its identity or serial sequence has handed out, whichever is larger
+    private long lastId(String table) {
+        String sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, 'id')", String.class, table);
+        Long lastValue = sequence == null ? null : jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return Math.max(lastValue == null ? 0 : lastValue, maxId == null ? 0 : maxId);
+    }
+
+    // The last id of the last block the sequence has handed out, or one below its start when it has handed out none
+    private long highestReserved(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT last_value, is_called FROM " + sequence, (row, rowNum) ->
+                row.getBoolean("is_called") ? row.getLong("last_value") + ALLOCATION_SIZE - 1 : row.getLong("last_value") - 1);
+    }
+
+    // The ids left in the block last fetched, [next, end)
+    private static final class Block {
+
+        private long next;
+        private long end;
+
+        private void drainTo(List<Long> ids, int count) {
+            while (ids.size() < count && next < end) {
+                ids.add(next++);
+            }
+        }
+    }
+}
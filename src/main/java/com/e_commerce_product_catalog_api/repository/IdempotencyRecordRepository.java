@@ -0,0 +1,33 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // A plain insert rather than save(): a key stored concurrently by another instance fails the caller's
+    // transaction on the primary key instead of being merged over
+    @Modifying
+    @Query(value = """
+    INSERT INTO idempotency_keys (idempotency_key, fingerprint, response, created_at)
+    VALUES (:idempotencyKey, :fingerprint, :response, :createdAt)
+    """, nativeQuery = true)
+    void insert(
+            @Param("idempotencyKey") String idempotencyKey,
+            @Param("fingerprint") String fingerprint,
+            @Param("response") String response,
+            @Param("createdAt") Instant createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteByCreatedAtBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,48 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC inserts for a batch of new orders. Ids come from {@link IdSequences}, in blocks shared with Hibernate,
+ * and the rows are sent as a single JDBC batch without building entities in a persistence context.
+ */
+@Repository
+public class OrderBulkRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO orders (id, order_date) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdSequences idSequences;
+
+    // Assigns ids to the orders that have none yet and inserts them all; runs in the caller's transaction
+    public void insertAll(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Order> unnumbered = orders.stream().filter(order -> order.getId() == null).toList();
+        if (!unnumbered.isEmpty()) {
+            List<Long> ids = reserveIds(unnumbered.size());
+            for (int i = 0; i < unnumbered.size(); i++) {
+                unnumbered.get(i).setId(ids.get(i));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, orders, orders.size(), (statement, order) -> {
+            statement.setLong(1, order.getId());
+            statement.setTimestamp(2, Timestamp.valueOf(order.getOrderDate()));
+        });
+    }
+
+    // Takes the next count order ids, at most one query per block of ids
+    public List<Long> reserveIds(int count) {
+        return idSequences.reserve(IdSequences.ORDERS, count);
+    }
+}
@@ -0,0 +1,101 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.dtos.OrderExportDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads orders for export straight off a JDBC cursor. Rows are fetched {@code fetch-size} at a time and handed on
+ * one order at a time without entering a persistence context, so memory stays flat however many orders there are.
+ * PostgreSQL only uses a cursor inside a transaction; with auto-commit on the driver still reads the whole result.
+ */
+@Repository
+public class OrderExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public OrderExportRepository(JdbcTemplate jdbcTemplate, @Value("${catalog.orders.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Passes every order placed in [since, until) to the consumer with its items, oldest first. Either bound may be
+     * null to leave that end open.
+     */
+    public void forEachOrder(LocalDateTime since, LocalDateTime until, Consumer<OrderExportDTO> consumer) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT o.id, o.order_date, i.id AS item_id, i.product_id, i.quantity
+                FROM orders o
+                LEFT JOIN order_items i ON i.order_id = o.id
+                WHERE 1 = 1""");
+        List<Object> parameters = new ArrayList<>();
+        if (since != null) {
+            sql.append(" AND o.order_date >= ?");
+            parameters.add(Timestamp.valueOf(since));
+        }
+        if (until != null) {
+            sql.append(" AND o.order_date < ?");
+            parameters.add(Timestamp.valueOf(until));
+        }
+        sql.append(" ORDER BY o.order_date, o.id, i.id");
+
+        OrderAssembler assembler = new OrderAssembler(consumer);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, assembler);
+        assembler.finish();
+    }
+
+    // Folds the joined rows of one order, which arrive together, back into a single export line
+    private static final class OrderAssembler implements RowCallbackHandler {
+
+        private final Consumer<OrderExportDTO> consumer;
+        private OrderExportDTO current;
+
+        private OrderAssembler(Consumer<OrderExportDTO> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong("id");
+            if (current == null || current.getId() != orderId) {
+                finish();
+                current = new OrderExportDTO();
+                current.setId(orderId);
+                current.setOrderDate(rs.getTimestamp("order_date").toLocalDateTime());
+            }
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                current.getOrderItems().add(new OrderExportDTO.Item(itemId, rs.getObject("product_id", Long.class),
+                        rs.getInt("quantity")));
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
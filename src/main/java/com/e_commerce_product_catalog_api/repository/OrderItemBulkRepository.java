@@ -0,0 +1,46 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.OrderItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC inserts for the lines of a new order. Ids come from {@link IdSequences}, in blocks shared with
+ * Hibernate, and the rows are sent as a single JDBC batch without building entities in a persistence context.
+ */
+@Repository
+public class OrderItemBulkRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO order_items (id, order_id, product_id, quantity, stock_pending, unit_price, "
+            + "rolled_up, order_date) VALUES (?, ?, ?, ?, ?, ?, false, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdSequences idSequences;
+
+    // Assigns ids to the items and inserts them; runs in the caller's transaction
+    public void insertAll(List<OrderItem> orderItems) {
+        if (orderItems.isEmpty()) {
+            return;
+        }
+        List<Long> ids = idSequences.reserve(IdSequences.ORDER_ITEMS, orderItems.size());
+        for (int i = 0; i < orderItems.size(); i++) {
+            orderItems.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, orderItems, orderItems.size(), (statement, orderItem) -> {
+            statement.setLong(1, orderItem.getId());
+            statement.setLong(2, orderItem.getOrder().getId());
+            statement.setLong(3, orderItem.getProduct().getId());
+            statement.setInt(4, orderItem.getQuantity());
+            statement.setBoolean(5, orderItem.isStockPending());
+            statement.setBigDecimal(6, orderItem.getUnitPrice());
+            statement.setTimestamp(7, Timestamp.valueOf(orderItem.getOrderDate()));
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.Order;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads a page of orders once its ids are known.
+ */
+public interface OrderPageRepository {
+
+    /**
+     * Returns the given orders with their items, products and categories in one query. Every order must have been
+     * placed in [first, last]; the bounds let the database read only the orders and order_items partitions holding
+     * that span, however much history the tables keep.
+     */
+    List<Order> findWithItemsByIdIn(Collection<Long> ids, LocalDateTime first, LocalDateTime last);
+}
@@ -0,0 +1,45 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.Order;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class OrderPageRepositoryImpl implements OrderPageRepository {
+
+    private static final String FIND_WITH_ITEMS_JPQL = """
+            SELECT o FROM Order o
+            LEFT JOIN FETCH o.orderItems i
+            LEFT JOIN FETCH i.product p
+            LEFT JOIN FETCH p.category
+            WHERE o.id IN :ids AND o.orderDate BETWEEN :first AND :last
+            """;
+
+    private final EntityManager entityManager;
+
+    public OrderPageRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Order> findWithItemsByIdIn(Collection<Long> ids, LocalDateTime first, LocalDateTime last) {
+        // The filter puts the same bounds on the order_items join, which JPQL does not allow on a fetch join
+        Session session = entityManager.unwrap(Session.class);
+        session.enableFilter(Order.ORDER_DATE_FILTER)
+                .setParameter("first", first)
+                .setParameter("last", last);
+        try {
+            return entityManager.createQuery(FIND_WITH_ITEMS_JPQL, Order.class)
+                    .setParameter("ids", ids)
+                    .setParameter("first", first)
+                    .setParameter("last", last)
+                    .getResultList();
+        }
+        finally {
+            session.disableFilter(Order.ORDER_DATE_FILTER);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * PostgreSQL declarative partitioning of {@code orders} and {@code order_items} by month of the order date. Lines
+ * carry their order's date so both tables are split on the same boundaries, and a query bounded by order date reads
+ * only the months it covers. Each table also has a default partition, so an order dated outside every month created
+ * so far is still accepted; it is moved to its month's partitions when they are created.
+ */
+@Repository
+public class OrderPartitionRepository {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'p'yyyy'_'MM");
+
+    private static final String CREATE_ORDERS_SQL = """
+            CREATE TABLE orders (
+                id bigint NOT NULL,
+                order_date timestamp(6) NOT NULL
+            ) PARTITION BY RANGE (order_date)
+            """;
+
+    private static final String CREATE_ORDER_ITEMS_SQL = """
+            CREATE TABLE order_items (
+                id bigint NOT NULL,
+                order_id bigint NOT NULL,
+                product_id bigint,
+                quantity integer NOT NULL,
+                stock_pending boolean NOT NULL DEFAULT false,
+                unit_price numeric(38,2),
+                rolled_up boolean NOT NULL DEFAULT false,
+                order_date timestamp(6) NOT NULL
+            ) PARTITION BY RANGE (order_date)
+            """;
+
+    // Lines take their order's date on the way in, whether or not they had one before
+    private static final String COPY_SQL = """
+            INSERT INTO orders (id, order_date) SELECT id, order_date FROM orders_unpartitioned;
+            INSERT INTO order_items (id, order_id, product_id, quantity, stock_pending, unit_price, rolled_up, order_date)
+            SELECT i.id, i.order_id, i.product_id, i.quantity, i.stock_pending, i.unit_price, i.rolled_up, o.order_date
+            FROM order_items_unpartitioned i JOIN orders_unpartitioned o ON o.id = i.order_id
+            """;
+
+    // Keys and indexes are built once the rows are in, on the partitioned tables so that every partition gets them.
+    // Primary keys must hold the partition key; ids stay unique because they come from one sequence per table. The
+    // composite foreign key moves an order's lines to the new month when its date changes
+    private static final String CONSTRAINTS_SQL = """
+            ALTER TABLE orders ADD CONSTRAINT orders_pkey PRIMARY KEY (id, order_date);
+            ALTER TABLE order_items ADD CONSTRAINT order_items_pkey PRIMARY KEY (id, order_date);
+            CREATE INDEX idx_orders_order_date ON orders (order_date);
+            CREATE INDEX idx_order_items_order_id ON order_items (order_id);
+            CREATE INDEX idx_order_items_stock_pending ON order_items (stock_pending);
+            CREATE INDEX idx_order_items_rolled_up ON order_items (rolled_up);
+            ALTER TABLE order_items ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id, order_date)
+                REFERENCES orders (id, order_date) ON UPDATE CASCADE DEFERRABLE INITIALLY DEFERRED;
+            ALTER TABLE order_items ADD CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+            """;
+
+    // Rows of the month are set aside, out of the default partitions, for as long as the month's partitions are
+    // created, as PostgreSQL refuses a partition for rows the default partition already holds
+    private static final String SET_ASIDE_SQL = """
+            CREATE TEMPORARY TABLE moving_orders AS
+                SELECT * FROM orders_default WHERE order_date >= '%1$s' AND order_date < '%2$s';
+            CREATE TEMPORARY TABLE moving_order_items AS
+                SELECT * FROM order_items_default WHERE order_date >= '%1$s' AND order_date < '%2$s';
+            DELETE FROM order_items_default WHERE order_date >= '%1$s' AND order_date < '%2$s';
+            DELETE FROM orders_default WHERE order_date >= '%1$s' AND order_date < '%2$s'
+            """;
+
+    private static final String PUT_BACK_SQL = """
+            INSERT INTO orders SELECT * FROM moving_orders;
+            INSERT INTO order_items SELECT * FROM moving_order_items;
+            DROP TABLE moving_order_items, moving_orders
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass('orders')", Boolean.class));
+    }
+
+    public Optional<LocalDateTime> findFirstOrderDate() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT MIN(order_date) FROM orders", Timestamp.class))
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * Rebuilds {@code orders} and {@code order_items} as partitioned tables with a partition for every month from
+     * first to last, copying every row with its id; the new tables draw ids from the same sequences. Both tables
+     * are locked throughout, so orders wait for it to finish. Returns false, changing nothing, when another instance
+     * has already done it.
+     */
+    @Transactional
+    public boolean partition(YearMonth first, YearMonth last) {
+        jdbcTemplate.execute("LOCK TABLE orders, order_items IN ACCESS EXCLUSIVE MODE");
+        if (isPartitioned()) {
+            return false;
+        }
+        jdbcTemplate.execute("ALTER TABLE orders RENAME TO orders_unpartitioned");
+        jdbcTemplate.execute("ALTER TABLE order_items RENAME TO order_items_unpartitioned");
+        jdbcTemplate.execute(CREATE_ORDERS_SQL);
+        jdbcTemplate.execute(CREATE_ORDER_ITEMS_SQL);
+        jdbcTemplate.execute("CREATE TABLE orders_default PARTITION OF orders DEFAULT");
+        jdbcTemplate.execute("CREATE TABLE order_items_default PARTITION OF order_items DEFAULT");
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            createMonth(month);
+        }
+        jdbcTemplate.execute(COPY_SQL);
+        jdbcTemplate.execute("DROP TABLE order_items_unpartitioned");
+        jdbcTemplate.execute("DROP TABLE orders_unpartitioned");
+
+        useSequence("orders", IdSequences.ORDERS);
+        useSequence("order_items", IdSequences.ORDER_ITEMS);
+        jdbcTemplate.execute(CONSTRAINTS_SQL);
+        return true;
+    }
+
+    /**
+     * Creates the month's partitions of both tables unless they exist. Orders the default partitions took for that
+     * month, dated ahead of the months created before, are moved into the new partitions with their lines. Orders
+     * are held off until it commits.
+     */
+    @Transactional
+    public void createMonth(YearMonth month) {
+        String suffix = month.format(SUFFIX);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass('orders_" + suffix + "') IS NOT NULL", Boolean.class))) {
+            return;
+        }
+        jdbcTemplate.execute("LOCK TABLE orders, order_items IN SHARE ROW EXCLUSIVE MODE");
+        // Checked row by row, so no check is left pending on the tables being altered
+        jdbcTemplate.execute("SET CONSTRAINTS ALL IMMEDIATE");
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        jdbcTemplate.execute(SET_ASIDE_SQL.formatted(from, to));
+        String bounds = "FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS orders_" + suffix + " PARTITION OF orders " + bounds);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS order_items_" + suffix + " PARTITION OF order_items " + bounds);
+        jdbcTemplate.execute(PUT_BACK_SQL);
+    }
+
+    // The sequences belong to no table, so they outlive the tables dropped above
+    private void useSequence(String table, String sequence) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+    }
+}
@@ -1,9 +1,33 @@
 package com.e_commerce_product_catalog_api.repository;
 
 import com.e_commerce_product_catalog_api.entity.Order;
+import com.e_commerce_product_catalog_api.entity.OrderKey;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderPageRepository {
+
+    // Pages over order ids and dates only, so the limit applies in the database rather than to joined item rows and
+    // the page's date span is known before its items are read
+    @Query(value = """
+    SELECT o.id AS id, o.orderDate AS orderDate FROM Order o
+    WHERE (:from IS NULL OR o.orderDate >= :from)
+    AND (:to IS NULL OR o.orderDate < :to)
+    """,
+            countQuery = """
+    SELECT COUNT(o) FROM Order o
+    WHERE (:from IS NULL OR o.orderDate >= :from)
+    AND (:to IS NULL OR o.orderDate < :to)
+    """)
+    Page<OrderKey> findKeysByOrderDate(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable);
 }
@@ -0,0 +1,53 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC writes for bulk product loads. Ids come from {@link IdSequences}, in blocks shared with Hibernate, and
+ * the rows go out as a single JDBC batch without building entities in a persistence context.
+ */
+@Repository
+public class ProductBulkRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO products (id, name, description, price, stock, category_id, version, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdSequences idSequences;
+
+    // Reserves count product ids, at most one round trip per block of ids
+    public List<Long> allocateIds(int count) {
+        return idSequences.reserve(IdSequences.PRODUCTS, count);
+    }
+
+    // Inserts products that already carry their ids and categories as one JDBC batch, committed together
+    @Transactional
+    public void insertAll(List<Product> products) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(INSERT_SQL, products, products.size(), (statement, product) -> {
+            statement.setLong(1, product.getId());
+            statement.setString(2, product.getName());
+            if (product.getDescription() == null) {
+                statement.setNull(3, Types.VARCHAR);
+            }
+            else {
+                statement.setString(3, product.getDescription());
+            }
+            statement.setBigDecimal(4, product.getPrice());
+            statement.setInt(5, product.getStock());
+            statement.setLong(6, product.getCategory().getId());
+            statement.setTimestamp(7, now);
+        });
+    }
+}
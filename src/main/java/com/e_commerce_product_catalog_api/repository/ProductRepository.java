@@ -1,16 +1,27 @@
 package com.e_commerce_product_catalog_api.repository;
 
+import com.e_commerce_product_catalog_api.entity.EntityVersion;
+import com.e_commerce_product_catalog_api.entity.FacetCount;
 import com.e_commerce_product_catalog_api.entity.FilteredProducts;
 import com.e_commerce_product_catalog_api.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductStockRepository {
 
     @Query(value = """
     SELECT p.id AS product_id, p.name AS product_name, p.description AS product_description, 
@@ -34,4 +45,72 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("category") String category,
             @Param("description") String description,
             Pageable pageable);
+
+    // Same rows as findByFilters without the count query; the caller decides how to fill in the total
+    @Query(value = """
+    SELECT p.id AS product_id, p.name AS product_name, p.description AS product_description, 
+           p.price, p.stock, c.name AS category_name
+    FROM products p 
+    LEFT JOIN categories c ON p.category_id = c.id
+    WHERE (:name IS NULL OR p.name ILIKE CONCAT('%', :name, '%')) 
+    AND (:category IS NULL OR c.name ILIKE CONCAT('%', :category, '%')) 
+    AND (:description IS NULL OR p.description ILIKE CONCAT('%', :description, '%'))
+    """, nativeQuery = true)
+    List<FilteredProducts> findByFiltersWithoutCount(
+            @Param("name") String name,
+            @Param("category") String category,
+            @Param("description") String description,
+            Pageable pageable);
+
+    @Query(value = """
+    SELECT COUNT(*) 
+    FROM products p 
+    LEFT JOIN categories c ON p.category_id = c.id
+    WHERE (:name IS NULL OR p.name ILIKE CONCAT('%', :name, '%')) 
+    AND (:category IS NULL OR c.name ILIKE CONCAT('%', :category, '%')) 
+    AND (:description IS NULL OR p.description ILIKE CONCAT('%', :description, '%'))
+    """, nativeQuery = true)
+    long countByFilters(
+            @Param("name") String name,
+            @Param("category") String category,
+            @Param("description") String description);
+
+    // All facets in one scan: each grouping set yields the rows of one facet, told apart by GROUPING()
+    @Query(value = """
+    SELECT CASE WHEN GROUPING(f.category_id) = 0 THEN 'category'
+                WHEN GROUPING(f.price_bucket) = 0 THEN 'price'
+                ELSE 'stock' END AS facet,
+           f.category_id, f.category_name, f.price_bucket, f.in_stock, COUNT(*) AS product_count
+    FROM (
+        SELECT c.id AS category_id, c.name AS category_name,
+               FLOOR(p.price / :priceBucketWidth) AS price_bucket, p.stock > 0 AS in_stock
+        FROM products p 
+        LEFT JOIN categories c ON p.category_id = c.id
+        WHERE (:name IS NULL OR p.name ILIKE CONCAT('%', :name, '%')) 
+        AND (:category IS NULL OR c.name ILIKE CONCAT('%', :category, '%')) 
+        AND (:description IS NULL OR p.description ILIKE CONCAT('%', :description, '%'))
+    ) f
+    GROUP BY GROUPING SETS ((f.category_id, f.category_name), (f.price_bucket), (f.in_stock))
+    """, nativeQuery = true)
+    List<FacetCount> countFacetsByFilters(
+            @Param("name") String name,
+            @Param("category") String category,
+            @Param("description") String description,
+            @Param("priceBucketWidth") BigDecimal priceBucketWidth);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    // Primary-key lookup of the version columns only, for answering conditional requests
+    @Query("SELECT new com.e_commerce_product_catalog_api.entity.EntityVersion(e.version, e.updatedAt) FROM Product e WHERE e.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    // Loads and locks the products of a batch of orders in ascending id order, so the group committer holds each
+    // row once per batch and never deadlocks with writers that lock in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,40 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.Product;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    // Same case-insensitive "contains" filters as ProductRepository.findByFilters; null filters are ignored
+    public static Specification<Product> matchesFilters(String name, String category, String description) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (name != null) {
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), containsPattern(name)));
+            }
+            if (category != null) {
+                Join<Product, Category> categoryJoin = root.join("category", JoinType.LEFT);
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(categoryJoin.get("name")), containsPattern(category)));
+            }
+            if (description != null) {
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), containsPattern(description)));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String containsPattern(String filter) {
+        return "%" + filter.toLowerCase(Locale.ROOT) + "%";
+    }
+}
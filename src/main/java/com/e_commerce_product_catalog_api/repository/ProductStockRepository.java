@@ -0,0 +1,36 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * Stock changes made in the database rather than read, changed and written back from Java.
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Takes the given quantity off each product's stock with
+     * {@code UPDATE products SET stock = stock - :q WHERE id = :id AND stock >= :q}, sent as one JDBC batch in
+     * ascending id order. A row whose update matched nothing was either missing or short of stock and is left
+     * unchanged; its id is returned. The caller's transaction decides whether the other decrements stand.
+     */
+    List<Long> decrementStock(SortedMap<Long, Integer> quantities);
+
+    /**
+     * Takes the quantities of all committed hot-SKU order lines off their products' stock and clears the lines'
+     * pending flag, in one statement so a line is applied exactly once. Returns the ids of the products changed.
+     */
+    List<Long> applyPendingStock();
+
+    /**
+     * Stock still free to reserve for every hot-SKU product: the stored stock less its pending order lines.
+     */
+    Map<Long, Long> findHotStockAvailability();
+
+    /**
+     * Stock still free to reserve for one product, or empty when it does not exist.
+     */
+    Optional<Long> findAvailableStock(Long productId);
+}
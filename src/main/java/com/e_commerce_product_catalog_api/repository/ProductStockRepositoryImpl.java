@@ -0,0 +1,83 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String DECREMENT_SQL = "UPDATE products SET stock = stock - ?, version = version + 1, updated_at = ? "
+            + "WHERE id = ? AND stock >= ?";
+
+    private static final String APPLY_PENDING_SQL = """
+            WITH applied AS (
+                UPDATE order_items SET stock_pending = false WHERE stock_pending RETURNING product_id, quantity
+            )
+            UPDATE products p SET stock = p.stock - a.quantity, version = p.version + 1, updated_at = now()
+            FROM (SELECT product_id, SUM(quantity) AS quantity FROM applied GROUP BY product_id) a
+            WHERE p.id = a.product_id
+            RETURNING p.id
+            """;
+
+    private static final String AVAILABLE_STOCK_SQL = """
+            SELECT p.id, p.stock - COALESCE((SELECT SUM(oi.quantity) FROM order_items oi
+                                             WHERE oi.product_id = p.id AND oi.stock_pending), 0) AS available
+            FROM products p
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> decrementStock(SortedMap<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int[][] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, lines, lines.size(), (statement, line) -> {
+            statement.setInt(1, line.getValue());
+            statement.setTimestamp(2, now);
+            statement.setLong(3, line.getKey());
+            statement.setInt(4, line.getValue());
+        });
+
+        List<Long> unchanged = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    unchanged.add(lines.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return unchanged;
+    }
+
+    @Override
+    public List<Long> applyPendingStock() {
+        return jdbcTemplate.queryForList(APPLY_PENDING_SQL, Long.class);
+    }
+
+    @Override
+    public Map<Long, Long> findHotStockAvailability() {
+        Map<Long, Long> availability = new HashMap<>();
+        jdbcTemplate.query(AVAILABLE_STOCK_SQL + "WHERE p.hot_sku", (RowCallbackHandler) row ->
+                availability.put(row.getLong("id"), row.getLong("available")));
+        return availability;
+    }
+
+    @Override
+    public Optional<Long> findAvailableStock(Long productId) {
+        return jdbcTemplate.query(AVAILABLE_STOCK_SQL + "WHERE p.id = ?", (row, rowNum) -> row.getLong("available"), productId)
+                .stream().findFirst();
+    }
+}
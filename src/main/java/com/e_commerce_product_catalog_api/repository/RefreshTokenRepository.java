@@ -0,0 +1,29 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Marks the token used unless it already was, so of two concurrent exchanges of one token only one succeeds
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :usedAt WHERE t.tokenHash = :tokenHash AND t.usedAt IS NULL")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("usedAt") Instant usedAt);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteByExpiresAtBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,25 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.RevokedSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedSessionRepository extends JpaRepository<RevokedSession, String> {
+
+    // Revocations still in force that were made at or after the given time, by this instance or another
+    @Query("SELECT r FROM RevokedSession r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<RevokedSession> findRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedSession r WHERE r.expiresAt < :cutoff")
+    int deleteByExpiresAtBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,164 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.analytics.SalesMetric;
+import com.e_commerce_product_catalog_api.dtos.CategorySalesDTO;
+import com.e_commerce_product_catalog_api.dtos.DailySalesDTO;
+import com.e_commerce_product_catalog_api.dtos.ProductSalesDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The {@code sales_rollups} table and the order lines feeding it. The invariant is that every rollup row holds
+ * exactly the lines flagged {@code rolled_up} for its day and product; each statement here moves lines across that
+ * flag and changes the totals by the same amounts, so it holds at every commit.
+ */
+@Repository
+public class SalesRollupRepository {
+
+    // Per-line totals of the lines a statement just flagged or unflagged, at the price they were ordered at
+    private static final String TOTALS_CTE = """
+            totals AS (
+                SELECT CAST(o.order_date AS date) AS sale_date, l.product_id, p.category_id,
+                       SUM(l.quantity) AS units, SUM(l.quantity * COALESCE(l.unit_price, p.price)) AS revenue
+                FROM lines l
+                JOIN orders o ON o.id = l.order_id
+                JOIN products p ON p.id = l.product_id
+                GROUP BY CAST(o.order_date AS date), l.product_id, p.category_id
+            )""";
+
+    // Lines locked by an order being changed are skipped rather than waited for; the next run picks them up.
+    // Rollup rows are written in key order, so concurrent runs over different lines never deadlock
+    private static final String APPLY_SQL = """
+            WITH batch AS (
+                SELECT id FROM order_items
+                WHERE NOT rolled_up AND id >= ? AND id < ?
+                ORDER BY id LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), lines AS (
+                UPDATE order_items i SET rolled_up = true FROM batch b WHERE i.id = b.id
+                RETURNING i.order_id, i.product_id, i.quantity, i.unit_price
+            ), """ + TOTALS_CTE + """
+            , applied AS (
+                INSERT INTO sales_rollups (sale_date, product_id, category_id, units, revenue)
+                SELECT sale_date, product_id, category_id, units, revenue FROM totals ORDER BY sale_date, product_id
+                ON CONFLICT (sale_date, product_id) DO UPDATE
+                SET units = sales_rollups.units + EXCLUDED.units, revenue = sales_rollups.revenue + EXCLUDED.revenue
+            )
+            SELECT COUNT(*) FROM lines
+            """;
+
+    // Locks every line of the order first, so the rollup writer cannot count one between this and the caller's
+    // delete or date change
+    private static final String UNROLL_SQL = """
+            WITH locked AS (
+                SELECT id FROM order_items WHERE order_id = ? FOR UPDATE
+            ), lines AS (
+                UPDATE order_items i SET rolled_up = false FROM locked k WHERE i.id = k.id AND i.rolled_up
+                RETURNING i.order_id, i.product_id, i.quantity, i.unit_price
+            ), """ + TOTALS_CTE + """
+            UPDATE sales_rollups r SET units = r.units - t.units, revenue = r.revenue - t.revenue
+            FROM totals t
+            WHERE r.sale_date = t.sale_date AND r.product_id = t.product_id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Counts up to {@code limit} lines not yet in the rollups, among ids in [fromId, toId). Runs as one statement,
+     * so a line is counted exactly once. Returns the number of lines counted.
+     */
+    public int applyPending(long fromId, long toId, int limit) {
+        Integer applied = jdbcTemplate.queryForObject(APPLY_SQL, Integer.class, fromId, toId, limit);
+        return applied == null ? 0 : applied;
+    }
+
+    // Takes the order's counted lines back out of the rollups; runs in the caller's transaction
+    public void unrollOrder(long orderId) {
+        jdbcTemplate.update(UNROLL_SQL, orderId);
+    }
+
+    /**
+     * Empties the rollups and marks every line as not counted, so they can be counted again from scratch. Lines
+     * are unflagged before the rollups are emptied, the same lock order {@link #unrollOrder} uses.
+     */
+    @Transactional
+    public void reset() {
+        jdbcTemplate.update("UPDATE order_items SET rolled_up = false WHERE rolled_up");
+        jdbcTemplate.update("DELETE FROM sales_rollups");
+    }
+
+    // The lowest and highest order line id, or empty when there are no lines
+    public Optional<long[]> findLineIdRange() {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM order_items", (row, rowNum) -> {
+            long min = row.getLong(1);
+            return row.wasNull() ? null : new long[]{min, row.getLong(2)};
+        }).stream().filter(range -> range != null).findFirst();
+    }
+
+    public List<ProductSalesDTO> findTopProducts(LocalDate from, LocalDate to, SalesMetric metric, int limit) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = """
+                SELECT r.product_id, p.name, SUM(r.units) AS units, SUM(r.revenue) AS revenue
+                FROM sales_rollups r
+                LEFT JOIN products p ON p.id = r.product_id
+                """ + dateRange(from, to, parameters) + """
+                 GROUP BY r.product_id, p.name
+                ORDER BY""" + (metric == SalesMetric.UNITS ? " units DESC," : " revenue DESC,") + " r.product_id LIMIT ?";
+        parameters.add(limit);
+        return jdbcTemplate.query(sql, (row, rowNum) -> new ProductSalesDTO(row.getLong("product_id"), row.getString("name"),
+                row.getLong("units"), row.getBigDecimal("revenue")), parameters.toArray());
+    }
+
+    /**
+     * Sales per category, by the category each rollup row was written with: a product's sales for a day count
+     * toward the category it was in when the first of them was counted, and a product moved to another category
+     * takes only its later days along. A rebuild counts everything again under the current categories.
+     */
+    public List<CategorySalesDTO> findCategorySales(LocalDate from, LocalDate to) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = """
+                SELECT r.category_id, c.name, SUM(r.units) AS units, SUM(r.revenue) AS revenue
+                FROM sales_rollups r
+                LEFT JOIN categories c ON c.id = r.category_id
+                """ + dateRange(from, to, parameters) + """
+                 GROUP BY r.category_id, c.name
+                ORDER BY revenue DESC, r.category_id""";
+        return jdbcTemplate.query(sql, (row, rowNum) -> new CategorySalesDTO(row.getLong("category_id"), row.getString("name"),
+                row.getLong("units"), row.getBigDecimal("revenue")), parameters.toArray());
+    }
+
+    public List<DailySalesDTO> findDailySales(LocalDate from, LocalDate to) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = """
+                SELECT r.sale_date, SUM(r.units) AS units, SUM(r.revenue) AS revenue
+                FROM sales_rollups r
+                """ + dateRange(from, to, parameters) + """
+                 GROUP BY r.sale_date
+                ORDER BY r.sale_date""";
+        return jdbcTemplate.query(sql, (row, rowNum) -> new DailySalesDTO(row.getDate("sale_date").toLocalDate(),
+                row.getLong("units"), row.getBigDecimal("revenue")), parameters.toArray());
+    }
+
+    // Days in [from, to); either bound may be null to leave that end open
+    private static String dateRange(LocalDate from, LocalDate to, List<Object> parameters) {
+        StringBuilder where = new StringBuilder("WHERE 1 = 1");
+        if (from != null) {
+            where.append(" AND r.sale_date >= ?");
+            parameters.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            where.append(" AND r.sale_date < ?");
+            parameters.add(Date.valueOf(to));
+        }
+        return where.toString();
+    }
+}
@@ -2,7 +2,11 @@ package com.e_commerce_product_catalog_api.repository;
 
 import com.e_commerce_product_catalog_api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,11 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findByUsername(String username);
+
+    // Replaces the hash only while it is still the one it was computed from, so a password changed meanwhile is
+    // never overwritten
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id AND u.password = :previous")
+    int updatePassword(@Param("id") Long id, @Param("previous") String previous, @Param("password") String password);
 }
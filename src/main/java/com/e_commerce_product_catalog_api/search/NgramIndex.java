@@ -0,0 +1,64 @@
+package com.e_commerce_product_catalog_api.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram inverted index over a single text field. Every document containing a query as a substring also
+ * contains all of the query's trigrams, so intersecting their posting lists yields a candidate superset that
+ * the caller verifies against the stored text.
+ */
+final class NgramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    void add(int doc, String text) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            postings.computeIfAbsent(gram(text, i), key -> new PostingList()).add(doc);
+        }
+    }
+
+    /**
+     * Returns the ascending ordinals of documents that may contain {@code query}, or {@code null} when the query is
+     * absent or too short to be served by trigrams and every document is a candidate.
+     */
+    int[] candidates(String query) {
+        if (query == null || query.length() < GRAM_LENGTH) {
+            return null;
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            PostingList list = postings.get(gram(query, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        int[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).retainAll(result);
+        }
+        return result;
+    }
+
+    void trim() {
+        postings.values().forEach(PostingList::trim);
+    }
+
+    void clear() {
+        postings.clear();
+    }
+
+    private static long gram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+}
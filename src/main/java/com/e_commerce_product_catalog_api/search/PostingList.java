@@ -0,0 +1,100 @@
+package com.e_commerce_product_catalog_api.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only list of ascending document ordinals, stored as delta-encoded varints in a single byte array.
+ * Most gaps fit in one or two bytes, so a posting list costs a fraction of an {@code int[]} of the same size.
+ */
+final class PostingList {
+
+    private byte[] data = new byte[4];
+    private int length;
+    private int size;
+    private int last = -1;
+
+    /**
+     * Appends a document ordinal. Ordinals must be added in ascending order; adding the last ordinal again is a no-op.
+     */
+    void add(int doc) {
+        if (doc == last) {
+            return;
+        }
+        if (doc < last) {
+            throw new IllegalStateException("Posting list ordinals must ascend: " + doc + " after " + last);
+        }
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        int delta = size == 0 ? doc : doc - last;
+        while ((delta & ~0x7F) != 0) {
+            data[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+        last = doc;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        int[] docs = new int[size];
+        int position = 0;
+        int doc = 0;
+        for (int i = 0; i < size; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            doc = i == 0 ? delta : doc + delta;
+            docs[i] = doc;
+        }
+        return docs;
+    }
+
+    /**
+     * Returns the ordinals of {@code sorted} that are also in this list, decoding this list in a single forward pass.
+     */
+    int[] retainAll(int[] sorted) {
+        int[] result = new int[Math.min(sorted.length, size)];
+        int count = 0;
+        int position = 0;
+        int doc = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < sorted.length; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            doc = i == 0 ? delta : doc + delta;
+            while (j < sorted.length && sorted[j] < doc) {
+                j++;
+            }
+            if (j < sorted.length && sorted[j] == doc) {
+                result[count++] = doc;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Releases the unused tail of the backing array once bulk loading is done.
+     */
+    void trim() {
+        if (data.length > length) {
+            data = Arrays.copyOf(data, length);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.e_commerce_product_catalog_api.search;
+
+import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory substring index over product name, description and category name, answering the same
+ * case-insensitive "contains" filters as {@link ProductRepository#findByFilters} without scanning the table.
+ * <p>
+ * Documents are addressed by ordinals that only ever grow, so every posting list stays append-only: an update
+ * retires the old ordinal and appends the product under a new one. Retired ordinals are dropped during candidate
+ * verification and reclaimed by compaction once they outnumber the live ones.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final int BUILD_CHUNK_SIZE = 1000;
+    private static final int MIN_COMPACTION_SIZE = 1024;
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "price");
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NgramIndex nameIndex = new NgramIndex();
+    private final NgramIndex descriptionIndex = new NgramIndex();
+    private final NgramIndex categoryIndex = new NgramIndex();
+    private final List<IndexedProduct> docs = new ArrayList<>();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private final Set<Long> touchedDuringBuild = new HashSet<>();
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread builder = new Thread(this::build, "product-search-index-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Loads every product in id order. Writes that arrive while the build is running are applied directly and
+     * win over the (possibly older) rows the build reads afterwards.
+     */
+    void build() {
+        try {
+            long lastId = 0;
+            List<Product> chunk;
+            do {
+                chunk = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BUILD_CHUNK_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (Product product : chunk) {
+                        if (!touchedDuringBuild.contains(product.getId())) {
+                            put(IndexedProduct.of(product));
+                        }
+                    }
+                }
+                finally {
+                    lock.writeLock().unlock();
+                }
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == BUILD_CHUNK_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                trim();
+                touchedDuringBuild.clear();
+                ready = true;
+                log.info("Product search index built with {} products", ordinalsById.size());
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+        catch (RuntimeException e) {
+            log.error("Product search index build failed, searches will keep using the database", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            touch(product.getId());
+            put(IndexedProduct.of(product));
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            touch(productId);
+            retire(productId);
+            compactIfSparse();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void renameCategory(Long categoryId, String categoryName) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedProduct doc : liveDocs()) {
+                if (doc.categoryId() == categoryId) {
+                    touch(doc.id());
+                    put(doc.withCategoryName(normalize(categoryName)));
+                }
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedProduct doc : liveDocs()) {
+                if (doc.categoryId() == categoryId) {
+                    touch(doc.id());
+                    retire(doc.id());
+                }
+            }
+            compactIfSparse();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the page of matching product ids in the requested order, or empty when the request has to go to the
+     * database: the index is still building, the sort is not one the index keeps, or a filter contains an
+     * {@code ILIKE} wildcard.
+     */
+    public Optional<Page<Long>> search(String name, String category, String description, Pageable pageable) {
+        if (!ready || !isSortable(pageable.getSort()) || hasWildcard(name) || hasWildcard(category) || hasWildcard(description)) {
+            return Optional.empty();
+        }
+        String nameQuery = normalize(name);
+        String categoryQuery = normalize(category);
+        String descriptionQuery = normalize(description);
+
+        List<IndexedProduct> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int[] candidates = intersect(intersect(nameIndex.candidates(nameQuery), categoryIndex.candidates(categoryQuery)),
+                    descriptionIndex.candidates(descriptionQuery));
+            if (candidates == null) {
+                for (IndexedProduct doc : docs) {
+                    if (doc != null && doc.matches(nameQuery, categoryQuery, descriptionQuery)) {
+                        matches.add(doc);
+                    }
+                }
+            }
+            else {
+                for (int ordinal : candidates) {
+                    IndexedProduct doc = docs.get(ordinal);
+                    if (doc != null && doc.matches(nameQuery, categoryQuery, descriptionQuery)) {
+                        matches.add(doc);
+                    }
+                }
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(comparator(pageable.getSort()));
+        List<IndexedProduct> content = matches;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), matches.size());
+            int to = Math.min(from + pageable.getPageSize(), matches.size());
+            content = matches.subList(from, to);
+        }
+        List<Long> ids = content.stream().map(IndexedProduct::id).toList();
+        return Optional.of(new PageImpl<>(ids, pageable, matches.size()));
+    }
+
+    private void touch(Long productId) {
+        if (!ready) {
+            touchedDuringBuild.add(productId);
+        }
+    }
+
+    private void put(IndexedProduct doc) {
+        retire(doc.id());
+        int ordinal = docs.size();
+        docs.add(doc);
+        ordinalsById.put(doc.id(), ordinal);
+        nameIndex.add(ordinal, doc.name());
+        descriptionIndex.add(ordinal, doc.description());
+        categoryIndex.add(ordinal, doc.categoryName());
+        compactIfSparse();
+    }
+
+    private void retire(Long productId) {
+        Integer ordinal = ordinalsById.remove(productId);
+        if (ordinal != null) {
+            docs.set(ordinal, null);
+        }
+    }
+
+    private List<IndexedProduct> liveDocs() {
+        return docs.stream().filter(doc -> doc != null).toList();
+    }
+
+    /**
+     * Renumbers the live documents from zero once retired ordinals dominate, so posting lists and the document
+     * table do not grow without bound under a steady stream of updates.
+     */
+    private void compactIfSparse() {
+        int retired = docs.size() - ordinalsById.size();
+        if (docs.size() < MIN_COMPACTION_SIZE || retired <= ordinalsById.size()) {
+            return;
+        }
+        List<IndexedProduct> live = liveDocs();
+        docs.clear();
+        ordinalsById.clear();
+        nameIndex.clear();
+        descriptionIndex.clear();
+        categoryIndex.clear();
+        for (IndexedProduct doc : live) {
+            int ordinal = docs.size();
+            docs.add(doc);
+            ordinalsById.put(doc.id(), ordinal);
+            nameIndex.add(ordinal, doc.name());
+            descriptionIndex.add(ordinal, doc.description());
+            categoryIndex.add(ordinal, doc.categoryName());
+        }
+        trim();
+    }
+
+    private void trim() {
+        nameIndex.trim();
+        descriptionIndex.trim();
+        categoryIndex.trim();
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        int[] result = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            }
+            else if (left[i] > right[j]) {
+                j++;
+            }
+            else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static boolean isSortable(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE_PROPERTIES.contains(order.getProperty()));
+    }
+
+    private static boolean hasWildcard(String filter) {
+        return filter != null && (filter.indexOf('%') >= 0 || filter.indexOf('_') >= 0 || filter.indexOf('\\') >= 0);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Comparator<IndexedProduct> comparator(Sort sort) {
+        Comparator<IndexedProduct> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<IndexedProduct> next = switch (order.getProperty()) {
+                case "name" -> Comparator.comparing(IndexedProduct::name);
+                case "price" -> Comparator.comparing(IndexedProduct::price);
+                default -> Comparator.comparingLong(IndexedProduct::id);
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<IndexedProduct> byId = Comparator.comparingLong(IndexedProduct::id);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private record IndexedProduct(long id, long categoryId, String name, String description, String categoryName,
+                                  BigDecimal price) {
+
+        static IndexedProduct of(Product product) {
+            return new IndexedProduct(product.getId(), product.getCategory().getId(), normalize(product.getName()),
+                    normalize(product.getDescription()), normalize(product.getCategory().getName()), product.getPrice());
+        }
+
+        IndexedProduct withCategoryName(String categoryName) {
+            return new IndexedProduct(id, categoryId, name, description, categoryName, price);
+        }
+
+        boolean matches(String nameQuery, String categoryQuery, String descriptionQuery) {
+            return contains(name, nameQuery) && contains(categoryName, categoryQuery) && contains(description, descriptionQuery);
+        }
+
+        private static boolean contains(String field, String query) {
+            return query == null || (field != null && field.contains(query));
+        }
+    }
+}
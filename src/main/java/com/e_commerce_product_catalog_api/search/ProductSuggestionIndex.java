@@ -0,0 +1,234 @@
+package com.e_commerce_product_catalog_api.search;
+
+import com.e_commerce_product_catalog_api.dtos.SuggestionDTO;
+import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.repository.CategoryRepository;
+import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Search-as-you-type completions over product and category names. A product name is weighted by how many products
+ * carry it and a category name by how many products it holds, so broader completions rank first.
+ * <p>
+ * The trie is built in the background on startup and kept current by {@code ProductService} and
+ * {@code CategoryService}; until the build finishes no completions are offered.
+ */
+@Slf4j
+@Component
+public class ProductSuggestionIndex {
+
+    public static final String PRODUCT = "PRODUCT";
+    public static final String CATEGORY = "CATEGORY";
+
+    private static final int BUILD_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestionTrie trie = new SuggestionTrie();
+    private final Map<Long, String> productNames = new HashMap<>();
+    private final Map<Long, Long> productCategories = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final Map<Long, Long> categoryWeights = new HashMap<>();
+    private final Set<Long> productsTouchedDuringBuild = new HashSet<>();
+    private final Set<Long> categoriesTouchedDuringBuild = new HashSet<>();
+    private volatile boolean ready;
+
+    public ProductSuggestionIndex(ProductRepository productRepository, CategoryRepository categoryRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread builder = new Thread(this::build, "product-suggestion-index-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Loads every category and product. Writes that arrive while the build is running are applied directly and
+     * win over the (possibly older) rows the build reads afterwards.
+     */
+    void build() {
+        try {
+            List<Category> categories = categoryRepository.findAll();
+            lock.writeLock().lock();
+            try {
+                for (Category category : categories) {
+                    if (!categoriesTouchedDuringBuild.contains(category.getId())) {
+                        putCategoryName(category.getId(), category.getName());
+                    }
+                }
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+
+            long lastId = 0;
+            List<Product> chunk;
+            do {
+                chunk = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BUILD_CHUNK_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (Product product : chunk) {
+                        if (!productsTouchedDuringBuild.contains(product.getId())
+                                && !categoriesTouchedDuringBuild.contains(product.getCategory().getId())) {
+                            putProductName(product);
+                        }
+                    }
+                }
+                finally {
+                    lock.writeLock().unlock();
+                }
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == BUILD_CHUNK_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                productsTouchedDuringBuild.clear();
+                categoriesTouchedDuringBuild.clear();
+                ready = true;
+                log.info("Product suggestion index built with {} products and {} categories", productNames.size(), categoryNames.size());
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+        catch (RuntimeException e) {
+            log.error("Product suggestion index build failed, no suggestions will be offered", e);
+        }
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        if (!ready) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.complete(prefix, limit).stream()
+                    .map(completion -> new SuggestionDTO(completion.text(), completion.type()))
+                    .toList();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void putProduct(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                productsTouchedDuringBuild.add(product.getId());
+            }
+            removeProductName(product.getId());
+            putProductName(product);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProduct(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                productsTouchedDuringBuild.add(productId);
+            }
+            removeProductName(productId);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putCategory(Category category) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                categoriesTouchedDuringBuild.add(category.getId());
+            }
+            putCategoryName(category.getId(), category.getName());
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Deleting a category deletes its products as well
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                categoriesTouchedDuringBuild.add(categoryId);
+            }
+            List<Long> productIds = productCategories.entrySet().stream()
+                    .filter(entry -> entry.getValue().equals(categoryId))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            productIds.forEach(this::removeProductName);
+            String name = categoryNames.remove(categoryId);
+            Long weight = categoryWeights.remove(categoryId);
+            if (name != null) {
+                trie.add(name, CATEGORY, -weight);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putProductName(Product product) {
+        Category category = product.getCategory();
+        if (!categoryNames.containsKey(category.getId())) {
+            putCategoryName(category.getId(), category.getName());
+        }
+        productNames.put(product.getId(), product.getName());
+        productCategories.put(product.getId(), category.getId());
+        trie.add(product.getName(), PRODUCT, 1);
+        adjustCategoryWeight(category.getId(), 1);
+    }
+
+    private void removeProductName(Long productId) {
+        String name = productNames.remove(productId);
+        Long categoryId = productCategories.remove(productId);
+        if (name != null) {
+            trie.add(name, PRODUCT, -1);
+            adjustCategoryWeight(categoryId, -1);
+        }
+    }
+
+    // A category starts at weight one so that it is suggested before it holds any products
+    private void putCategoryName(Long categoryId, String name) {
+        String previousName = categoryNames.put(categoryId, name);
+        long weight = categoryWeights.computeIfAbsent(categoryId, id -> 1L);
+        if (previousName != null) {
+            trie.add(previousName, CATEGORY, -weight);
+        }
+        trie.add(name, CATEGORY, weight);
+    }
+
+    private void adjustCategoryWeight(Long categoryId, long delta) {
+        String name = categoryNames.get(categoryId);
+        if (name != null) {
+            categoryWeights.merge(categoryId, delta, Long::sum);
+            trie.add(name, CATEGORY, delta);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.e_commerce_product_catalog_api.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Recent search totals keyed by normalized filters, used to answer approximate counts without repeating the
+ * count query on every page. Filters are matched case-insensitively, so they are keyed in lower case.
+ */
+@Component
+public class SearchCountCache {
+
+    private final Map<Key, Entry> counts = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public SearchCountCache(@Value("${catalog.search.count-cache.ttl:60s}") Duration ttl,
+                            @Value("${catalog.search.count-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public long getOrCount(String name, String category, String description, LongSupplier counter) {
+        Key key = new Key(normalize(name), normalize(category), normalize(description));
+        long now = System.nanoTime();
+        Entry entry = counts.get(key);
+        if (entry != null && now - entry.countedAt() < ttlNanos) {
+            return entry.count();
+        }
+        long count = counter.getAsLong();
+        if (counts.size() >= maxEntries) {
+            counts.values().removeIf(expired -> now - expired.countedAt() >= ttlNanos);
+            if (counts.size() >= maxEntries) {
+                counts.clear();
+            }
+        }
+        counts.put(key, new Entry(count, now));
+        return count;
+    }
+
+    private static String normalize(String filter) {
+        return filter == null ? null : filter.toLowerCase(Locale.ROOT);
+    }
+
+    private record Key(String name, String category, String description) {
+    }
+
+    private record Entry(long count, long countedAt) {
+    }
+}
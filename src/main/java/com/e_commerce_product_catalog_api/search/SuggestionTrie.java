@@ -0,0 +1,215 @@
+package com.e_commerce_product_catalog_api.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prefix trie of weighted completions. Every node caches the heaviest {@link #MAX_SUGGESTIONS} completions in its
+ * subtree, so a lookup is a walk down the prefix plus a copy of that node's cache, independent of how many
+ * completions share the prefix. A completion is reachable from the start of each of its words, so "lap" completes
+ * "Gaming Laptop" as well as "Laptop Stand".
+ */
+final class SuggestionTrie {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Completion> BY_WEIGHT = Comparator.comparingLong(Completion::weight).reversed()
+            .thenComparing(Completion::key);
+
+    private final Node root = new Node();
+    private final Map<String, Completion> completions = new HashMap<>();
+
+    /**
+     * Adds {@code delta} to the weight of the completion for {@code text} of the given type, creating it if needed and
+     * dropping it once its weight is no longer positive.
+     */
+    void add(String text, String type, long delta) {
+        String normalized = text.toLowerCase(Locale.ROOT);
+        String key = type + ":" + normalized;
+        Completion completion = completions.get(key);
+        if (completion == null) {
+            if (delta <= 0) {
+                return;
+            }
+            completion = new Completion(key, text, type);
+            completions.put(key, completion);
+        }
+        completion.weight += delta;
+        boolean removed = completion.weight <= 0;
+        if (removed) {
+            completions.remove(key);
+        }
+
+        for (String suffix : wordSuffixes(normalized)) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < suffix.length() && node != null; i++) {
+                node = removed ? node.child(suffix.charAt(i)) : node.childOrCreate(suffix.charAt(i));
+                if (node != null) {
+                    path.add(node);
+                }
+            }
+            if (node == null) {
+                continue;
+            }
+            if (removed) {
+                node.terminals.remove(completion);
+            }
+            else if (!node.terminals.contains(completion)) {
+                node.terminals.add(completion);
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node current = path.get(i);
+                current.refreshTop();
+                if (i > 0 && current.isEmpty()) {
+                    path.get(i - 1).removeChild(suffix.charAt(i - 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} completions for the prefix, heaviest first.
+     */
+    List<Completion> complete(String prefix, int limit) {
+        Node node = root;
+        String normalized = prefix.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.child(normalized.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        Completion[] top = node.top;
+        return List.of(Arrays.copyOf(top, Math.min(limit, top.length)));
+    }
+
+    void clear() {
+        root.labels = new char[0];
+        root.children = new Node[0];
+        root.terminals.clear();
+        root.top = new Completion[0];
+        completions.clear();
+    }
+
+    private static List<String> wordSuffixes(String text) {
+        List<String> suffixes = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            boolean wordStart = i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1));
+            if (wordStart && Character.isLetterOrDigit(text.charAt(i))) {
+                suffixes.add(text.substring(i));
+            }
+        }
+        if (suffixes.isEmpty()) {
+            suffixes.add(text);
+        }
+        return suffixes;
+    }
+
+    static final class Completion {
+
+        private final String key;
+        private final String text;
+        private final String type;
+        private long weight;
+
+        private Completion(String key, String text, String type) {
+            this.key = key;
+            this.text = text;
+            this.type = type;
+        }
+
+        String key() {
+            return key;
+        }
+
+        String text() {
+            return text;
+        }
+
+        String type() {
+            return type;
+        }
+
+        long weight() {
+            return weight;
+        }
+    }
+
+    /**
+     * Trie node with children kept in parallel arrays sorted by label, which is far smaller than a map per node.
+     */
+    private static final class Node {
+
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private final List<Completion> terminals = new ArrayList<>(1);
+        private Completion[] top = new Completion[0];
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return terminals.isEmpty() && children.length == 0;
+        }
+
+        /**
+         * Rebuilds this node's cache from its own completions and its children's caches, which already hold the
+         * heaviest completions of each subtree.
+         */
+        void refreshTop() {
+            List<Completion> candidates = new ArrayList<>(terminals);
+            for (Node child : children) {
+                for (Completion completion : child.top) {
+                    if (!candidates.contains(completion)) {
+                        candidates.add(completion);
+                    }
+                }
+            }
+            candidates.sort(BY_WEIGHT);
+            top = candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())).toArray(new Completion[0]);
+        }
+    }
+}
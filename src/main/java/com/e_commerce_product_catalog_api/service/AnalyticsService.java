@@ -0,0 +1,51 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.analytics.SalesMetric;
+import com.e_commerce_product_catalog_api.analytics.SalesRollupWriter;
+import com.e_commerce_product_catalog_api.dtos.CategorySalesDTO;
+import com.e_commerce_product_catalog_api.dtos.DailySalesDTO;
+import com.e_commerce_product_catalog_api.dtos.ProductSalesDTO;
+import com.e_commerce_product_catalog_api.exception.BadRequestException;
+import com.e_commerce_product_catalog_api.repository.SalesRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class AnalyticsService {
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private SalesRollupWriter salesRollupWriter;
+
+    // Best sellers over [from, to), read from the daily rollups rather than the order lines
+    public List<ProductSalesDTO> getTopProducts(LocalDate from, LocalDate to, SalesMetric metric, int limit) {
+        checkRange(from, to);
+        return salesRollupRepository.findTopProducts(from, to, metric, limit);
+    }
+
+    public List<CategorySalesDTO> getCategorySales(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return salesRollupRepository.findCategorySales(from, to);
+    }
+
+    public List<DailySalesDTO> getDailySales(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return salesRollupRepository.findDailySales(from, to);
+    }
+
+    // Recount the rollups from every order line in the background; false when a rebuild is already running
+    public boolean rebuildRollups() {
+        return salesRollupWriter.startRebuild();
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("from must be before to");
+        }
+    }
+}
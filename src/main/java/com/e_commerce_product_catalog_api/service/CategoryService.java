@@ -1,11 +1,16 @@
 package com.e_commerce_product_catalog_api.service;
 
+import com.e_commerce_product_catalog_api.config.CacheConfig;
 import com.e_commerce_product_catalog_api.dtos.CategoryDTO;
 import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.EntityVersion;
 import com.e_commerce_product_catalog_api.exception.ResourceNotFoundException;
 import com.e_commerce_product_catalog_api.mapper.CategoryMapper;
 import com.e_commerce_product_catalog_api.repository.CategoryRepository;
+import com.e_commerce_product_catalog_api.search.ProductSearchIndex;
+import com.e_commerce_product_catalog_api.search.ProductSuggestionIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,10 +25,17 @@ public class CategoryService {
     @Autowired
     private CategoryMapper categoryMapper; // For mapping between entity and DTO
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex; // Category names are searchable on products
+
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex; // Category names are offered as search completions
+
     // Create a new Category
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
         Category category = categoryMapper.toEntity(categoryDTO);
         Category savedCategory = categoryRepository.save(category);
+        productSuggestionIndex.putCategory(savedCategory);
         return categoryMapper.toDTO(savedCategory);
     }
 
@@ -39,6 +51,11 @@ public class CategoryService {
         return categoryMapper.toDTO(category);
     }
 
+    // Get the version of a Category without loading it, for conditional requests
+    public EntityVersion getCategoryVersion(Long id) {
+        return categoryRepository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+    }
+
     // Update an existing Category
     public CategoryDTO updateCategory(Long id, CategoryDTO categoryDTO) {
         Category existingCategory = categoryRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
@@ -46,14 +63,19 @@ public class CategoryService {
         existingCategory.setName(categoryDTO.getName());
         existingCategory.setDescription(categoryDTO.getDescription());
         Category updatedCategory = categoryRepository.save(existingCategory);
+        productSearchIndex.renameCategory(id, updatedCategory.getName());
+        productSuggestionIndex.putCategory(updatedCategory);
 
         return categoryMapper.toDTO(updatedCategory);
     }
 
-    // Delete a Category
+    // Delete a Category, together with its products
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, allEntries = true)
     public void deleteCategory(Long id) {
         Category category = categoryRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
         categoryRepository.delete(category);
+        productSearchIndex.removeCategory(id);
+        productSuggestionIndex.removeCategory(id);
     }
 }
 
@@ -0,0 +1,104 @@
+package com.e_commerce_product_catalog_api.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time, so a feed is never held in memory. Quoted fields may contain commas,
+ * doubled quotes and line breaks.
+ */
+final class CsvRecordReader {
+
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine;
+    private int peeked = -2;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the fields of the next record, or {@code null} at the end of the input.
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    }
+                    else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                }
+                else {
+                    countLine(c);
+                    field.append((char) c);
+                }
+            }
+            else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            }
+            else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        peeked = following;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * The line on which the record last returned by {@link #next()} starts.
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    private void countLine(int c) {
+        if (c == '\n') {
+            line++;
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -2,20 +2,82 @@ package com.e_commerce_product_catalog_api.service;
 
 import com.e_commerce_product_catalog_api.entity.User;
 import com.e_commerce_product_catalog_api.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads users for authentication. Resolved users are cached, bounded by {@code max-size} and kept for at most
+ * {@code ttl}; concurrent misses for the same username share one database lookup. Anything that changes a user or
+ * their roles must call {@link #evict} so the change is seen on the next request.
+ * <p>
+ * Reported by the actuator as cache.gets with {@code cache=users.details}, and as users.details.db_calls_saved.
+ */
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
+    public static final String CACHE_NAME = "users.details";
+
     private final UserRepository userRepository;
+    private final Cache<String, UserDetails> users;
+    private final AtomicLong databaseLoads = new AtomicLong();
+
+    public CustomUserDetailsService(UserRepository userRepository, MeterRegistry meterRegistry,
+                                    @Value("${catalog.security.user-cache.max-size:10000}") long maximumSize,
+                                    @Value("${catalog.security.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, CACHE_NAME);
+        FunctionCounter.builder("users.details.db_calls_saved", this,
+                        service -> service.users.stats().requestCount() - service.databaseLoads.get())
+                .description("User lookups answered without querying the users and user_roles tables")
+                .register(meterRegistry);
+    }
 
+    /**
+     * Returns a copy of the cached user, so the caller erasing its credentials after authenticating does not
+     * erase them in the cache. Unknown usernames are not cached.
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails userDetails = users.get(username, this::loadFromDatabase);
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).build();
+    }
+
+    /**
+     * Forgets the cached user. Inside a transaction the user is forgotten again once it commits, so a request
+     * reading the old row meanwhile cannot leave it cached.
+     */
+    public void evict(String username) {
+        users.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    users.invalidate(username);
+                }
+            });
+        }
+    }
+
+    private UserDetails loadFromDatabase(String username) {
+        databaseLoads.incrementAndGet();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
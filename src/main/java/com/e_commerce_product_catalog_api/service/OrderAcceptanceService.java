@@ -0,0 +1,178 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+import com.e_commerce_product_catalog_api.dtos.OrderStatusDTO;
+import com.e_commerce_product_catalog_api.exception.ResourceNotFoundException;
+import com.e_commerce_product_catalog_api.exception.TooManyRequestsException;
+import com.e_commerce_product_catalog_api.idempotency.IdempotencyService;
+import com.e_commerce_product_catalog_api.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Asynchronous order placement. When enabled, an order is accepted as soon as its payload is valid: it takes its id
+ * from the orders sequence and the request returns, while {@link OrderService#createOrder(long, OrderDTO, Consumer)}
+ * runs on a virtual thread. At most {@code max-concurrency} orders are placed at once, so a burst waits on parked
+ * virtual threads rather than on request threads and database connections, and once {@code max-pending} orders are
+ * waiting new ones are turned away with 429.
+ * <p>
+ * Outcomes are remembered for {@code status-ttl}; after that an order is reported confirmed if it was stored.
+ * Orders accepted but not yet placed when the application stops are never placed, and are then reported unknown.
+ */
+@Slf4j
+@Service
+public class OrderAcceptanceService {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final IdempotencyService idempotencyService;
+    private final boolean enabled;
+    private final int maxPending;
+    private final Semaphore placements;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Cache<Long, OrderStatusDTO> statuses;
+    private final ExecutorService executor;
+    private final Timer placementLatency;
+
+    public OrderAcceptanceService(OrderService orderService, OrderRepository orderRepository,
+                                  IdempotencyService idempotencyService, MeterRegistry meterRegistry,
+                                  @Value("${catalog.orders.async.enabled:false}") boolean enabled,
+                                  @Value("${catalog.orders.async.max-concurrency:32}") int maxConcurrency,
+                                  @Value("${catalog.orders.async.max-pending:10000}") int maxPending,
+                                  @Value("${catalog.orders.async.status-ttl:1h}") Duration statusTtl) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.idempotencyService = idempotencyService;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.placements = new Semaphore(maxConcurrency);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .maximumSize(Math.max(maxPending, 1) * 10L)
+                .build();
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-acceptor-", 0).factory());
+        this.placementLatency = Timer.builder("orders.async.placement")
+                .description("Time from accepting an order to its placement committing or failing")
+                .register(meterRegistry);
+        Gauge.builder("orders.async.pending", pending, AtomicInteger::get)
+                .description("Accepted orders not yet placed")
+                .register(meterRegistry);
+    }
+
+    // Lets orders already accepted finish placing
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Accepts an order for placement in the background, completing with the order under its new id. With an
+     * idempotency key, a repeat gets the id the first attempt was accepted under instead of placing it again, until
+     * that order is rejected; the key is then forgotten and a repeat is accepted as a new order.
+     */
+    public CompletableFuture<OrderDTO> accept(OrderDTO orderDTO, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return CompletableFuture.completedFuture(accept(orderDTO, placed -> { }, orderId -> { }));
+        }
+        return idempotencyService.execute(idempotencyKey, orderDTO, recorder -> CompletableFuture.completedFuture(
+                accept(orderDTO, recorder, orderId -> idempotencyService.forget(idempotencyKey, orderId))));
+    }
+
+    public OrderStatusDTO getStatus(long orderId) {
+        OrderStatusDTO status = statuses.getIfPresent(orderId);
+        if (status != null) {
+            return status;
+        }
+        if (orderRepository.existsById(orderId)) {
+            return new OrderStatusDTO(orderId, OrderStatusDTO.Status.CONFIRMED, null);
+        }
+        throw new ResourceNotFoundException("Order not found with id: " + orderId);
+    }
+
+    private OrderDTO accept(OrderDTO orderDTO, Consumer<OrderDTO> onPlaced, LongConsumer onRejected) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new TooManyRequestsException("Too many orders are waiting to be placed, please retry", RETRY_AFTER_SECONDS);
+        }
+        long orderId;
+        try {
+            orderId = orderService.reserveOrderId();
+        }
+        catch (RuntimeException e) {
+            pending.decrementAndGet();
+            throw e;
+        }
+        statuses.put(orderId, new OrderStatusDTO(orderId, OrderStatusDTO.Status.PENDING, null));
+        long acceptedAt = System.nanoTime();
+        try {
+            executor.execute(() -> place(orderId, orderDTO, onPlaced, onRejected, acceptedAt));
+        }
+        catch (RejectedExecutionException e) {
+            statuses.invalidate(orderId);
+            pending.decrementAndGet();
+            throw new TooManyRequestsException("Orders are not being accepted right now, please retry", RETRY_AFTER_SECONDS);
+        }
+
+        OrderDTO accepted = new OrderDTO();
+        accepted.setId(orderId);
+        accepted.setOrderDate(orderDTO.getOrderDate());
+        accepted.setOrderItems(orderDTO.getOrderItems());
+        return accepted;
+    }
+
+    private void place(long orderId, OrderDTO orderDTO, Consumer<OrderDTO> onPlaced, LongConsumer onRejected, long acceptedAt) {
+        OrderStatusDTO outcome;
+        try {
+            placements.acquire();
+            try {
+                orderService.createOrder(orderId, orderDTO, onPlaced);
+                outcome = new OrderStatusDTO(orderId, OrderStatusDTO.Status.CONFIRMED, null);
+            }
+            finally {
+                placements.release();
+            }
+        }
+        catch (ResourceNotFoundException | IllegalArgumentException e) {
+            outcome = new OrderStatusDTO(orderId, OrderStatusDTO.Status.REJECTED, e.getMessage());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = new OrderStatusDTO(orderId, OrderStatusDTO.Status.REJECTED, "The order was not placed before shutdown");
+        }
+        catch (RuntimeException e) {
+            log.error("Placing accepted order {} failed", orderId, e);
+            outcome = new OrderStatusDTO(orderId, OrderStatusDTO.Status.REJECTED, "The order could not be placed");
+        }
+        pending.decrementAndGet();
+        placementLatency.record(System.nanoTime() - acceptedAt, TimeUnit.NANOSECONDS);
+        statuses.put(orderId, outcome);
+        if (outcome.getStatus() == OrderStatusDTO.Status.REJECTED) {
+            onRejected.accept(orderId);
+        }
+    }
+}
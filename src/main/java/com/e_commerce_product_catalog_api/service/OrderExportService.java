@@ -0,0 +1,49 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.repository.OrderExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+@Service
+public class OrderExportService {
+
+    @Autowired
+    private OrderExportRepository orderExportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Write one JSON order per line as the rows come off the cursor; the transaction keeps the cursor open on
+    // PostgreSQL, and read-only lets it skip the flush and dirty checks
+    @Transactional(readOnly = true)
+    public void exportNdjson(LocalDateTime since, LocalDateTime until, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try {
+                orderExportRepository.forEachOrder(since, until, order -> {
+                    try {
+                        writer.writeValue(generator, order);
+                        generator.writeRaw('\n');
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
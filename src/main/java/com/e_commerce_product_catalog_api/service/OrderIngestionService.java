@@ -0,0 +1,222 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+import com.e_commerce_product_catalog_api.exception.TooManyRequestsException;
+import com.e_commerce_product_catalog_api.idempotency.IdempotencyService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Group commit for new orders. When enabled, orders are queued and a single committer thread places whatever has
+ * gathered, up to {@code max-batch} orders or {@code max-wait} after the first one, in one transaction through
+ * {@link OrderService#createOrderBatch}. Every caller's future completes once the batch holding its order has
+ * committed, so a response never reports an order that could still be rolled back.
+ * <p>
+ * The queue is bounded: when it is full new orders are turned away with 429 instead of piling up latency.
+ */
+@Slf4j
+@Service
+public class OrderIngestionService {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingOrder> queue;
+    private final DistributionSummary batchSize;
+    private final Timer commitLatency;
+
+    private volatile boolean running;
+    private Thread committer;
+
+    public OrderIngestionService(OrderService orderService, IdempotencyService idempotencyService, MeterRegistry meterRegistry,
+                                 @Value("${catalog.orders.group-commit.enabled:false}") boolean enabled,
+                                 @Value("${catalog.orders.group-commit.max-batch:64}") int maxBatch,
+                                 @Value("${catalog.orders.group-commit.max-wait:5ms}") Duration maxWait,
+                                 @Value("${catalog.orders.group-commit.queue-capacity:1024}") int queueCapacity) {
+        this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = DistributionSummary.builder("orders.group_commit.batch_size")
+                .description("Orders placed per group-commit transaction")
+                .register(meterRegistry);
+        this.commitLatency = Timer.builder("orders.group_commit.latency")
+                .description("Time to place and commit one batch of orders")
+                .register(meterRegistry);
+        Gauge.builder("orders.group_commit.queue_depth", queue, BlockingQueue::size)
+                .description("Orders waiting for the group committer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        committer = new Thread(this::run, "order-group-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // Stops taking orders and lets the committer place what is already queued
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (committer != null) {
+            committer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Places an order, completing with the saved order once it has committed. Without group commit the order is
+     * placed right away on the calling thread. With an idempotency key, a repeat of an order already placed, or
+     * still being placed, gets that order's outcome instead of placing it again.
+     */
+    public CompletableFuture<OrderDTO> submit(OrderDTO orderDTO, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return place(orderDTO, placed -> { });
+        }
+        return idempotencyService.execute(idempotencyKey, orderDTO, recorder -> place(orderDTO, recorder));
+    }
+
+    private CompletableFuture<OrderDTO> place(OrderDTO orderDTO, Consumer<OrderDTO> onPlaced) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(orderService.createOrder(orderDTO, onPlaced));
+        }
+        PendingOrder pending = new PendingOrder(orderDTO, onPlaced, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new TooManyRequestsException("Too many orders are waiting to be placed, please retry", RETRY_AFTER_SECONDS);
+        }
+        return pending.result();
+    }
+
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first order, then gathers more until the batch is full or {@code max-wait} has passed since the
+     * first one arrived.
+     */
+    private void collect(List<PendingOrder> batch) throws InterruptedException {
+        PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                return;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Places the batch in one transaction. When one order's recorder fails, the transaction is lost for every order
+     * in it, so that order alone is failed and the rest are placed again without it; any other failure fails the
+     * whole batch.
+     */
+    private void commit(List<PendingOrder> batch) {
+        batchSize.record(batch.size());
+        List<PendingOrder> remaining = batch;
+        while (!remaining.isEmpty()) {
+            List<PendingOrder> attempt = remaining;
+            RecorderFailure recorderFailure = new RecorderFailure();
+            List<OrderService.OrderOutcome> outcomes;
+            long start = System.nanoTime();
+            try {
+                outcomes = orderService.createOrderBatch(attempt.stream().map(PendingOrder::order).toList(),
+                        (index, placed) -> {
+                            try {
+                                attempt.get(index).onPlaced().accept(placed);
+                            }
+                            catch (RuntimeException e) {
+                                recorderFailure.index = index;
+                                recorderFailure.error = e;
+                                throw e;
+                            }
+                        });
+            }
+            catch (RuntimeException e) {
+                if (recorderFailure.error == null) {
+                    log.error("Group commit of {} orders failed", attempt.size(), e);
+                    attempt.forEach(pending -> pending.result().completeExceptionally(e));
+                    return;
+                }
+                log.warn("Recording an order of a group commit of {} failed, placing the others again", attempt.size(),
+                        recorderFailure.error);
+                attempt.get(recorderFailure.index).result().completeExceptionally(recorderFailure.error);
+                remaining = new ArrayList<>(attempt);
+                remaining.remove(recorderFailure.index);
+                continue;
+            }
+            finally {
+                commitLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            for (int i = 0; i < attempt.size(); i++) {
+                OrderService.OrderOutcome outcome = outcomes.get(i);
+                if (outcome.error() != null) {
+                    attempt.get(i).result().completeExceptionally(outcome.error());
+                }
+                else {
+                    attempt.get(i).result().complete(outcome.order());
+                }
+            }
+            return;
+        }
+    }
+
+    // The order whose recorder threw during an attempt, and what it threw
+    private static final class RecorderFailure {
+
+        private int index;
+        private RuntimeException error;
+    }
+
+    private record PendingOrder(OrderDTO order, Consumer<OrderDTO> onPlaced, CompletableFuture<OrderDTO> result) {
+    }
+}
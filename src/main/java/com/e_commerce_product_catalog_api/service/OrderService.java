@@ -1,19 +1,47 @@
 package com.e_commerce_product_catalog_api.service;
 
+import com.e_commerce_product_catalog_api.config.CacheConfig;
 import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+import com.e_commerce_product_catalog_api.dtos.OrderItemDTO;
 import com.e_commerce_product_catalog_api.entity.Order;
 import com.e_commerce_product_catalog_api.entity.OrderItem;
+import com.e_commerce_product_catalog_api.entity.OrderKey;
 import com.e_commerce_product_catalog_api.entity.Product;
 import com.e_commerce_product_catalog_api.exception.ResourceNotFoundException;
 import com.e_commerce_product_catalog_api.mapper.OrderMapper;
+import com.e_commerce_product_catalog_api.repository.OrderBulkRepository;
+import com.e_commerce_product_catalog_api.repository.OrderItemBulkRepository;
 import com.e_commerce_product_catalog_api.repository.OrderItemRepository;
 import com.e_commerce_product_catalog_api.repository.OrderRepository;
 import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import com.e_commerce_product_catalog_api.repository.SalesRollupRepository;
+import com.e_commerce_product_catalog_api.stock.HotStockLedger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,50 +56,265 @@ public class OrderService {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private OrderItemBulkRepository orderItemBulkRepository;
+
+    @Autowired
+    private OrderBulkRepository orderBulkRepository;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
     @Autowired
     private OrderMapper orderMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HotStockLedger hotStockLedger;
+
     @Transactional
     public OrderDTO createOrder(OrderDTO orderDTO) {
-        // Step 1: Create the Order entity
+        return createOrder(orderDTO, placed -> { });
+    }
+
+    // onPlaced sees the saved order inside the transaction, so whatever it writes commits or rolls back with it
+    @Transactional
+    public OrderDTO createOrder(OrderDTO orderDTO, Consumer<OrderDTO> onPlaced) {
+        // Step 1: Insert the order under an id from its sequence. Its lines are written through JDBC, so the row
+        // has to exist now rather than wait for Hibernate to flush it at commit
         Order order = new Order();
         order.setOrderDate(orderDTO.getOrderDate());
-        Order savedOrder = orderRepository.save(order);
+        orderBulkRepository.insertAll(List.of(order));
+        return placeOrder(order, orderDTO, onPlaced);
+    }
+
+    // Places an order under an id taken beforehand with reserveOrderId, for orders accepted before they are placed
+    @Transactional
+    public OrderDTO createOrder(long orderId, OrderDTO orderDTO, Consumer<OrderDTO> onPlaced) {
+        Order order = new Order();
+        order.setId(orderId);
+        order.setOrderDate(orderDTO.getOrderDate());
+        orderBulkRepository.insertAll(List.of(order));
+        return placeOrder(order, orderDTO, onPlaced);
+    }
+
+    // Takes the next order id from the sequence without placing an order
+    public long reserveOrderId() {
+        return orderBulkRepository.reserveIds(1).get(0);
+    }
+
+    private OrderDTO placeOrder(Order savedOrder, OrderDTO orderDTO, Consumer<OrderDTO> onPlaced) {
+        // Step 2: Reserve hot products from the in-memory ledger, then deduct the rest in the database in ascending
+        // id order; a line is only applied while enough stock is left
+        SortedMap<Long, Integer> quantities = quantitiesOf(orderDTO);
+        SortedMap<Long, Integer> hotQuantities = reserveHotStock(quantities);
+        releaseOnRollback(List.of(hotQuantities));
+        SortedMap<Long, Integer> coldQuantities = new TreeMap<>(quantities);
+        coldQuantities.keySet().removeAll(hotQuantities.keySet());
+        List<Long> unchanged = coldQuantities.isEmpty() ? List.of() : productRepository.decrementStock(coldQuantities);
+
+        // Step 3: Load the ordered products in one query; a product whose decrement matched no row either does not
+        // exist or is short of stock, and failing here rolls back the decrements already made
+        Map<Long, Product> products = productRepository.findByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        if (!unchanged.isEmpty()) {
+            Long productId = unchanged.get(0);
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product not found with ID: " + productId);
+            }
+            throw new IllegalArgumentException("Insufficient stock for product ID: " + productId);
+        }
+        products.keySet().forEach(this::evictCachedProduct);
+
+        // Step 4: Create the OrderItems and insert them as one JDBC batch
+        List<OrderItem> orderItems = createOrderItems(savedOrder, orderDTO, products, hotQuantities);
+        orderItemBulkRepository.insertAll(orderItems);
+
+        // Step 5: Map and return the saved OrderDTO
+        OrderDTO savedOrderDTO = toDTO(savedOrder, orderItems);
+        onPlaced.accept(savedOrderDTO);
+        return savedOrderDTO;
+    }
 
-        // Step 2: Process and create OrderItems
-        List<OrderItem> orderItems = orderDTO.getOrderItems().stream().map(orderItemDTO -> {
-            // Validate product
-            Product product = productRepository.findById(orderItemDTO.getProduct().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + orderItemDTO.getProduct().getId()));
+    // Place a batch of orders in one transaction. The batch locks its products once, in ascending id order, checks
+    // each order against the stock the orders before it left, and writes orders, lines and stock changes as JDBC
+    // batches. An order that cannot be placed is reported in its outcome without failing the rest of the batch
+    @Transactional
+    public List<OrderOutcome> createOrderBatch(List<OrderDTO> orderDTOs) {
+        return createOrderBatch(orderDTOs, (index, placed) -> { });
+    }
 
-            // Check stock
-            if (product.getStock() < orderItemDTO.getQuantity()) {
-                throw new IllegalArgumentException("Insufficient stock for product ID: " + product.getId());
+    // onPlaced is called with the position and saved order of each placed order, inside the batch's transaction
+    @Transactional
+    public List<OrderOutcome> createOrderBatch(List<OrderDTO> orderDTOs, BiConsumer<Integer, OrderDTO> onPlaced) {
+        // Step 1: Lock the stored products of the whole batch; hot products are reserved from memory instead
+        List<SortedMap<Long, Integer>> orderQuantities = orderDTOs.stream().map(OrderService::quantitiesOf).toList();
+        SortedSet<Long> coldIds = new TreeSet<>();
+        Set<Long> hotIds = new HashSet<>();
+        orderQuantities.forEach(quantities -> quantities.keySet().forEach(productId ->
+                (hotStockLedger.isHot(productId) ? hotIds : coldIds).add(productId)));
+        Map<Long, Product> products = new HashMap<>();
+        if (!coldIds.isEmpty()) {
+            productRepository.findAllByIdForUpdate(coldIds).forEach(product -> products.put(product.getId(), product));
+        }
+        if (!hotIds.isEmpty()) {
+            productRepository.findByIdIn(hotIds).forEach(product -> products.put(product.getId(), product));
+        }
+
+        // Step 2: Check the orders one after another; stock changes go to the locked entities and are flushed as
+        // one batched update on commit
+        RuntimeException[] errors = new RuntimeException[orderDTOs.size()];
+        List<Order> orders = new ArrayList<>();
+        List<List<OrderItem>> itemsPerOrder = new ArrayList<>();
+        List<SortedMap<Long, Integer>> hotReservations = new ArrayList<>();
+        for (int i = 0; i < orderDTOs.size(); i++) {
+            OrderDTO orderDTO = orderDTOs.get(i);
+            SortedMap<Long, Integer> quantities = orderQuantities.get(i);
+            try {
+                for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                    Product product = products.get(line.getKey());
+                    if (product == null) {
+                        throw new ResourceNotFoundException("Product not found with ID: " + line.getKey());
+                    }
+                    if (!hotIds.contains(line.getKey()) && product.getStock() < line.getValue()) {
+                        throw new IllegalArgumentException("Insufficient stock for product ID: " + line.getKey());
+                    }
+                }
+                SortedMap<Long, Integer> hotQuantities = reserveHotStock(quantities);
+                hotReservations.add(hotQuantities);
+                quantities.forEach((productId, quantity) -> {
+                    if (!hotQuantities.containsKey(productId)) {
+                        Product product = products.get(productId);
+                        product.setStock(product.getStock() - quantity);
+                    }
+                });
+
+                Order order = new Order();
+                order.setOrderDate(orderDTO.getOrderDate());
+                orders.add(order);
+                itemsPerOrder.add(createOrderItems(order, orderDTO, products, hotQuantities));
+            }
+            catch (ResourceNotFoundException | IllegalArgumentException e) {
+                errors[i] = e;
             }
+        }
+        releaseOnRollback(hotReservations);
+
+        // Step 3: Insert the accepted orders and their lines as JDBC batches
+        orderBulkRepository.insertAll(orders);
+        orderItemBulkRepository.insertAll(itemsPerOrder.stream().flatMap(List::stream).toList());
+        coldIds.forEach(this::evictCachedProduct);
+
+        // Step 4: Report an outcome per order, in the order they were submitted
+        List<OrderOutcome> outcomes = new ArrayList<>(orderDTOs.size());
+        int placed = 0;
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                outcomes.add(new OrderOutcome(null, errors[i]));
+            }
+            else {
+                OrderDTO savedOrderDTO = toDTO(orders.get(placed), itemsPerOrder.get(placed));
+                onPlaced.accept(i, savedOrderDTO);
+                outcomes.add(new OrderOutcome(savedOrderDTO, null));
+                placed++;
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * The result of one order of a batch: the placed order, or why it could not be placed.
+     */
+    public record OrderOutcome(OrderDTO order, RuntimeException error) {
+    }
 
-            // Deduct stock
-            product.setStock(product.getStock() - orderItemDTO.getQuantity());
-            productRepository.save(product);
+    // Combines the lines of an order per product, in ascending product id order
+    private static SortedMap<Long, Integer> quantitiesOf(OrderDTO orderDTO) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItemDTO orderItemDTO : orderDTO.getOrderItems()) {
+            quantities.merge(orderItemDTO.getProduct().getId(), orderItemDTO.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
 
-            // Create OrderItem
+    private static List<OrderItem> createOrderItems(Order order, OrderDTO orderDTO, Map<Long, Product> products,
+                                                    Map<Long, Integer> hotQuantities) {
+        return orderDTO.getOrderItems().stream().map(orderItemDTO -> {
             OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(savedOrder);
+            orderItem.setOrder(order);
+            orderItem.setOrderDate(order.getOrderDate());
+            Product product = products.get(orderItemDTO.getProduct().getId());
             orderItem.setProduct(product);
             orderItem.setQuantity(orderItemDTO.getQuantity());
+            orderItem.setUnitPrice(product.getPrice());
+            orderItem.setStockPending(hotQuantities.containsKey(orderItemDTO.getProduct().getId()));
             return orderItem;
         }).collect(Collectors.toList());
+    }
 
-        // Save all OrderItems
-        orderItemRepository.saveAll(orderItems);
+    private OrderDTO toDTO(Order order, List<OrderItem> orderItems) {
+        OrderDTO orderDTO = orderMapper.toDTO(order);
+        orderDTO.setOrderItems(orderItems.stream().map(orderMapper::toOrderItemDTO).collect(Collectors.toList()));
+        return orderDTO;
+    }
 
-        // Step 3: Map and return the saved OrderDTO
-        savedOrder.setOrderItems(orderItems);
-        return orderMapper.toDTO(savedOrder);
+    // Reserves every hot product of the order or none of them; reservations stay taken until the committed lines
+    // are applied to the stored stock
+    private SortedMap<Long, Integer> reserveHotStock(SortedMap<Long, Integer> quantities) {
+        SortedMap<Long, Integer> reserved = new TreeMap<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            if (!hotStockLedger.isHot(line.getKey())) {
+                continue;
+            }
+            if (!hotStockLedger.reserve(line.getKey(), line.getValue())) {
+                reserved.forEach(hotStockLedger::release);
+                throw new IllegalArgumentException("Insufficient stock for product ID: " + line.getKey());
+            }
+            reserved.put(line.getKey(), line.getValue());
+        }
+        return reserved;
     }
 
-    public List<OrderDTO> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        return orders.stream().map(orderMapper::toDTO).collect(Collectors.toList());
+    // Hands hot-stock reservations back to the ledger if the transaction that made them does not commit
+    private void releaseOnRollback(List<SortedMap<Long, Integer>> reservations) {
+        if (reservations.stream().allMatch(Map::isEmpty) || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    reservations.forEach(reserved -> reserved.forEach(hotStockLedger::release));
+                }
+            }
+        });
+    }
+
+    // The cached product shows the old stock; the eviction is applied once the order commits
+    private void evictCachedProduct(Long productId) {
+        Cache productCache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (productCache != null) {
+            productCache.evict(productId);
+        }
+    }
+
+    // Reads a page of orders placed in [from, to) in three queries whatever the page size: the page of ids, its
+    // count, and the orders with items, products and categories fetched together. The last query is bounded by the
+    // page's own date span, so it reads the same few partitions however far back the order history goes
+    @Transactional(readOnly = true)
+    public Page<OrderDTO> getOrders(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        Page<OrderKey> keys = orderRepository.findKeysByOrderDate(from, to, pageable);
+        if (keys.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, keys.getTotalElements());
+        }
+        List<Long> ids = keys.getContent().stream().map(OrderKey::getId).toList();
+        LocalDateTime first = keys.getContent().stream().map(OrderKey::getOrderDate).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime last = keys.getContent().stream().map(OrderKey::getOrderDate).max(LocalDateTime::compareTo).orElseThrow();
+        Map<Long, Order> orders = orderRepository.findWithItemsByIdIn(ids, first, last).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return keys.map(key -> orderMapper.toDTO(orders.get(key.getId())));
     }
 
     public OrderDTO getOrderById(Long id) {
@@ -79,15 +322,24 @@ public class OrderService {
         return orderMapper.toDTO(order);
     }
 
+    // A new date moves the order's sales to another day, so its lines are taken out of the rollups and counted
+    // again by the rollup writer once this commits
+    @Transactional
     public OrderDTO updateOrder(Long id, OrderDTO orderDTO) {
         Order existingOrder = orderRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        if (!Objects.equals(existingOrder.getOrderDate(), orderDTO.getOrderDate())) {
+            salesRollupRepository.unrollOrder(id);
+        }
         existingOrder.setOrderDate(orderDTO.getOrderDate());
+        existingOrder.getOrderItems().forEach(orderItem -> orderItem.setOrderDate(orderDTO.getOrderDate()));
         Order updatedOrder = orderRepository.save(existingOrder);
         return orderMapper.toDTO(updatedOrder);
     }
 
+    @Transactional
     public void deleteOrder(Long id) {
         Order order = orderRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        salesRollupRepository.unrollOrder(id);
         orderRepository.delete(order);
     }
 }
@@ -0,0 +1,139 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.entity.User;
+import com.e_commerce_product_catalog_api.exception.TooManyRequestsException;
+import com.e_commerce_product_catalog_api.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks login passwords on a pool of its own, {@code threads} wide (the number of cores by default), so a burst of
+ * logins queues for the pool instead of taking every request thread and core for BCrypt. Once {@code queue-capacity}
+ * checks are waiting, further logins are turned away with 429.
+ * <p>
+ * A password that matches a hash the encoder would no longer write, in another algorithm or at another cost, is
+ * rehashed and stored on the same thread before the login completes.
+ * <p>
+ * The outcome is handed over on a virtual thread, so what the caller chains onto it, such as starting the session,
+ * never holds a verifier thread that the next password check is waiting for.
+ */
+@Slf4j
+@Service
+public class PasswordVerificationService {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService completer;
+    private final Timer queueWait;
+    private final Timer verification;
+    private final Timer rehash;
+    private final Counter rejected;
+
+    public PasswordVerificationService(PasswordEncoder passwordEncoder, UserRepository userRepository,
+                                       CustomUserDetailsService userDetailsService, MeterRegistry meterRegistry,
+                                       @Value("${catalog.security.password.threads:0}") int threads,
+                                       @Value("${catalog.security.password.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.completer = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("password-verified-", 0).factory());
+        this.queueWait = Timer.builder("auth.password.queue_wait")
+                .description("Time a password check waited for a verifier thread")
+                .register(meterRegistry);
+        this.verification = Timer.builder("auth.password.verify")
+                .description("Time to check a password against its stored hash")
+                .register(meterRegistry);
+        this.rehash = Timer.builder("auth.password.rehash")
+                .description("Time to rehash and store a password whose hash was outdated")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Logins turned away because the verifier queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue_depth", executor.getQueue(), BlockingQueue::size)
+                .description("Password checks waiting for a verifier thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        completer.shutdown();
+        completer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Checks the password against the user's stored hash on the verifier pool, completing with whether it matched.
+     * Stages the caller chains on run off the verifier pool.
+     */
+    public CompletableFuture<Boolean> verify(User user, String rawPassword) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    boolean matches = passwordEncoder.matches(rawPassword, user.getPassword());
+                    verification.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    if (matches && passwordEncoder.upgradeEncoding(user.getPassword())) {
+                        rehash.record(() -> upgradeQuietly(user, rawPassword));
+                    }
+                    completer.execute(() -> result.complete(matches));
+                }
+                catch (RuntimeException e) {
+                    completer.execute(() -> result.completeExceptionally(e));
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many logins are being verified, please retry", RETRY_AFTER_SECONDS);
+        }
+        return result;
+    }
+
+    // The login has succeeded either way; a hash that could not be stored is upgraded at a later login
+    private void upgradeQuietly(User user, String rawPassword) {
+        try {
+            String previous = user.getPassword();
+            String upgraded = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePassword(user.getId(), previous, upgraded) > 0) {
+                user.setPassword(upgraded);
+                userDetailsService.evict(user.getUsername());
+            }
+        }
+        catch (RuntimeException e) {
+            log.warn("Could not store the upgraded password hash of user {}", user.getUsername(), e);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.dtos.ProductDTO;
+import com.e_commerce_product_catalog_api.dtos.ProductImportProgressDTO;
+import com.e_commerce_product_catalog_api.dtos.ProductImportResultDTO;
+import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.exception.BadRequestException;
+import com.e_commerce_product_catalog_api.repository.CategoryRepository;
+import com.e_commerce_product_catalog_api.repository.ProductBulkRepository;
+import com.e_commerce_product_catalog_api.search.ProductSearchIndex;
+import com.e_commerce_product_catalog_api.search.ProductSuggestionIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates products from a supplier feed read straight off the request body. Rows are validated one by one with the
+ * constraints of {@link ProductDTO} and against categories loaded once up front, and valid rows are written in JDBC
+ * batches of {@code catalog.import.batch-size}, each committed on its own so a long import makes steady progress and
+ * a bad row never fails its neighbours. Progress, with the rows rejected since, is reported after every batch.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("name", "price", "stock", "categoryid");
+
+    @Autowired
+    private ProductBulkRepository productBulkRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${catalog.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    public ProductImportResultDTO importNdjson(InputStream body) {
+        return importNdjson(body, progress -> { });
+    }
+
+    // Import one JSON product per line, in the shape accepted by POST /api/v1/products
+    public ProductImportResultDTO importNdjson(InputStream body, Consumer<ProductImportProgressDTO> onProgress) {
+        Import run = new Import(onProgress);
+        try (BufferedReader reader = reader(body)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ProductDTO row;
+                try {
+                    row = objectMapper.readValue(line, ProductDTO.class);
+                }
+                catch (JsonProcessingException e) {
+                    run.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                run.accept(lineNumber, row);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read the import feed", e);
+        }
+        return run.finish();
+    }
+
+    public ProductImportResultDTO importCsv(InputStream body) {
+        return importCsv(body, progress -> { });
+    }
+
+    // Import CSV with a header row naming the columns name, description, price, stock and categoryId
+    public ProductImportResultDTO importCsv(InputStream body, Consumer<ProductImportProgressDTO> onProgress) {
+        Import run = new Import(onProgress);
+        try (BufferedReader reader = reader(body)) {
+            CsvRecordReader records = new CsvRecordReader(reader);
+            List<String> header = records.next();
+            if (header == null) {
+                return run.finish();
+            }
+            Map<String, Integer> columns = csvColumns(header);
+            List<String> record;
+            while ((record = records.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                if (record.size() != header.size()) {
+                    run.reject(records.recordLine(), "Expected " + header.size() + " fields but found " + record.size());
+                    continue;
+                }
+                ProductDTO row;
+                try {
+                    row = csvRow(record, columns);
+                }
+                catch (NumberFormatException e) {
+                    run.reject(records.recordLine(), e.getMessage());
+                    continue;
+                }
+                run.accept(records.recordLine(), row);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read the import feed", e);
+        }
+        return run.finish();
+    }
+
+    // Writes each progress report to out as one JSON line and flushes it, so the caller sees it while the feed is
+    // still being read. A caller that has gone away fails the write, which stops the import after the batches
+    // already committed
+    public Consumer<ProductImportProgressDTO> ndjsonProgress(OutputStream out) {
+        return progress -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(progress));
+                out.write('\n');
+                out.flush();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Could not report import progress", e);
+            }
+        };
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static Map<String, Integer> csvColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_CSV_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new BadRequestException("CSV header is missing the columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static ProductDTO csvRow(List<String> record, Map<String, Integer> columns) {
+        ProductDTO row = new ProductDTO();
+        row.setName(field(record, columns, "name"));
+        row.setDescription(field(record, columns, "description"));
+        row.setPrice(parse(field(record, columns, "price"), "price", BigDecimal::new));
+        row.setStock(parse(field(record, columns, "stock"), "stock", Integer::valueOf));
+        row.setCategoryId(parse(field(record, columns, "categoryid"), "categoryId", Long::valueOf));
+        return row;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String value, String column, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        }
+        catch (NumberFormatException e) {
+            throw new NumberFormatException("Invalid " + column + ": " + value);
+        }
+    }
+
+    /**
+     * State of a single import: the category lookup, the batch being filled, the running totals and the rows
+     * rejected since progress was last reported.
+     */
+    private final class Import {
+
+        private final Map<Long, Category> categories = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        private final ProductImportResultDTO result = new ProductImportResultDTO();
+        private final List<Product> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final Consumer<ProductImportProgressDTO> onProgress;
+        private List<ProductImportResultDTO.RowError> unreportedErrors = new ArrayList<>();
+
+        Import(Consumer<ProductImportProgressDTO> onProgress) {
+            this.onProgress = onProgress;
+        }
+
+        void accept(long line, ProductDTO row) {
+            result.setReceived(result.getReceived() + 1);
+            String error = validate(row);
+            if (error != null) {
+                recordError(line, error);
+                return;
+            }
+            Product product = new Product();
+            product.setName(row.getName());
+            product.setDescription(row.getDescription());
+            product.setPrice(row.getPrice());
+            product.setStock(row.getStock());
+            product.setCategory(categories.get(row.getCategoryId()));
+            batch.add(product);
+            batchLines.add(line);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            result.setReceived(result.getReceived() + 1);
+            recordError(line, message);
+        }
+
+        ProductImportResultDTO finish() {
+            flush();
+            log.info("Product import finished: {} imported, {} rejected", result.getImported(), result.getFailed());
+            reportProgress(true);
+            return result;
+        }
+
+        // The messages of every constraint of ProductDTO the row breaks, then whether its category exists
+        private String validate(ProductDTO row) {
+            List<String> violations = validator.validate(row).stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .toList();
+            if (!violations.isEmpty()) {
+                return String.join("; ", violations);
+            }
+            if (!categories.containsKey(row.getCategoryId())) {
+                return "Category not found with id: " + row.getCategoryId();
+            }
+            return null;
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                List<Long> ids = productBulkRepository.allocateIds(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).setId(ids.get(i));
+                }
+                productBulkRepository.insertAll(batch);
+                for (Product product : batch) {
+                    productSearchIndex.index(product);
+                    productSuggestionIndex.putProduct(product);
+                }
+                result.setImported(result.getImported() + batch.size());
+            }
+            catch (DataAccessException e) {
+                log.warn("Product import batch of {} rows failed", batch.size(), e);
+                for (Long line : batchLines) {
+                    recordError(line, "Could not be written: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+            batch.clear();
+            batchLines.clear();
+            reportProgress(false);
+        }
+
+        private void recordError(long line, String message) {
+            ProductImportResultDTO.RowError error = new ProductImportResultDTO.RowError(line, message);
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(error);
+            }
+            else {
+                result.setErrorsTruncated(true);
+            }
+            // A long run of bad rows fills no batch, so its errors are reported once there are a batch's worth
+            unreportedErrors.add(error);
+            if (unreportedErrors.size() >= batchSize) {
+                reportProgress(false);
+            }
+        }
+
+        private void reportProgress(boolean done) {
+            ProductImportProgressDTO progress = new ProductImportProgressDTO();
+            progress.setReceived(result.getReceived());
+            progress.setImported(result.getImported());
+            progress.setFailed(result.getFailed());
+            progress.setErrors(unreportedErrors);
+            progress.setDone(done);
+            unreportedErrors = new ArrayList<>();
+            if (!done) {
+                log.info("Product import progress: {} rows read, {} imported, {} rejected",
+                        progress.getReceived(), progress.getImported(), progress.getFailed());
+            }
+            onProgress.accept(progress);
+        }
+    }
+}
@@ -1,21 +1,59 @@
 package com.e_commerce_product_catalog_api.service;
 
+import com.e_commerce_product_catalog_api.config.CacheConfig;
+import com.e_commerce_product_catalog_api.dtos.CursorPageDTO;
 import com.e_commerce_product_catalog_api.dtos.ProductDTO;
+import com.e_commerce_product_catalog_api.dtos.ProductFacetsDTO;
+import com.e_commerce_product_catalog_api.dtos.SuggestionDTO;
 import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.EntityVersion;
+import com.e_commerce_product_catalog_api.entity.FacetCount;
 import com.e_commerce_product_catalog_api.entity.FilteredProducts;
 import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.exception.BadRequestException;
 import com.e_commerce_product_catalog_api.exception.ResourceNotFoundException;
 import com.e_commerce_product_catalog_api.mapper.ProductMapper;
+import com.e_commerce_product_catalog_api.pagination.CountMode;
+import com.e_commerce_product_catalog_api.pagination.KeysetCursor;
+import com.e_commerce_product_catalog_api.pagination.UncountedPage;
 import com.e_commerce_product_catalog_api.repository.CategoryRepository;
 import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import com.e_commerce_product_catalog_api.repository.ProductSpecifications;
+import com.e_commerce_product_catalog_api.search.ProductSearchIndex;
+import com.e_commerce_product_catalog_api.search.ProductSuggestionIndex;
+import com.e_commerce_product_catalog_api.search.SearchCountCache;
+import com.e_commerce_product_catalog_api.stock.HotStockLedger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 public class ProductService {
 
+    // Properties a cursor can sort on, with how their key values are read back from a token
+    private static final Map<String, Function<String, Object>> CURSOR_KEY_TYPES = Map.of(
+            "id", Long::valueOf,
+            "name", value -> value,
+            "price", BigDecimal::new);
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -25,9 +63,26 @@ public class ProductService {
     @Autowired
     private ProductMapper productMapper;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private SearchCountCache searchCountCache;
+
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HotStockLedger hotStockLedger;
+
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = productMapper.toEntity(productDTO);
         Product savedProduct = productRepository.save(product);
+        productSearchIndex.index(savedProduct);
+        productSuggestionIndex.putProduct(savedProduct);
         return productMapper.toDTO(savedProduct);
     }
 
@@ -36,32 +91,110 @@ public class ProductService {
         return productPage.map(productMapper::toDTO);
     }
 
+    public CursorPageDTO<ProductDTO> scrollProducts(String cursor, Sort sort, int size) {
+        return scroll(ProductSpecifications.matchesFilters(null, null, null), cursor, sort, size, productMapper::toDTO);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductDTO getProductById(Long id) {
         Product product = productRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         return productMapper.toDTO(product);
     }
 
+    // Version of a product for conditional requests, taken from the product cache when present and otherwise read
+    // from the version columns alone, so an unchanged product is never loaded or mapped just to answer 304
+    public EntityVersion getProductVersion(Long id) {
+        Cache productCache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        ProductDTO cached = productCache == null ? null : productCache.get(id, ProductDTO.class);
+        if (cached != null && cached.getVersion() != null) {
+            return new EntityVersion(cached.getVersion(), cached.getUpdatedAt());
+        }
+        return productRepository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
         Product existingProduct = productRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         Category existingCategory = categoryRepository.findById(productDTO.getCategoryId()).orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
 
+        int stockChange = productDTO.getStock() - existingProduct.getStock();
+        // A hot product's stock cut is taken from memory first, like an order, so it can not go below the units that
+        // orders have reserved but not yet applied to the row
+        int cut = existingProduct.isHotSku() && stockChange < 0 ? -stockChange : 0;
+        if (cut > 0 && !hotStockLedger.cut(id, cut)) {
+            throw new BadRequestException("Stock of product " + id + " can not be set below the units reserved by open orders");
+        }
         existingProduct.setName(productDTO.getName());
         existingProduct.setDescription(productDTO.getDescription());
         existingProduct.setPrice(productDTO.getPrice());
         existingProduct.setStock(productDTO.getStock());
         existingProduct.setCategory(existingCategory);
-        Product updatedProduct = productRepository.save(existingProduct);
+        Product updatedProduct;
+        try {
+            updatedProduct = productRepository.save(existingProduct);
+        }
+        catch (RuntimeException e) {
+            if (cut > 0) {
+                hotStockLedger.release(id, cut);
+            }
+            throw e;
+        }
+        productSearchIndex.index(updatedProduct);
+        productSuggestionIndex.putProduct(updatedProduct);
+        if (updatedProduct.isHotSku() && stockChange > 0) {
+            hotStockLedger.adjust(id, stockChange);
+        }
 
         return productMapper.toDTO(updatedProduct);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         productRepository.delete(product);
+        productSearchIndex.remove(id);
+        productSuggestionIndex.removeProduct(id);
+        hotStockLedger.untrack(id);
+    }
+
+    // Switch a product in or out of hot-SKU mode, where its stock is reserved from memory instead of its row
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public ProductDTO setHotSku(Long id, boolean hotSku) {
+        Product product = productRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        product.setHotSku(hotSku);
+        Product savedProduct = productRepository.save(product);
+        if (hotSku) {
+            hotStockLedger.track(id);
+        }
+        else {
+            hotStockLedger.untrack(id);
+        }
+        return productMapper.toDTO(savedProduct);
     }
 
     public Page<ProductDTO> filterProducts(String name, String category, String description, Pageable pageable) {
-        Page<FilteredProducts> productPage = productRepository.findByFilters(name, category, description, pageable);
+        return filterProducts(name, category, description, pageable, null);
+    }
+
+    // Answered from the in-memory search index, where the total is free; the ILIKE query is only used while the
+    // index is unavailable, and then the count mode decides what the total costs
+    public Page<ProductDTO> filterProducts(String name, String category, String description, Pageable pageable, CountMode countMode) {
+        Optional<Page<Long>> indexedPage = productSearchIndex.search(name, category, description, pageable);
+        if (indexedPage.isPresent()) {
+            return loadFilteredPage(indexedPage.get());
+        }
+
+        Page<FilteredProducts> productPage = switch (CountMode.resolve(countMode, pageable)) {
+            case EXACT -> productRepository.findByFilters(name, category, description, pageable);
+            case APPROXIMATE -> {
+                List<FilteredProducts> content = productRepository.findByFiltersWithoutCount(name, category, description, pageable);
+                long total = searchCountCache.getOrCount(name, category, description,
+                        () -> productRepository.countByFilters(name, category, description));
+                yield new PageImpl<>(content, pageable, total);
+            }
+            case NONE -> UncountedPage.of(pageable,
+                    page -> productRepository.findByFiltersWithoutCount(name, category, description, page));
+        };
 
         return productPage.map(product -> {
             ProductDTO dto = new ProductDTO();
@@ -74,5 +207,88 @@ public class ProductService {
             return dto;
         });
     }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        return productSuggestionIndex.suggest(prefix, limit);
+    }
+
+    // Category, price-range and availability counts for the same filters as filterProducts, from one grouped query
+    public ProductFacetsDTO getProductFacets(String name, String category, String description, BigDecimal priceBucketWidth) {
+        ProductFacetsDTO facets = new ProductFacetsDTO();
+        for (FacetCount facetCount : productRepository.countFacetsByFilters(name, category, description, priceBucketWidth)) {
+            switch (facetCount.getFacet()) {
+                case "category" -> facets.getCategories().add(new ProductFacetsDTO.CategoryCount(
+                        facetCount.getCategoryId(), facetCount.getCategoryName(), facetCount.getProductCount()));
+                case "price" -> {
+                    BigDecimal from = facetCount.getPriceBucket().multiply(priceBucketWidth);
+                    facets.getPriceHistogram().add(new ProductFacetsDTO.PriceBucket(
+                            from, from.add(priceBucketWidth), facetCount.getProductCount()));
+                }
+                default -> {
+                    if (Boolean.TRUE.equals(facetCount.getInStock())) {
+                        facets.setInStock(facetCount.getProductCount());
+                    }
+                    else {
+                        facets.setOutOfStock(facetCount.getProductCount());
+                    }
+                }
+            }
+        }
+        facets.getCategories().sort(Comparator.comparingLong(ProductFacetsDTO.CategoryCount::getCount).reversed());
+        facets.getPriceHistogram().sort(Comparator.comparing(ProductFacetsDTO.PriceBucket::getFrom));
+        return facets;
+    }
+
+    // Loads the rows for a page of ids from the index in one query, keeping the index order
+    private Page<ProductDTO> loadFilteredPage(Page<Long> idPage) {
+        Map<Long, Product> productsById = productRepository.findByIdIn(idPage.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<ProductDTO> content = idPage.getContent().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .map(this::toFilteredDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    public CursorPageDTO<ProductDTO> scrollFilteredProducts(String name, String category, String description,
+                                                            String cursor, Sort sort, int size) {
+        return scroll(ProductSpecifications.matchesFilters(name, category, description), cursor, sort, size, this::toFilteredDTO);
+    }
+
+    // Keyset pagination: seeks past the last row of the previous page instead of counting and skipping rows. The
+    // category is fetched with the page through an entity graph, as the mappers read its name for every row
+    private CursorPageDTO<ProductDTO> scroll(Specification<Product> specification, String cursor, Sort sort, int size,
+                                             Function<Product, ProductDTO> mapper) {
+        KeysetCursor keysetCursor = cursor == null
+                ? KeysetCursor.first(sort, CURSOR_KEY_TYPES)
+                : KeysetCursor.decode(cursor, CURSOR_KEY_TYPES);
+
+        Window<Product> window = productRepository.findBy(specification, query -> query
+                .sortBy(keysetCursor.sort())
+                .project("category")
+                .limit(size)
+                .scroll(keysetCursor.position()));
+
+        CursorPageDTO<ProductDTO> page = new CursorPageDTO<>();
+        page.setContent(window.getContent().stream().map(mapper).collect(Collectors.toList()));
+        page.setHasNext(window.hasNext());
+        if (window.hasNext()) {
+            page.setNextCursor(keysetCursor.encode(window.positionAt(window.size() - 1)));
+        }
+        return page;
+    }
+
+    private ProductDTO toFilteredDTO(Product product) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setStock(product.getStock());
+        dto.setCategoryName(product.getCategory().getName());
+        return dto;
+    }
 }
 
@@ -0,0 +1,149 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.entity.RefreshToken;
+import com.e_commerce_product_catalog_api.entity.User;
+import com.e_commerce_product_catalog_api.exception.UnauthorizedException;
+import com.e_commerce_product_catalog_api.jwt.JwtTokenUtil;
+import com.e_commerce_product_catalog_api.jwt.SessionRevocationList;
+import com.e_commerce_product_catalog_api.repository.RefreshTokenRepository;
+import com.e_commerce_product_catalog_api.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login sessions. A login starts a session and gets a short-lived access token plus a refresh token; exchanging the
+ * refresh token gets a new pair, and the old refresh token is spent. A spent token presented again can only be a
+ * copy, so the whole session is ended. Ending a session deletes its refresh tokens and lists it in the
+ * {@link SessionRevocationList}, which turns its access tokens away until they expire.
+ * <p>
+ * Only the SHA-256 of a refresh token is stored.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtTokenUtil jwtTokenUtil;
+    private final SessionRevocationList sessionRevocationList;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom random = new SecureRandom();
+    private ScheduledExecutorService purger;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+                               JwtTokenUtil jwtTokenUtil, SessionRevocationList sessionRevocationList,
+                               @Value("${catalog.security.refresh-token-ttl:14d}") Duration refreshTokenTtl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.sessionRevocationList = sessionRevocationList;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-token-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeQuietly, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    public record Tokens(String accessToken, String refreshToken) {
+    }
+
+    // Starts a session for a user whose password has just been checked
+    @Transactional
+    public Tokens startSession(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair in the same session. The session ending on reuse is committed even
+     * though the exchange fails.
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Tokens refresh(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        RefreshToken stored = refreshTokenRepository.findById(tokenHash)
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+        Instant now = Instant.now();
+        if (!stored.getExpiresAt().isAfter(now)) {
+            throw new UnauthorizedException("Refresh token has expired");
+        }
+        if (refreshTokenRepository.markUsed(tokenHash, now) == 0 || sessionRevocationList.isRevoked(stored.getSessionId())) {
+            log.warn("Refresh token of user {} was presented again, ending session {}", stored.getUsername(), stored.getSessionId());
+            endSession(stored.getSessionId());
+            throw new UnauthorizedException("Refresh token was already used, the session has been ended");
+        }
+        User user = userRepository.findByUsername(stored.getUsername())
+                .orElseThrow(() -> new UnauthorizedException("User no longer exists"));
+        return issue(user, stored.getSessionId());
+    }
+
+    // Ends the session the refresh token belongs to; an unknown token is ignored
+    @Transactional
+    public void logout(String refreshToken) {
+        refreshTokenRepository.findById(hash(refreshToken)).ifPresent(stored -> endSession(stored.getSessionId()));
+    }
+
+    private void endSession(String sessionId) {
+        refreshTokenRepository.deleteBySessionId(sessionId);
+        sessionRevocationList.revoke(sessionId);
+    }
+
+    private Tokens issue(User user, String sessionId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), user.getUsername(), sessionId,
+                Instant.now().plus(refreshTokenTtl), null));
+        return new Tokens(jwtTokenUtil.generateToken(user.getUsername(), user.getRoles(), sessionId), refreshToken);
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            refreshTokenRepository.deleteByExpiresAtBefore(Instant.now());
+        }
+        catch (RuntimeException e) {
+            log.warn("Purging expired refresh tokens failed, retrying in an hour", e);
+        }
+    }
+}
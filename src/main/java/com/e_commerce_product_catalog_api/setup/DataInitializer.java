@@ -9,12 +9,15 @@ import com.e_commerce_product_catalog_api.repository.OrderItemRepository;
 import com.e_commerce_product_catalog_api.repository.OrderRepository;
 import com.e_commerce_product_catalog_api.repository.ProductRepository;
 import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Component
+@DependsOn("idSequenceMigration")
 public class DataInitializer {
 
     private final CategoryRepository categoryRepository;
@@ -35,17 +38,15 @@ public class DataInitializer {
         Category electronics = new Category();
         electronics.setName("Electronics");
         electronics.setDescription("Devices, gadgets, and appliances.");
-        categoryRepository.save(electronics);
 
         Category clothing = new Category();
         clothing.setName("Clothing");
         clothing.setDescription("Apparel and garments.");
-        categoryRepository.save(clothing);
 
         Category books = new Category();
         books.setName("Books");
         books.setDescription("Fiction and non-fiction books.");
-        categoryRepository.save(books);
+        categoryRepository.saveAll(List.of(electronics, clothing, books));
 
         // Add products
         Product phone = new Product();
@@ -54,7 +55,6 @@ public class DataInitializer {
         phone.setPrice(new BigDecimal("500.00"));
         phone.setStock(50);
         phone.setCategory(electronics);
-        productRepository.save(phone);
 
         Product laptop = new Product();
         laptop.setName("Laptop");
@@ -62,7 +62,6 @@ public class DataInitializer {
         laptop.setPrice(new BigDecimal("1000.00"));
         laptop.setStock(30);
         laptop.setCategory(electronics);
-        productRepository.save(laptop);
 
         Product tshirt = new Product();
         tshirt.setName("T-Shirt");
@@ -70,7 +69,6 @@ public class DataInitializer {
         tshirt.setPrice(new BigDecimal("20.00"));
         tshirt.setStock(100);
         tshirt.setCategory(clothing);
-        productRepository.save(tshirt);
 
         Product novel = new Product();
         novel.setName("Novel");
@@ -78,41 +76,41 @@ public class DataInitializer {
         novel.setPrice(new BigDecimal("15.00"));
         novel.setStock(200);
         novel.setCategory(books);
-        productRepository.save(novel);
+        productRepository.saveAll(List.of(phone, laptop, tshirt, novel));
 
         // Add orders
         Order order1 = new Order();
         order1.setOrderDate(LocalDateTime.now().minusDays(2));
-        orderRepository.save(order1);
 
         Order order2 = new Order();
         order2.setOrderDate(LocalDateTime.now().minusDays(1));
-        orderRepository.save(order2);
+        orderRepository.saveAll(List.of(order1, order2));
 
         // Add order items
         OrderItem orderItem1 = new OrderItem();
         orderItem1.setOrder(order1);
+        orderItem1.setOrderDate(order1.getOrderDate());
         orderItem1.setProduct(phone);
         orderItem1.setQuantity(2);
-        orderItemRepository.save(orderItem1);
 
         OrderItem orderItem2 = new OrderItem();
         orderItem2.setOrder(order1);
+        orderItem2.setOrderDate(order1.getOrderDate());
         orderItem2.setProduct(novel);
         orderItem2.setQuantity(1);
-        orderItemRepository.save(orderItem2);
 
         OrderItem orderItem3 = new OrderItem();
         orderItem3.setOrder(order2);
+        orderItem3.setOrderDate(order2.getOrderDate());
         orderItem3.setProduct(laptop);
         orderItem3.setQuantity(1);
-        orderItemRepository.save(orderItem3);
 
         OrderItem orderItem4 = new OrderItem();
         orderItem4.setOrder(order2);
+        orderItem4.setOrderDate(order2.getOrderDate());
         orderItem4.setProduct(tshirt);
         orderItem4.setQuantity(3);
-        orderItemRepository.save(orderItem4);
+        orderItemRepository.saveAll(List.of(orderItem1, orderItem2, orderItem3, orderItem4));
 
         System.out.println("Initial data added successfully!");
     }
@@ -0,0 +1,42 @@
+package com.e_commerce_product_catalog_api.setup;
+
+import com.e_commerce_product_catalog_api.repository.IdSequences;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the id columns that still use identity or serial defaults onto the sequences the entities are mapped to,
+ * keeping every existing id. Runs once the schema is in place and before anything is inserted; tables already
+ * moved are left alone, so it is a no-op on every start after the first.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceMigration {
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "categories", IdSequences.CATEGORIES,
+            "products", IdSequences.PRODUCTS,
+            "orders", IdSequences.ORDERS,
+            "order_items", IdSequences.ORDER_ITEMS,
+            "users", IdSequences.USERS);
+
+    private final IdSequences idSequences;
+
+    public IdSequenceMigration(IdSequences idSequences) {
+        this.idSequences = idSequences;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        SEQUENCES.forEach((table, sequence) -> {
+            if (idSequences.adopt(table, sequence)) {
+                log.info("Moved {}.id onto sequence {}, keeping existing ids", table, sequence);
+            }
+        });
+    }
+}
@@ -0,0 +1,206 @@
+package com.e_commerce_product_catalog_api.stock;
+
+import com.e_commerce_product_catalog_api.config.CacheConfig;
+import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flash-sale stock for products switched to hot-SKU mode. Their available stock lives in memory in
+ * {@link StripedStockCounter}s, so a reservation is decided without touching the products row that every buyer
+ * would otherwise queue on.
+ * <p>
+ * An order for a hot product is committed with its lines marked {@code stock_pending}, and a background writer
+ * periodically takes all pending lines off {@code products.stock} in one statement. The pending lines are the
+ * durable record of every reservation, so on startup the ledger is rebuilt as stock less pending lines and nothing
+ * reserved before a crash is lost. The ledger assumes a single application instance serves hot products.
+ */
+@Slf4j
+@Component
+public class HotStockLedger {
+
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final Duration flushInterval;
+    private final int shardCount;
+
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private volatile boolean drainPending = true;
+    private ScheduledExecutorService writer;
+
+    public HotStockLedger(ProductRepository productRepository, CacheManager cacheManager,
+                          @Value("${catalog.hot-stock.flush-interval:100ms}") Duration flushInterval,
+                          @Value("${catalog.hot-stock.shards:0}") int shards) {
+        this.productRepository = productRepository;
+        this.cacheManager = cacheManager;
+        this.flushInterval = flushInterval;
+        this.shardCount = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-stock-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.execute(this::rebuild);
+        writer.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer != null) {
+            writer.shutdown();
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Applies what earlier runs left pending, then loads every hot product. Until this finishes, orders for hot
+     * products take the database path, which is correct once the pending lines are applied.
+     */
+    void rebuild() {
+        try {
+            flush();
+            Map<Long, Long> availability = productRepository.findHotStockAvailability();
+            availability.forEach((productId, available) -> counters.put(productId, new StripedStockCounter(available, shardCount)));
+            log.info("Hot stock ledger rebuilt with {} products", availability.size());
+        }
+        catch (RuntimeException e) {
+            log.error("Hot stock ledger rebuild failed, hot products will use the database until switched on again", e);
+        }
+    }
+
+    public boolean isHot(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * Reserves stock of a hot product. Fails when not enough is left, or when the product is no longer hot.
+     */
+    public boolean reserve(Long productId, int quantity) {
+        StripedStockCounter counter = counters.get(productId);
+        return counter != null && counter.tryReserve(quantity);
+    }
+
+    // Returns stock reserved for an order, or taken for a stock cut, that was not committed
+    public void release(Long productId, int quantity) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.release(quantity);
+        }
+    }
+
+    /**
+     * Starts serving a product from memory with the stock the database holds for it, once the caller's transaction
+     * has committed. A product already served from memory keeps its counter, and with it the reservations in flight.
+     */
+    public void track(Long productId) {
+        afterCommit(() -> {
+            if (!counters.containsKey(productId)) {
+                productRepository.findAvailableStock(productId)
+                        .ifPresent(available -> counters.putIfAbsent(productId, new StripedStockCounter(available, shardCount)));
+            }
+        });
+    }
+
+    /**
+     * Takes units off a hot product's stock ahead of an edit that lowers it, the way an order reserves them. Fails
+     * when fewer units are available than the cut, so stock is never set below what orders have reserved and not
+     * yet applied. A product not served from memory is checked against its stock less its pending lines.
+     * Units taken for an edit that is then not stored are handed back with {@link #release}.
+     */
+    public boolean cut(Long productId, int units) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            return counter.tryReserve(units);
+        }
+        return productRepository.findAvailableStock(productId).map(available -> available >= units).orElse(true);
+    }
+
+    /**
+     * Moves a hot product's stock by the change just made to its stored stock, once the caller's transaction has
+     * committed. The counter is adjusted rather than reloaded, so reservations in flight stay taken and are neither
+     * sold twice nor returned on top of the new stock.
+     */
+    public void adjust(Long productId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            StripedStockCounter counter = counters.get(productId);
+            if (counter != null) {
+                counter.adjust(delta);
+            }
+        });
+    }
+
+    // Hands a product back to the database path once the caller's transaction has committed, applying its pending
+    // lines right away
+    public void untrack(Long productId) {
+        afterCommit(() -> {
+            if (counters.remove(productId) != null) {
+                drainPending = true;
+                flushQuietly();
+            }
+        });
+    }
+
+    /**
+     * Takes the committed hot-SKU order lines off the stored stock and evicts the changed products from the cache.
+     */
+    public synchronized void flush() {
+        List<Long> changed = productRepository.applyPendingStock();
+        Cache productCache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (productCache != null) {
+            changed.forEach(productCache::evict);
+        }
+        if (changed.isEmpty() && counters.isEmpty()) {
+            drainPending = false;
+        }
+    }
+
+    // Runs the action once the surrounding transaction commits, never if it rolls back, or at once outside one
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void flushQuietly() {
+        if (counters.isEmpty() && !drainPending) {
+            return;
+        }
+        try {
+            flush();
+        }
+        catch (RuntimeException e) {
+            log.warn("Hot stock flush failed, pending order lines will be applied on the next run", e);
+        }
+    }
+}
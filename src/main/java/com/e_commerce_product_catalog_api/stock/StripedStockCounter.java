@@ -0,0 +1,155 @@
+package com.e_commerce_product_catalog_api.stock;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock of one product split across shards, each updated by compare-and-set only. A reservation is normally served
+ * by the shard the calling thread hashes to, so concurrent buyers spread over separate cache lines instead of
+ * contending on a single counter; shards are only combined when no single one can cover the quantity.
+ */
+final class StripedStockCounter {
+
+    // Shards sit 64 bytes apart so neighbouring shards never share a cache line
+    private static final int PADDING = 8;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final int shardCount;
+    private final AtomicLongArray shards;
+    // Units taken away by a stock cut while they were reserved, paid off by the next units returned or added
+    private final AtomicLong deficit = new AtomicLong();
+
+    StripedStockCounter(long available, int shardCount) {
+        this.shardCount = shardCount;
+        this.shards = new AtomicLongArray(shardCount * PADDING);
+        for (int i = 0; i < shardCount; i++) {
+            shards.set(i * PADDING, available / shardCount + (i < available % shardCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes {@code quantity} units if that many are available. Never takes more than is available, so the total can
+     * not go below zero however many threads reserve at once.
+     */
+    boolean tryReserve(int quantity) {
+        int home = home();
+        for (int i = 0; i < shardCount; i++) {
+            if (tryTake((home + i) % shardCount, quantity)) {
+                return true;
+            }
+        }
+        // No single shard holds enough: gather from several, returning what was taken if the total falls short.
+        // Concurrent gatherers can briefly hold each other's units, so a shortfall is retried while stock remains
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && available() >= quantity; attempt++) {
+            if (tryGather(home, quantity)) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        return false;
+    }
+
+    void release(int quantity) {
+        adjust(quantity);
+    }
+
+    /**
+     * Adds {@code delta} units, or takes them away when negative. Units already reserved stay reserved: when stock
+     * is cut below what the shards hold, the rest is owed, and units later returned or added pay it off before any
+     * of them can be reserved again.
+     */
+    void adjust(long delta) {
+        if (delta < 0) {
+            deficit.addAndGet(-delta);
+            settle();
+            return;
+        }
+        long rest = payDeficit(delta);
+        if (rest > 0) {
+            shards.addAndGet(home() * PADDING, rest);
+        }
+    }
+
+    long available() {
+        long sum = 0;
+        for (int i = 0; i < shardCount; i++) {
+            sum += shards.get(i * PADDING);
+        }
+        return sum - deficit.get();
+    }
+
+    private boolean tryTake(int shard, int quantity) {
+        int index = shard * PADDING;
+        long current;
+        do {
+            current = shards.get(index);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!shards.compareAndSet(index, current, current - quantity));
+        return true;
+    }
+
+    private boolean tryGather(int home, int quantity) {
+        long taken = takeUpTo(home, quantity);
+        if (taken == quantity) {
+            return true;
+        }
+        if (taken > 0) {
+            shards.addAndGet(home * PADDING, taken);
+        }
+        return false;
+    }
+
+    // Takes as many units as the shards hold, up to max, starting from the home shard
+    private long takeUpTo(int home, long max) {
+        long missing = max;
+        for (int i = 0; i < shardCount && missing > 0; i++) {
+            int index = (home + i) % shardCount * PADDING;
+            long current;
+            long take;
+            do {
+                current = shards.get(index);
+                take = Math.min(current, missing);
+            } while (take > 0 && !shards.compareAndSet(index, current, current - take));
+            if (take > 0) {
+                missing -= take;
+            }
+        }
+        return max - missing;
+    }
+
+    // Pays what is owed out of the shards as far as they hold units; anything paid twice by a concurrent release
+    // goes back to a shard
+    private void settle() {
+        long owed;
+        while ((owed = deficit.get()) > 0) {
+            long taken = takeUpTo(home(), owed);
+            if (taken == 0) {
+                return;
+            }
+            long surplus = payDeficit(taken);
+            if (surplus > 0) {
+                shards.addAndGet(home() * PADDING, surplus);
+            }
+        }
+    }
+
+    // Pays off as much of the deficit as the units cover and returns the units left over
+    private long payDeficit(long units) {
+        long owed;
+        long paid;
+        do {
+            owed = deficit.get();
+            if (owed == 0) {
+                return units;
+            }
+            paid = Math.min(owed, units);
+        } while (!deficit.compareAndSet(owed, owed - paid));
+        return units - paid;
+    }
+
+    private int home() {
+        return Math.floorMod(Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L >>> 32, shardCount);
+    }
+}
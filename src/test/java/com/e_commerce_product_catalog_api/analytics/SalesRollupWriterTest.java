@@ -0,0 +1,123 @@
+package com.e_commerce_product_catalog_api.analytics;
+
+import com.e_commerce_product_catalog_api.repository.SalesRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SalesRollupWriterTest {
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    private SalesRollupWriter salesRollupWriter;
+
+    /**
+     * Sets up a writer counting batches of 100 lines and rebuilding in chunks of 1000 ids on 2 threads.
+     */
+    @BeforeEach
+    void setUp() {
+        salesRollupWriter = new SalesRollupWriter(salesRollupRepository, Duration.ofHours(1), 100, 2, 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        salesRollupWriter.stop();
+    }
+
+    /**
+     * Test: Apply pending lines
+     *
+     * Ensures that the writer keeps counting while full batches come back, and stops at the first partial one.
+     */
+    @Test
+    void testApply_DrainsFullBatches() {
+        when(salesRollupRepository.applyPending(0, Long.MAX_VALUE, 100)).thenReturn(100, 100, 37);
+
+        long counted = salesRollupWriter.apply();
+
+        assertEquals(237, counted);
+        verify(salesRollupRepository, times(3)).applyPending(0, Long.MAX_VALUE, 100);
+    }
+
+    /**
+     * Test: Rebuild
+     *
+     * Ensures that a rebuild empties the rollups first and then counts every id range of the lines exactly once.
+     */
+    @Test
+    void testRebuild_CountsEveryChunk() throws Exception {
+        when(salesRollupRepository.findLineIdRange()).thenReturn(Optional.of(new long[]{1, 2500}));
+        when(salesRollupRepository.applyPending(anyLong(), anyLong(), anyInt())).thenReturn(10);
+
+        long counted = salesRollupWriter.rebuild();
+
+        assertEquals(30, counted);
+        InOrder inOrder = inOrder(salesRollupRepository);
+        inOrder.verify(salesRollupRepository).reset();
+        inOrder.verify(salesRollupRepository).findLineIdRange();
+        verify(salesRollupRepository).applyPending(1, 1001, 100);
+        verify(salesRollupRepository).applyPending(1001, 2001, 100);
+        verify(salesRollupRepository).applyPending(2001, 2501, 100);
+    }
+
+    /**
+     * Test: Rebuild with no lines
+     *
+     * Ensures that rebuilding an empty table only empties the rollups.
+     */
+    @Test
+    void testRebuild_NoLines() throws Exception {
+        when(salesRollupRepository.findLineIdRange()).thenReturn(Optional.empty());
+
+        assertEquals(0, salesRollupWriter.rebuild());
+        verify(salesRollupRepository).reset();
+        verify(salesRollupRepository, never()).applyPending(anyLong(), anyLong(), anyInt());
+    }
+
+    /**
+     * Test: Start a second rebuild
+     *
+     * Ensures that a rebuild is refused while another one is running, and allowed again once it has finished.
+     */
+    @Test
+    void testStartRebuild_RefusesConcurrentRebuild() throws Exception {
+        CountDownLatch resetting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            resetting.countDown();
+            release.await();
+            return null;
+        }).when(salesRollupRepository).reset();
+        when(salesRollupRepository.findLineIdRange()).thenReturn(Optional.empty());
+        salesRollupWriter.start();
+
+        assertTrue(salesRollupWriter.startRebuild());
+        assertTrue(resetting.await(5, TimeUnit.SECONDS));
+        assertFalse(salesRollupWriter.startRebuild());
+        assertTrue(salesRollupWriter.isRebuilding());
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (salesRollupWriter.isRebuilding() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(salesRollupWriter.isRebuilding());
+        assertTrue(salesRollupWriter.startRebuild());
+    }
+}
@@ -0,0 +1,196 @@
+package com.e_commerce_product_catalog_api.benchmark;
+
+import com.e_commerce_product_catalog_api.config.JwtAuthenticationFilter;
+import com.e_commerce_product_catalog_api.jwt.JwtTokenUtil;
+import com.e_commerce_product_catalog_api.jwt.SessionRevocationList;
+import com.e_commerce_product_catalog_api.jwt.VerifiedTokenCache;
+import com.e_commerce_product_catalog_api.service.CustomUserDetailsService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JwtAuthenticationFilter} with the filter it replaced, which verified the token twice with a new
+ * parser each time and loaded the user and roles on every request. The user is read from an in-memory H2 database
+ * here, so the old filter's cost is understated against a database across the network. {@code claimsFilter} empties
+ * its token cache before each request, so every request verifies the token; {@code cachedClaimsFilter} is the filter as
+ * deployed, serving the repeated token from the {@link VerifiedTokenCache}.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.e_commerce_product_catalog_api.benchmark.JwtAuthenticationFilterBenchmark}, or from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private HikariDataSource dataSource;
+    private OncePerRequestFilter claimsFilter;
+    private OncePerRequestFilter cachedClaimsFilter;
+    private VerifiedTokenCache emptiedTokenCache;
+    private OncePerRequestFilter lookupFilter;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(255), password VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE user_roles (user_id BIGINT, roles VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO users VALUES (1, 'admin', '{noop}admin123')");
+        jdbcTemplate.update("INSERT INTO user_roles VALUES (1, 'ROLE_ADMIN'), (1, 'ROLE_USER')");
+
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(SECRET, Duration.ofMinutes(15));
+        token = jwtTokenUtil.generateToken("admin", Set.of("ROLE_ADMIN", "ROLE_USER"), UUID.randomUUID().toString());
+        // Nothing revoked: every request pays for the Bloom filter probe
+        SessionRevocationList revocations = new SessionRevocationList(null, new SimpleMeterRegistry(), Duration.ofMinutes(15),
+                Duration.ofSeconds(10), 100000);
+        CustomUserDetailsService unused = new CustomUserDetailsService(null, new SimpleMeterRegistry(), 0, Duration.ZERO);
+        emptiedTokenCache = new VerifiedTokenCache(new SimpleMeterRegistry(), 1000);
+        claimsFilter = new JwtAuthenticationFilter(jwtTokenUtil, unused, emptiedTokenCache, revocations);
+        cachedClaimsFilter = new JwtAuthenticationFilter(jwtTokenUtil, unused,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), 1000), revocations);
+        lookupFilter = new LookupJwtAuthenticationFilter(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)),
+                username -> loadUser(jdbcTemplate, username));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Object claimsFilter() throws ServletException, IOException {
+        emptiedTokenCache.invalidateAll();
+        return authenticate(claimsFilter);
+    }
+
+    @Benchmark
+    public Object cachedClaimsFilter() throws ServletException, IOException {
+        return authenticate(cachedClaimsFilter);
+    }
+
+    @Benchmark
+    public Object lookupFilter() throws ServletException, IOException {
+        return authenticate(lookupFilter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthenticationFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private Object authenticate(OncePerRequestFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        }
+        finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // The same two queries the User entity's eager roles collection costs
+    private static UserDetails loadUser(JdbcTemplate jdbcTemplate, String username) {
+        return jdbcTemplate.queryForObject("SELECT id, username, password FROM users WHERE username = ?", (row, rowNum) -> {
+            List<String> roles = jdbcTemplate.queryForList("SELECT roles FROM user_roles WHERE user_id = ?", String.class,
+                    row.getLong("id"));
+            return User.withUsername(row.getString("username"))
+                    .password(row.getString("password"))
+                    .authorities(roles.toArray(new String[0]))
+                    .build();
+        }, username);
+    }
+
+    /**
+     * The filter as it was: the subject is read with one parser, the user loaded, then the token verified again
+     * with another.
+     */
+    private static final class LookupJwtAuthenticationFilter extends OncePerRequestFilter {
+
+        private final Key key;
+        private final UserDetailsService userDetailsService;
+
+        private LookupJwtAuthenticationFilter(Key key, UserDetailsService userDetailsService) {
+            this.key = key;
+            this.userDetailsService = userDetailsService;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String jwtToken = request.getHeader("Authorization").substring(7);
+            Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwtToken).getBody();
+            String username = claims.getSubject();
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (validate(jwtToken)) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private boolean validate(String jwtToken) {
+            try {
+                Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwtToken);
+                return true;
+            }
+            catch (JwtException | IllegalArgumentException e) {
+                return false;
+            }
+        }
+    }
+}
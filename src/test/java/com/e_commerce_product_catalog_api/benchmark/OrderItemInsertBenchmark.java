@@ -0,0 +1,200 @@
+package com.e_commerce_product_catalog_api.benchmark;
+
+import com.e_commerce_product_catalog_api.entity.Order;
+import com.e_commerce_product_catalog_api.entity.OrderItem;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Inserts 100k order lines through Hibernate, as {@link OrderItem} is mapped now, on a sequence read with the
+ * pooled-lo optimizer, and as it was mapped before, on an identity column. Both persistence units use the
+ * batching settings of {@code JpaConfig} and flush every batch; with the identity column Hibernate still has to send
+ * each insert on its own to read the generated key back. The database is an in-memory H2 here, so the identity
+ * mapping's cost is understated against a database across the network, where every one of those inserts is also a
+ * round trip.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.e_commerce_product_catalog_api.benchmark.OrderItemInsertBenchmark}, or from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrderItemInsertBenchmark {
+
+    private static final int LINES = 100_000;
+    private static final int BATCH_SIZE = 50;
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private LocalContainerEntityManagerFactoryBean sequenceUnit;
+    private LocalContainerEntityManagerFactoryBean identityUnit;
+    private EntityManager sequenceEntityManager;
+    private EntityManager identityEntityManager;
+    private TransactionTemplate sequenceTransactions;
+    private TransactionTemplate identityTransactions;
+    private long orderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        sequenceUnit = persistenceUnit("sequence", unit -> unit.setPackagesToScan("com.e_commerce_product_catalog_api.entity"));
+        EntityManagerFactory sequenceFactory = sequenceUnit.getObject();
+        sequenceEntityManager = SharedEntityManagerCreator.createSharedEntityManager(sequenceFactory);
+        sequenceTransactions = new TransactionTemplate(new JpaTransactionManager(sequenceFactory));
+
+        identityUnit = persistenceUnit("identity",
+                unit -> unit.setManagedTypes(PersistenceManagedTypes.of(IdentityOrderItem.class.getName())));
+        EntityManagerFactory identityFactory = identityUnit.getObject();
+        identityEntityManager = SharedEntityManagerCreator.createSharedEntityManager(identityFactory);
+        identityTransactions = new TransactionTemplate(new JpaTransactionManager(identityFactory));
+
+        orderId = sequenceTransactions.execute(status -> {
+            Order order = new Order();
+            order.setOrderDate(ORDER_DATE);
+            sequenceEntityManager.persist(order);
+            return order.getId();
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        jdbcTemplate.execute("DELETE FROM order_items");
+        jdbcTemplate.execute("DELETE FROM identity_order_items");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        identityUnit.destroy();
+        sequenceUnit.destroy();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public long sequenceIds() {
+        return sequenceTransactions.execute(status -> {
+            Order order = sequenceEntityManager.getReference(Order.class, orderId);
+            long lastId = 0;
+            for (int i = 0; i < LINES; i++) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setOrderDate(ORDER_DATE);
+                item.setQuantity(1);
+                sequenceEntityManager.persist(item);
+                lastId = item.getId();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    sequenceEntityManager.flush();
+                    sequenceEntityManager.clear();
+                    order = sequenceEntityManager.getReference(Order.class, orderId);
+                }
+            }
+            return lastId;
+        });
+    }
+
+    @Benchmark
+    public long identityIds() {
+        return identityTransactions.execute(status -> {
+            long lastId = 0;
+            for (int i = 0; i < LINES; i++) {
+                IdentityOrderItem item = new IdentityOrderItem();
+                item.orderId = orderId;
+                item.orderDate = ORDER_DATE;
+                item.quantity = 1;
+                identityEntityManager.persist(item);
+                lastId = item.id;
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    identityEntityManager.flush();
+                    identityEntityManager.clear();
+                }
+            }
+            return lastId;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderItemInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // The settings JpaConfig applies, with the schema generated for the given entities
+    private LocalContainerEntityManagerFactoryBean persistenceUnit(String name, Consumer<LocalContainerEntityManagerFactoryBean> entities) {
+        LocalContainerEntityManagerFactoryBean unit = new LocalContainerEntityManagerFactoryBean();
+        unit.setPersistenceUnitName(name);
+        unit.setDataSource(dataSource);
+        entities.accept(unit);
+        unit.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        properties.put("hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+        properties.put("hibernate.jdbc.batch_size", BATCH_SIZE);
+        properties.put("hibernate.order_updates", true);
+        properties.put("hibernate.order_inserts", true);
+        properties.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        unit.setJpaPropertyMap(properties);
+        unit.afterPropertiesSet();
+        return unit;
+    }
+
+    /**
+     * An order line as it was mapped before, on an identity column; the other columns are left out since the
+     * benchmark does not set them.
+     */
+    @Entity
+    @Table(name = "identity_order_items")
+    public static class IdentityOrderItem {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(nullable = false)
+        private Long orderId;
+
+        private LocalDateTime orderDate;
+
+        @Column(nullable = false)
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,150 @@
+package com.e_commerce_product_catalog_api.benchmark;
+
+import com.e_commerce_product_catalog_api.repository.IdSequences;
+import com.e_commerce_product_catalog_api.repository.OrderPartitionRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a read of one month of orders with their lines, bounded by order date as the order pages are, against
+ * tables holding one month up to five years of history. The latency should stay flat as history grows.
+ * <p>
+ * By default the tables live in an in-memory H2, which has no partitioning; there the bound is served by the order
+ * date index. Pass {@code -Dbenchmark.jdbc-url}, {@code -Dbenchmark.username} and {@code -Dbenchmark.password} to
+ * run against an empty PostgreSQL database instead, where the tables are partitioned by month through
+ * {@link OrderPartitionRepository} and the read is pruned to the month it covers.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.e_commerce_product_catalog_api.benchmark.OrderRangeQueryBenchmark}, or from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderRangeQueryBenchmark {
+
+    private static final YearMonth LAST_MONTH = YearMonth.of(2025, 12);
+    private static final int ORDERS_PER_MONTH = 2_000;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    private static final String RANGE_SQL = """
+            SELECT o.id, o.order_date, i.id, i.product_id, i.quantity, i.unit_price
+            FROM orders o JOIN order_items i ON i.order_id = o.id AND i.order_date = o.order_date
+            WHERE o.order_date >= ? AND o.order_date < ? AND i.order_date >= ? AND i.order_date < ?
+            """;
+
+    @Param({"1", "12", "60"})
+    public int months;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private Timestamp from;
+    private Timestamp to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("benchmark.jdbc-url");
+        boolean postgres = url != null;
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres ? url : "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername(System.getProperty("benchmark.username"));
+        dataSource.setPassword(System.getProperty("benchmark.password"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_items");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS orders");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + IdSequences.ORDERS);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + IdSequences.ORDER_ITEMS);
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, order_date TIMESTAMP(6) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE order_items (id BIGINT PRIMARY KEY, order_id BIGINT NOT NULL REFERENCES orders, "
+                + "product_id BIGINT REFERENCES products, quantity INTEGER NOT NULL, stock_pending BOOLEAN NOT NULL DEFAULT FALSE, "
+                + "unit_price NUMERIC(38,2), rolled_up BOOLEAN NOT NULL DEFAULT FALSE, order_date TIMESTAMP(6) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO products (id, name) VALUES (1, 'Phone')");
+        YearMonth first = LAST_MONTH.minusMonths(months - 1L);
+        fill(first);
+
+        if (postgres) {
+            OrderPartitionRepository orderPartitionRepository = new OrderPartitionRepository();
+            ReflectionTestUtils.setField(orderPartitionRepository, "jdbcTemplate", jdbcTemplate);
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                    .executeWithoutResult(status -> orderPartitionRepository.partition(first, LAST_MONTH));
+            jdbcTemplate.execute("ANALYZE orders");
+            jdbcTemplate.execute("ANALYZE order_items");
+        }
+        else {
+            jdbcTemplate.execute("CREATE INDEX idx_orders_order_date ON orders (order_date)");
+            jdbcTemplate.execute("CREATE INDEX idx_order_items_order_id ON order_items (order_id)");
+        }
+        from = Timestamp.valueOf(LAST_MONTH.atDay(1).atStartOfDay());
+        to = Timestamp.valueOf(LAST_MONTH.plusMonths(1).atDay(1).atStartOfDay());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> lastMonth() {
+        return jdbcTemplate.queryForList(RANGE_SQL, from, to, from, to);
+    }
+
+    // The same number of orders in every month, spread over its days
+    private void fill(YearMonth first) {
+        long orderId = 0;
+        long itemId = 0;
+        for (YearMonth month = first; !month.isAfter(LAST_MONTH); month = month.plusMonths(1)) {
+            List<Object[]> orders = new ArrayList<>(ORDERS_PER_MONTH);
+            List<Object[]> items = new ArrayList<>(ORDERS_PER_MONTH * ITEMS_PER_ORDER);
+            for (int i = 0; i < ORDERS_PER_MONTH; i++) {
+                LocalDateTime orderDate = month.atDay(1 + i % month.lengthOfMonth()).atTime(i % 24, i % 60);
+                Timestamp timestamp = Timestamp.valueOf(orderDate);
+                orders.add(new Object[] {++orderId, timestamp});
+                for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                    items.add(new Object[] {++itemId, orderId, 1L, 1 + j, "10.00", timestamp});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO orders (id, order_date) VALUES (?, ?)", orders);
+            jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, order_date) "
+                    + "VALUES (?, ?, ?, ?, CAST(? AS NUMERIC(38,2)), ?)", items);
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + IdSequences.ORDERS + " RESTART WITH " + (orderId + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE " + IdSequences.ORDER_ITEMS + " RESTART WITH " + (itemId + 1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderRangeQueryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.e_commerce_product_catalog_api.benchmark;
+
+import com.e_commerce_product_catalog_api.repository.ProductStockRepositoryImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the conditional stock decrement of {@link ProductStockRepositoryImpl} with the locked read-modify-write
+ * it replaced, with every thread buying the same product. The stock is refilled before each iteration so that no
+ * attempt runs out. The database is an in-memory H2 here, so the cost of holding the row lock across a round trip
+ * is understated against a database across the network.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.e_commerce_product_catalog_api.benchmark.StockDecrementBenchmark}, or from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class StockDecrementBenchmark {
+
+    private static final int STOCK = Integer.MAX_VALUE;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ProductStockRepositoryImpl productStockRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(16);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, stock INT NOT NULL, "
+                + "version BIGINT NOT NULL, updated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO products (id, name, stock, version) VALUES (1, 'Phone', ?, 0)", STOCK);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        productStockRepository = new ProductStockRepositoryImpl(jdbcTemplate);
+    }
+
+    @Setup(Level.Iteration)
+    public void refill() {
+        jdbcTemplate.update("UPDATE products SET stock = ? WHERE id = 1", STOCK);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<Long> conditionalUpdate() {
+        return productStockRepository.decrementStock(new TreeMap<>(Map.of(1L, 1)));
+    }
+
+    @Benchmark
+    public Boolean lockedReadModifyWrite() {
+        return transactionTemplate.execute(status -> {
+            int stock = jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = 1 FOR UPDATE", Integer.class);
+            if (stock < 1) {
+                return false;
+            }
+            jdbcTemplate.update("UPDATE products SET stock = ?, version = version + 1 WHERE id = 1", stock - 1);
+            return true;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StockDecrementBenchmark.class.getSimpleName()).build()).run();
+    }
+}
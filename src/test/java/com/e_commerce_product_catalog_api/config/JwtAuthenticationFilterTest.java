@@ -0,0 +1,177 @@
+package com.e_commerce_product_catalog_api.config;
+
+import com.e_commerce_product_catalog_api.jwt.JwtTokenUtil;
+import com.e_commerce_product_catalog_api.jwt.SessionRevocationList;
+import com.e_commerce_product_catalog_api.jwt.VerifiedTokenCache;
+import com.e_commerce_product_catalog_api.service.CustomUserDetailsService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private SessionRevocationList sessionRevocationList;
+
+    private JwtTokenUtil jwtTokenUtil;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = spy(new JwtTokenUtil(SECRET, Duration.ofMinutes(15)));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(jwtTokenUtil, userDetailsService, new VerifiedTokenCache(meterRegistry, 100),
+                sessionRevocationList);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Test: Token carrying roles
+     *
+     * Ensures that the principal and authorities are taken from the token's claims without loading the user.
+     */
+    @Test
+    void testDoFilter_RolesFromClaims() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request(jwtTokenUtil.generateToken("admin", Set.of("ROLE_ADMIN"), "session-1")), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("admin", authentication.getName());
+        assertEquals(List.of("ROLE_ADMIN"), AuthorityUtils.authorityListToSet(authentication.getAuthorities()).stream().toList());
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    /**
+     * Test: Token sent again
+     *
+     * Ensures that a repeat of a verified token is authenticated from the cache without parsing it again.
+     */
+    @Test
+    void testDoFilter_RepeatFromCache() throws Exception {
+        String token = jwtTokenUtil.generateToken("admin", Set.of("ROLE_ADMIN"), "session-1");
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("admin", authentication.getName());
+        assertEquals(Set.of("ROLE_ADMIN"), AuthorityUtils.authorityListToSet(authentication.getAuthorities()));
+        verify(jwtTokenUtil, times(1)).parseToken(token);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", VerifiedTokenCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    /**
+     * Test: Token of an ended session
+     *
+     * Ensures that a token whose session has been revoked is turned away, including when it was cached before.
+     */
+    @Test
+    void testDoFilter_RevokedSession() throws Exception {
+        String token = jwtTokenUtil.generateToken("admin", Set.of("ROLE_ADMIN"), "session-1");
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+        when(sessionRevocationList.isRevoked("session-1")).thenReturn(true);
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(token), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        verify(jwtTokenUtil, times(1)).parseToken(token);
+    }
+
+    /**
+     * Test: Token issued before roles were embedded
+     *
+     * Ensures that a token without a roles claim is still accepted, with the roles loaded from the user.
+     */
+    @Test
+    void testDoFilter_LegacyToken() throws Exception {
+        String legacyToken = Jwts.builder()
+                .setSubject("user")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+        when(userDetailsService.loadUserByUsername("user"))
+                .thenReturn(User.withUsername("user").password("secret").authorities("ROLE_USER").build());
+
+        filter.doFilter(request(legacyToken), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(Set.of("ROLE_USER"), AuthorityUtils.authorityListToSet(authentication.getAuthorities()));
+        verify(userDetailsService, times(1)).loadUserByUsername("user");
+    }
+
+    /**
+     * Test: Invalid token
+     *
+     * Ensures that a tampered or expired token leaves the request unauthenticated and still passes it on.
+     */
+    @Test
+    void testDoFilter_InvalidToken() throws Exception {
+        String expired = Jwts.builder()
+                .setSubject("admin")
+                .setExpiration(new Date(System.currentTimeMillis() - 60000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+        String tampered = jwtTokenUtil.generateToken("admin", Set.of("ROLE_ADMIN"), "session-1") + "x";
+
+        for (String token : List.of(expired, tampered, "not-a-token")) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request(token), new MockHttpServletResponse(), chain);
+
+            assertNull(SecurityContextHolder.getContext().getAuthentication());
+            assertNotNull(chain.getRequest());
+        }
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,207 @@
+package com.e_commerce_product_catalog_api.idempotency;
+
+import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+import com.e_commerce_product_catalog_api.entity.IdempotencyRecord;
+import com.e_commerce_product_catalog_api.exception.BadRequestException;
+import com.e_commerce_product_catalog_api.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private ObjectMapper objectMapper;
+    private IdempotencyService idempotencyService;
+    private OrderDTO orderDTO;
+
+    /**
+     * Sets up the service with an empty key table and a sample order.
+     */
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, objectMapper, Duration.ofMinutes(10),
+                Duration.ofHours(24));
+        orderDTO = new OrderDTO();
+        orderDTO.setOrderDate(LocalDateTime.of(2025, 1, 24, 10, 0));
+        orderDTO.setOrderItems(List.of());
+    }
+
+    /**
+     * Test: Repeat while in flight
+     *
+     * Ensures that a repeat arriving while the first attempt runs shares its outcome instead of placing the order
+     * again.
+     */
+    @Test
+    void testExecute_RepeatWhileInFlight() throws Exception {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        CompletableFuture<OrderDTO> placement = new CompletableFuture<>();
+        AtomicInteger placements = new AtomicInteger();
+
+        CompletableFuture<OrderDTO> first = idempotencyService.execute("key-1", orderDTO, recorder -> {
+            placements.incrementAndGet();
+            return placement;
+        });
+        CompletableFuture<OrderDTO> repeat = idempotencyService.execute("key-1", copy(orderDTO), recorder -> {
+            placements.incrementAndGet();
+            return placement;
+        });
+
+        assertFalse(repeat.isDone());
+        placement.complete(orderDTO);
+        assertSame(orderDTO, first.get());
+        assertSame(orderDTO, repeat.get());
+        assertEquals(1, placements.get());
+        verify(idempotencyRecordRepository, times(1)).findById("key-1");
+    }
+
+    /**
+     * Test: Key reused for another order
+     *
+     * Ensures that a key already used for a different request body is rejected.
+     */
+    @Test
+    void testExecute_DifferentRequest() {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        idempotencyService.execute("key-1", orderDTO, recorder -> new CompletableFuture<>());
+        OrderDTO other = copy(orderDTO);
+        other.setOrderDate(orderDTO.getOrderDate().plusDays(1));
+
+        Exception exception = assertThrows(BadRequestException.class,
+                () -> idempotencyService.execute("key-1", other, recorder -> fail("must not place the order")));
+
+        assertEquals("Idempotency-Key was already used for a different request", exception.getMessage());
+    }
+
+    /**
+     * Test: Repeat after commit
+     *
+     * Ensures that a key found in the table is answered with the stored response without placing the order.
+     */
+    @Test
+    void testExecute_StoredKey() throws Exception {
+        OrderDTO stored = copy(orderDTO);
+        stored.setId(42L);
+        CompletableFuture<String> fingerprint = new CompletableFuture<>();
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        doAnswer(invocation -> fingerprint.complete(invocation.getArgument(1)))
+                .when(idempotencyRecordRepository).insert(eq("key-1"), anyString(), anyString(), any(Instant.class));
+        idempotencyService.execute("key-1", orderDTO, recorder -> {
+            recorder.accept(stored);
+            return new CompletableFuture<>();
+        });
+
+        IdempotencyService restarted = new IdempotencyService(idempotencyRecordRepository, objectMapper,
+                Duration.ofMinutes(10), Duration.ofHours(24));
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(new IdempotencyRecord("key-1",
+                fingerprint.get(), objectMapper.writeValueAsString(stored), Instant.now())));
+
+        OrderDTO result = restarted.execute("key-1", copy(orderDTO), recorder -> fail("must not place the order")).get();
+
+        assertEquals(42L, result.getId());
+    }
+
+    /**
+     * Test: Repeat after a failure
+     *
+     * Ensures that a failed attempt is forgotten, so a retry with the same key places the order.
+     */
+    @Test
+    void testExecute_RetryAfterFailure() throws Exception {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        CompletableFuture<OrderDTO> failed = idempotencyService.execute("key-1", orderDTO,
+                recorder -> CompletableFuture.failedFuture(new IllegalArgumentException("Insufficient stock for product ID: 1")));
+        assertTrue(failed.isCompletedExceptionally());
+
+        OrderDTO result = idempotencyService.execute("key-1", orderDTO,
+                recorder -> CompletableFuture.completedFuture(orderDTO)).get();
+
+        assertSame(orderDTO, result);
+    }
+
+    /**
+     * Test: Forget a key
+     *
+     * Ensures that a key answered with an order that was then rejected is forgotten, so a retry places the order,
+     * while forgetting it for another order leaves the answer in place.
+     */
+    @Test
+    void testForget() throws Exception {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        OrderDTO accepted = copy(orderDTO);
+        accepted.setId(7L);
+        idempotencyService.execute("key-1", orderDTO, recorder -> CompletableFuture.completedFuture(accepted));
+
+        idempotencyService.forget("key-1", 8L);
+        assertSame(accepted, idempotencyService.execute("key-1", orderDTO, recorder -> fail("placed twice")).get());
+
+        idempotencyService.forget("key-1", 7L);
+        OrderDTO retried = copy(orderDTO);
+        retried.setId(9L);
+        assertSame(retried, idempotencyService.execute("key-1", orderDTO,
+                recorder -> CompletableFuture.completedFuture(retried)).get());
+    }
+
+    /**
+     * Test: Invalid key
+     *
+     * Ensures that blank and overlong keys are rejected before anything runs.
+     */
+    @Test
+    void testExecute_InvalidKey() {
+        assertThrows(BadRequestException.class, () -> idempotencyService.execute(" ", orderDTO, recorder -> null));
+        assertThrows(BadRequestException.class, () -> idempotencyService.execute("k".repeat(256), orderDTO, recorder -> null));
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    /**
+     * Test: Registry expiry
+     *
+     * Ensures that succeeded keys are forgotten once their TTL passes, while keys still in flight are kept.
+     */
+    @Test
+    void testRegistry_Expiry() {
+        AtomicLong clock = new AtomicLong();
+        IdempotencyRegistry registry = new IdempotencyRegistry(4, Duration.ofSeconds(10), clock::get);
+        IdempotencyRegistry.Claim done = registry.claim("done", "a");
+        registry.claim("in-flight", "b");
+        registry.succeeded("done", done.entry());
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertFalse(registry.claim("done", "a").owner());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(registry.claim("done", "a").owner());
+        assertFalse(registry.claim("in-flight", "b").owner());
+    }
+
+    private static OrderDTO copy(OrderDTO orderDTO) {
+        OrderDTO copy = new OrderDTO();
+        copy.setOrderDate(orderDTO.getOrderDate());
+        copy.setOrderItems(orderDTO.getOrderItems());
+        return copy;
+    }
+}
@@ -0,0 +1,151 @@
+package com.e_commerce_product_catalog_api.jwt;
+
+import com.e_commerce_product_catalog_api.entity.RevokedSession;
+import com.e_commerce_product_catalog_api.repository.RevokedSessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionRevocationListTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-24T10:00:00Z");
+
+    @Mock
+    private RevokedSessionRepository revokedSessionRepository;
+
+    private SessionRevocationList sessionRevocationList;
+
+    @BeforeEach
+    void setUp() {
+        sessionRevocationList = revocationList(NOW);
+    }
+
+    /**
+     * Test: Revoke a session
+     *
+     * Ensures that a revoked session is listed at once and stored until its last access token expires.
+     */
+    @Test
+    void testRevoke() {
+        sessionRevocationList.revoke("session-1");
+
+        assertTrue(sessionRevocationList.isRevoked("session-1"));
+        assertFalse(sessionRevocationList.isRevoked("session-2"));
+        assertFalse(sessionRevocationList.isRevoked(null));
+        ArgumentCaptor<RevokedSession> stored = ArgumentCaptor.forClass(RevokedSession.class);
+        verify(revokedSessionRepository).save(stored.capture());
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), stored.getValue().getExpiresAt());
+    }
+
+    /**
+     * Test: Revoke inside a transaction
+     *
+     * Ensures that a session revoked in a transaction is listed only once it commits, and never when it rolls back.
+     */
+    @Test
+    void testRevoke_AfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sessionRevocationList.revoke("session-1");
+            assertFalse(sessionRevocationList.isRevoked("session-1"));
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+            assertFalse(sessionRevocationList.isRevoked("session-1"));
+
+            sessionRevocationList.revoke("session-2");
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+            assertTrue(sessionRevocationList.isRevoked("session-2"));
+        }
+        finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test: Rebuild at startup
+     *
+     * Ensures that sessions revoked before a restart, by this instance or another, are listed again.
+     */
+    @Test
+    void testRefresh_LoadsStoredRevocations() {
+        when(revokedSessionRepository.findRevokedSince(Instant.EPOCH, NOW)).thenReturn(List.of(
+                new RevokedSession("session-1", NOW.minusSeconds(60), NOW.plusSeconds(60))));
+
+        sessionRevocationList.refresh();
+
+        assertTrue(sessionRevocationList.isRevoked("session-1"));
+        verify(revokedSessionRepository, times(1)).deleteByExpiresAtBefore(NOW);
+    }
+
+    /**
+     * Test: Prune expired sessions
+     *
+     * Ensures that a session is dropped once its access tokens have expired, while later ones stay listed.
+     */
+    @Test
+    void testRefresh_PrunesExpired() {
+        SessionRevocationList later = revocationList(NOW.plus(Duration.ofMinutes(16)));
+        when(revokedSessionRepository.findRevokedSince(any(Instant.class), any(Instant.class))).thenReturn(List.of(
+                new RevokedSession("session-1", NOW, NOW.plus(Duration.ofMinutes(15))),
+                new RevokedSession("session-2", NOW.plus(Duration.ofMinutes(10)), NOW.plus(Duration.ofMinutes(25)))));
+
+        later.refresh();
+
+        assertFalse(later.isRevoked("session-1"));
+        assertTrue(later.isRevoked("session-2"));
+    }
+
+    /**
+     * Test: Bloom filter
+     *
+     * Ensures that every added id is reported and that ids never added are rarely mistaken for one.
+     */
+    @Test
+    void testBloomFilter() {
+        SessionBloomFilter filter = new SessionBloomFilter(1000, 0.01);
+        List<String> added = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+        added.forEach(filter::add);
+
+        assertTrue(added.stream().allMatch(filter::mightContain));
+        long falsePositives = IntStream.range(0, 10000)
+                .filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private SessionRevocationList revocationList(Instant now) {
+        return new SessionRevocationList(revokedSessionRepository, new SimpleMeterRegistry(), Duration.ofMinutes(15),
+                Duration.ofSeconds(10), 1000, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    // Ends the pretend transaction with the given outcome and starts a fresh one
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.e_commerce_product_catalog_api.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VerifiedTokenCacheTest {
+
+    private AtomicLong clock;
+    private VerifiedTokenCache verifiedTokenCache;
+    private VerifiedToken admin;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000);
+        verifiedTokenCache = new VerifiedTokenCache(new SimpleMeterRegistry(), 100, clock::get);
+        UserDetails user = User.withUsername("admin").password("").authorities("ROLE_ADMIN").build();
+        admin = new VerifiedToken(user, "session-1", clock.get() + 60_000);
+    }
+
+    /**
+     * Test: Entry expiry
+     *
+     * Ensures that a token is served until its own expiry and never after it.
+     */
+    @Test
+    void testGet_ExpiresWithToken() {
+        verifiedTokenCache.put("token-1", admin);
+
+        clock.addAndGet(59_999);
+        assertSame(admin, verifiedTokenCache.get("token-1"));
+
+        clock.addAndGet(1);
+        assertNull(verifiedTokenCache.get("token-1"));
+    }
+
+    /**
+     * Test: Token already expired
+     *
+     * Ensures that a token whose expiry has passed is not cached at all.
+     */
+    @Test
+    void testPut_AlreadyExpired() {
+        verifiedTokenCache.put("token-1", new VerifiedToken(admin.user(), "session-1", clock.get()));
+
+        assertNull(verifiedTokenCache.get("token-1"));
+    }
+
+    /**
+     * Test: Invalidate a token
+     *
+     * Ensures that an invalidated token has to be verified again, while other tokens stay cached.
+     */
+    @Test
+    void testInvalidate() {
+        verifiedTokenCache.put("token-1", admin);
+        verifiedTokenCache.put("token-2", admin);
+
+        verifiedTokenCache.invalidate("token-1");
+
+        assertNull(verifiedTokenCache.get("token-1"));
+        assertSame(admin, verifiedTokenCache.get("token-2"));
+    }
+}
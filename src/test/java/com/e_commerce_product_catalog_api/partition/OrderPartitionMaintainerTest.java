@@ -0,0 +1,88 @@
+package com.e_commerce_product_catalog_api.partition;
+
+import com.e_commerce_product_catalog_api.repository.OrderPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderPartitionMaintainerTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2026, 10);
+
+    @Mock
+    private OrderPartitionRepository orderPartitionRepository;
+
+    private OrderPartitionMaintainer orderPartitionMaintainer;
+
+    /**
+     * Sets up a maintainer keeping two months of partitions ahead.
+     */
+    @BeforeEach
+    void setUp() {
+        orderPartitionMaintainer = new OrderPartitionMaintainer(orderPartitionRepository, true, 2, Duration.ofHours(6));
+    }
+
+    /**
+     * Test: Maintain partitioned tables
+     *
+     * Ensures that the current month and the months ahead get their partitions.
+     */
+    @Test
+    void testMaintain_CreatesMonthsAhead() {
+        when(orderPartitionRepository.isPartitioned()).thenReturn(true);
+
+        orderPartitionMaintainer.maintain(CURRENT);
+
+        verify(orderPartitionRepository).createMonth(YearMonth.of(2026, 10));
+        verify(orderPartitionRepository).createMonth(YearMonth.of(2026, 11));
+        verify(orderPartitionRepository).createMonth(YearMonth.of(2026, 12));
+        verify(orderPartitionRepository, times(3)).createMonth(any());
+        verify(orderPartitionRepository, never()).partition(any(), any());
+    }
+
+    /**
+     * Test: Maintain tables not yet partitioned
+     *
+     * Ensures that the tables are first partitioned with a month for every month of order history up to the
+     * months ahead.
+     */
+    @Test
+    void testMaintain_PartitionsExistingHistory() {
+        when(orderPartitionRepository.isPartitioned()).thenReturn(false);
+        when(orderPartitionRepository.findFirstOrderDate()).thenReturn(Optional.of(LocalDateTime.of(2025, 3, 14, 9, 30)));
+        when(orderPartitionRepository.partition(YearMonth.of(2025, 3), YearMonth.of(2026, 12))).thenReturn(true);
+
+        orderPartitionMaintainer.maintain(CURRENT);
+
+        InOrder inOrder = inOrder(orderPartitionRepository);
+        inOrder.verify(orderPartitionRepository).partition(YearMonth.of(2025, 3), YearMonth.of(2026, 12));
+        inOrder.verify(orderPartitionRepository).createMonth(CURRENT);
+    }
+
+    /**
+     * Test: Maintain empty tables not yet partitioned
+     *
+     * Ensures that tables without orders are partitioned from the current month.
+     */
+    @Test
+    void testMaintain_PartitionsEmptyTables() {
+        when(orderPartitionRepository.isPartitioned()).thenReturn(false);
+        when(orderPartitionRepository.findFirstOrderDate()).thenReturn(Optional.empty());
+
+        orderPartitionMaintainer.maintain(CURRENT);
+
+        verify(orderPartitionRepository).partition(CURRENT, YearMonth.of(2026, 12));
+    }
+}
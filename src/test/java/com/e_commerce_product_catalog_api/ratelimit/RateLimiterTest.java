@@ -0,0 +1,151 @@
+package com.e_commerce_product_catalog_api.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    /**
+     * Sets up a limiter allowing each user 2 searches a second with a burst of 3, and each address 10 with a burst
+     * of 5.
+     */
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("catalog.rate-limit.search.user-rate", "2")
+                .withProperty("catalog.rate-limit.search.user-burst", "3")
+                .withProperty("catalog.rate-limit.search.ip-rate", "10")
+                .withProperty("catalog.rate-limit.search.ip-burst", "5");
+        rateLimiter = new RateLimiter(environment, meterRegistry, true, 1000, clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Test: Burst per user
+     *
+     * Ensures that a user gets the burst, is then told when to retry, and is let through again once a token has
+     * been refilled.
+     */
+    @Test
+    void testAcquire_UserBurst() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.acquire(search("10.0.0." + i), "alice"));
+        }
+
+        assertEquals(1, rateLimiter.acquire(search("10.0.0.9"), "alice"));
+        assertEquals(0, rateLimiter.acquire(search("10.0.0.9"), "bob"));
+        assertEquals(1.0, meterRegistry.get("http.rate_limit.rejected").tag("group", "search").tag("scope", "user")
+                .counter().count());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, rateLimiter.acquire(search("10.0.0.9"), "alice"));
+    }
+
+    /**
+     * Test: Burst per address
+     *
+     * Ensures that unauthenticated requests are limited by their address alone.
+     */
+    @Test
+    void testAcquire_IpBurst() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.acquire(search("10.0.0.1"), null));
+        }
+
+        assertEquals(1, rateLimiter.acquire(search("10.0.0.1"), null));
+        assertEquals(0, rateLimiter.acquire(search("10.0.0.2"), null));
+    }
+
+    /**
+     * Test: Unlimited routes
+     *
+     * Ensures that routes outside every group, and the same path with another method, are never limited.
+     */
+    @Test
+    void testAcquire_UnlimitedRoutes() {
+        for (int i = 0; i < 100; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+            request.setRemoteAddr("10.0.0.1");
+            assertEquals(0, rateLimiter.acquire(request, "alice"));
+            MockHttpServletRequest listOrders = new MockHttpServletRequest("GET", "/api/v1/orders");
+            listOrders.setRemoteAddr("10.0.0.1");
+            assertEquals(0, rateLimiter.acquire(listOrders, "alice"));
+        }
+    }
+
+    /**
+     * Test: Filter over the limit
+     *
+     * Ensures that the filter answers a request over its limit with 429 and Retry-After without passing it on.
+     */
+    @Test
+    void testFilter_TooManyRequests() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(search("10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(search("10.0.0.1"), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+
+    /**
+     * Test: Key churn
+     *
+     * Ensures that buckets stay within their cap however many callers pass through, and that buckets which have
+     * refilled are dropped.
+     */
+    @Test
+    void testBuckets_BoundedUnderChurn() {
+        TokenBuckets buckets = new TokenBuckets(4, 100, clock::get);
+        TokenBuckets.Limit limit = TokenBuckets.Limit.of(10, 5);
+        for (int i = 0; i < 10_000; i++) {
+            buckets.tryTake("caller-" + i, limit);
+        }
+        assertTrue(buckets.size() <= 100);
+
+        TokenBuckets oneStripe = new TokenBuckets(1, 100, clock::get);
+        oneStripe.tryTake("caller-1", limit);
+        oneStripe.tryTake("caller-2", limit);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        oneStripe.tryTake("caller-3", limit);
+        assertEquals(1, oneStripe.size());
+    }
+
+    private static MockHttpServletRequest search(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/search");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,84 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdSequencesTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private IdSequences idSequences;
+
+    @BeforeEach
+    void setUp() {
+        idSequences = new IdSequences(jdbcTemplate);
+    }
+
+    /**
+     * Test: Reserve from the block in hand
+     *
+     * Ensures that ids are handed out from a fetched block until it is used up, with one query per block.
+     */
+    @Test
+    void testReserve_FromBlockInHand() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(IdSequences.ORDERS), eq(1)))
+                .thenReturn(List.of(1001L), List.of(1501L));
+
+        assertEquals(List.of(1001L), idSequences.reserve(IdSequences.ORDERS, 1));
+        assertEquals(List.of(1002L, 1003L), idSequences.reserve(IdSequences.ORDERS, 2));
+        List<Long> rest = idSequences.reserve(IdSequences.ORDERS, IdSequences.ALLOCATION_SIZE - 3);
+        assertEquals(1500L, rest.get(rest.size() - 1));
+        assertEquals(List.of(1501L), idSequences.reserve(IdSequences.ORDERS, 1));
+
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), eq(IdSequences.ORDERS), eq(1));
+    }
+
+    /**
+     * Test: Reserve across blocks
+     *
+     * Ensures that a reservation larger than a block fetches every block it needs in one query, and that blocks
+     * from other instances in between are skipped.
+     */
+    @Test
+    void testReserve_AcrossBlocks() {
+        int count = IdSequences.ALLOCATION_SIZE + 10;
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(IdSequences.ORDER_ITEMS), eq(2)))
+                .thenReturn(List.of(1L, 1001L));
+
+        List<Long> ids = idSequences.reserve(IdSequences.ORDER_ITEMS, count);
+
+        List<Long> expected = LongStream.concat(LongStream.range(1, 1 + IdSequences.ALLOCATION_SIZE), LongStream.range(1001, 1011))
+                .boxed().toList();
+        assertEquals(expected, ids);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(IdSequences.ORDER_ITEMS), eq(2));
+    }
+
+    /**
+     * Test: Reserve from separate sequences
+     *
+     * Ensures that each sequence keeps its own block.
+     */
+    @Test
+    void testReserve_SeparateSequences() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(IdSequences.ORDERS), eq(1))).thenReturn(List.of(1L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(IdSequences.PRODUCTS), eq(1))).thenReturn(List.of(501L));
+
+        assertEquals(List.of(1L, 2L), idSequences.reserve(IdSequences.ORDERS, 2));
+        assertEquals(List.of(501L), idSequences.reserve(IdSequences.PRODUCTS, 1));
+        assertEquals(List.of(3L), idSequences.reserve(IdSequences.ORDERS, 1));
+    }
+}
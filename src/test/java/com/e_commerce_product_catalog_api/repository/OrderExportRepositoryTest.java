@@ -0,0 +1,80 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.dtos.OrderExportDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderExportRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private HikariDataSource dataSource;
+    private OrderExportRepository orderExportRepository;
+
+    /**
+     * Sets up in-memory order tables holding three daily orders; the second one has no items.
+     */
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, order_date TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE order_items (id BIGINT PRIMARY KEY, order_id BIGINT NOT NULL, product_id BIGINT, "
+                + "quantity INT NOT NULL)");
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("INSERT INTO orders (id, order_date) VALUES (?, ?)", i, START.plusDays(i - 1));
+        }
+        jdbcTemplate.update("INSERT INTO order_items (id, order_id, product_id, quantity) VALUES (1, 1, 10, 2), (2, 1, 11, 1), "
+                + "(3, 3, 10, 5)");
+        orderExportRepository = new OrderExportRepository(jdbcTemplate, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    /**
+     * Test: Export all orders
+     *
+     * Ensures that every order is passed on once, oldest first, with the items of its joined rows folded back in.
+     */
+    @Test
+    void testForEachOrder() {
+        List<OrderExportDTO> orders = new ArrayList<>();
+        orderExportRepository.forEachOrder(null, null, orders::add);
+
+        assertEquals(List.of(1L, 2L, 3L), orders.stream().map(OrderExportDTO::getId).toList());
+        assertEquals(List.of(new OrderExportDTO.Item(1L, 10L, 2), new OrderExportDTO.Item(2L, 11L, 1)),
+                orders.get(0).getOrderItems());
+        assertTrue(orders.get(1).getOrderItems().isEmpty());
+        assertEquals(START.plusDays(2), orders.get(2).getOrderDate());
+    }
+
+    /**
+     * Test: Export orders since a date
+     *
+     * Ensures that only orders placed in the requested range are exported.
+     */
+    @Test
+    void testForEachOrder_Since() {
+        List<OrderExportDTO> orders = new ArrayList<>();
+        orderExportRepository.forEachOrder(START.plusDays(1), null, orders::add);
+        assertEquals(List.of(2L, 3L), orders.stream().map(OrderExportDTO::getId).toList());
+
+        orders.clear();
+        orderExportRepository.forEachOrder(START.plusDays(1), START.plusDays(2), orders::add);
+        assertEquals(List.of(2L), orders.stream().map(OrderExportDTO::getId).toList());
+    }
+}
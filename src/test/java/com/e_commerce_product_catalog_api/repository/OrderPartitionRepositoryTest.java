@@ -0,0 +1,109 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.support.PostgresDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Partitions the order tables of a real PostgreSQL, which is the only database the partitioning statements run on.
+ */
+public class OrderPartitionRepositoryTest {
+
+    private PostgresDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OrderPartitionRepository orderPartitionRepository;
+
+    /**
+     * Sets up unpartitioned order tables as the entities create them, holding two orders from January 2025.
+     */
+    @BeforeEach
+    void setUp() {
+        database = new PostgresDatabase();
+        jdbcTemplate = database.jdbcTemplate();
+        transactionTemplate = database.transactionTemplate();
+        jdbcTemplate.execute("""
+                CREATE SEQUENCE orders_seq;
+                CREATE SEQUENCE order_items_seq;
+                CREATE TABLE products (id bigint PRIMARY KEY, name varchar(255) NOT NULL);
+                CREATE TABLE orders (id bigint PRIMARY KEY, order_date timestamp(6) NOT NULL);
+                CREATE TABLE order_items (id bigint PRIMARY KEY, order_id bigint NOT NULL REFERENCES orders,
+                    product_id bigint REFERENCES products, quantity integer NOT NULL,
+                    stock_pending boolean NOT NULL DEFAULT false, unit_price numeric(38,2),
+                    rolled_up boolean NOT NULL DEFAULT false, order_date timestamp(6));
+                INSERT INTO products VALUES (1, 'Phone');
+                INSERT INTO orders VALUES (1, '2025-01-10 10:00'), (2, '2025-01-20 10:00');
+                INSERT INTO order_items (id, order_id, product_id, quantity) VALUES (1, 1, 1, 2), (2, 2, 1, 1);
+                SELECT setval('orders_seq', 2), setval('order_items_seq', 2)
+                """);
+        orderPartitionRepository = new OrderPartitionRepository();
+        ReflectionTestUtils.setField(orderPartitionRepository, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    /**
+     * Test: Partition existing tables
+     *
+     * Ensures that every order and line is kept under its id in its month's partition, lines taking their order's
+     * date, that ids continue from the sequences, and that a second run changes nothing.
+     */
+    @Test
+    void testPartition() {
+        assertFalse(orderPartitionRepository.isPartitioned());
+
+        assertEquals(true, transactionTemplate.execute(status -> orderPartitionRepository.partition(YearMonth.of(2025, 1), YearMonth.of(2025, 3))));
+
+        assertTrue(orderPartitionRepository.isPartitioned());
+        assertEquals(List.of("orders_p2025_01", "orders_p2025_01"), partitionsOf("orders"));
+        assertEquals(List.of("order_items_p2025_01", "order_items_p2025_01"), partitionsOf("order_items"));
+        assertEquals("2025-01-20 10:00:00", jdbcTemplate.queryForObject(
+                "SELECT CAST(order_date AS text) FROM order_items WHERE id = 2", String.class));
+        assertEquals(3L, jdbcTemplate.queryForObject(
+                "INSERT INTO orders (order_date) VALUES ('2025-02-01') RETURNING id", Long.class));
+        assertEquals(false, transactionTemplate.execute(status -> orderPartitionRepository.partition(YearMonth.of(2025, 1), YearMonth.of(2025, 3))));
+    }
+
+    /**
+     * Test: Create a month the default partition holds orders for
+     *
+     * Ensures that orders dated past the months created so far are taken by the default partitions, and moved with
+     * their lines into their month's partitions once it is created, which may be done again without effect.
+     */
+    @Test
+    void testCreateMonth_MovesOrdersOutOfDefault() {
+        transactionTemplate.executeWithoutResult(status -> orderPartitionRepository.partition(YearMonth.of(2025, 1), YearMonth.of(2025, 3)));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO orders (id, order_date) VALUES (10, '2025-06-15 12:00'), (11, '2025-07-01 00:00')");
+            jdbcTemplate.update("INSERT INTO order_items (id, order_id, product_id, quantity, order_date) VALUES "
+                    + "(10, 10, 1, 5, '2025-06-15 12:00'), (11, 11, 1, 1, '2025-07-01 00:00')");
+        });
+        assertEquals(List.of("orders_default", "orders_default"),
+                jdbcTemplate.queryForList("SELECT CAST(tableoid::regclass AS text) FROM orders WHERE id >= 10 ORDER BY id", String.class));
+
+        transactionTemplate.executeWithoutResult(status -> orderPartitionRepository.createMonth(YearMonth.of(2025, 6)));
+        transactionTemplate.executeWithoutResult(status -> orderPartitionRepository.createMonth(YearMonth.of(2025, 6)));
+
+        assertEquals(List.of("orders_p2025_06", "orders_default"),
+                jdbcTemplate.queryForList("SELECT CAST(tableoid::regclass AS text) FROM orders WHERE id >= 10 ORDER BY id", String.class));
+        assertEquals(List.of("order_items_p2025_06", "order_items_default"),
+                jdbcTemplate.queryForList("SELECT CAST(tableoid::regclass AS text) FROM order_items WHERE id >= 10 ORDER BY id", String.class));
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT quantity FROM order_items WHERE id = 10", Integer.class));
+    }
+
+    private List<String> partitionsOf(String table) {
+        return jdbcTemplate.queryForList("SELECT CAST(tableoid::regclass AS text) FROM " + table + " ORDER BY id", String.class);
+    }
+}
@@ -0,0 +1,146 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.Order;
+import com.e_commerce_product_catalog_api.entity.OrderItem;
+import com.e_commerce_product_catalog_api.entity.OrderKey;
+import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.support.H2JpaDatabase;
+import jakarta.persistence.EntityManager;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private H2JpaDatabase database;
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+    private OrderRepository orderRepository;
+
+    /**
+     * Sets up an in-memory schema holding six daily orders, each with two lines for products in different categories.
+     */
+    @BeforeEach
+    void setUp() {
+        database = new H2JpaDatabase(Map.of("hibernate.generate_statistics", "true"));
+        statistics = database.statistics();
+        transactionTemplate = database.transactionTemplate();
+        EntityManager entityManager = database.entityManager();
+        orderRepository = database.repository(OrderRepository.class, new OrderPageRepositoryImpl(entityManager));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Category category = new Category();
+                category.setName("Category " + i);
+                entityManager.persist(category);
+                Product product = new Product();
+                product.setName("Product " + i);
+                product.setPrice(new BigDecimal("10.00"));
+                product.setStock(100);
+                product.setCategory(category);
+                entityManager.persist(product);
+                products.add(product);
+            }
+            for (int day = 0; day < 6; day++) {
+                Order order = new Order();
+                order.setOrderDate(START.plusDays(day));
+                order.setOrderItems(new ArrayList<>(List.of(orderItem(order, products.get(day % 4), 1),
+                        orderItem(order, products.get((day + 1) % 4), 2))));
+                entityManager.persist(order);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    /**
+     * Test: Find orders by date with their items
+     *
+     * Ensures that a page of orders is read with its items, products and categories in three statements, however
+     * many orders and lines the page holds.
+     */
+    @Test
+    void testFindOrderPage_BoundedStatements() {
+        statistics.clear();
+
+        List<String> categories = transactionTemplate.execute(status -> {
+            Page<OrderKey> keys = orderRepository.findKeysByOrderDate(START.plusDays(1), START.plusDays(5),
+                    PageRequest.of(0, 3, Sort.by("orderDate")));
+            assertEquals(4, keys.getTotalElements());
+            assertEquals(START.plusDays(1), keys.getContent().get(0).getOrderDate());
+            List<Order> orders = orderRepository.findWithItemsByIdIn(keys.map(OrderKey::getId).getContent(),
+                    keys.getContent().get(0).getOrderDate(), keys.getContent().get(2).getOrderDate());
+            assertEquals(3, orders.size());
+            return orders.stream()
+                    .flatMap(order -> order.getOrderItems().stream())
+                    .map(orderItem -> orderItem.getProduct().getCategory().getName())
+                    .toList();
+        });
+
+        assertEquals(6, categories.size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Test: Find orders with their items outside the date span
+     *
+     * Ensures that orders placed outside the given span are not returned, even when their ids are asked for.
+     */
+    @Test
+    void testFindWithItemsByIdIn_OutsideSpan() {
+        List<Order> orders = transactionTemplate.execute(status -> {
+            List<Long> ids = orderRepository.findKeysByOrderDate(null, null, PageRequest.of(0, 10, Sort.by("orderDate")))
+                    .map(OrderKey::getId).getContent();
+            return orderRepository.findWithItemsByIdIn(ids, START.plusDays(2), START.plusDays(3));
+        });
+
+        assertEquals(2, orders.size());
+        orders.forEach(order -> assertEquals(2, order.getOrderItems().size()));
+    }
+
+    /**
+     * Test: Find orders by date without bounds
+     *
+     * Ensures that omitted bounds leave the date range open.
+     */
+    @Test
+    void testFindKeysByOrderDate_OpenRange() {
+        Page<Long> all = transactionTemplate.execute(status ->
+                orderRepository.findKeysByOrderDate(null, null, PageRequest.of(0, 10, Sort.by("orderDate"))).map(OrderKey::getId));
+        Page<Long> before = transactionTemplate.execute(status ->
+                orderRepository.findKeysByOrderDate(null, START.plusDays(2), PageRequest.of(0, 10, Sort.by("orderDate"))).map(OrderKey::getId));
+
+        assertEquals(6, all.getTotalElements());
+        assertEquals(2, before.getContent().size());
+        assertEquals(all.getContent().subList(0, 2), before.getContent());
+    }
+
+    private static OrderItem orderItem(Order order, Product product, int quantity) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setOrder(order);
+        orderItem.setOrderDate(order.getOrderDate());
+        orderItem.setProduct(product);
+        orderItem.setQuantity(quantity);
+        return orderItem;
+    }
+}
@@ -0,0 +1,105 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductStockRepositoryImplTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 250;
+    private static final int INITIAL_STOCK = 1000;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ProductStockRepositoryImpl productStockRepository;
+
+    /**
+     * Sets up an in-memory products table holding one product with stock for a quarter of the attempts.
+     */
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(THREADS);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, stock INT NOT NULL, "
+                + "version BIGINT NOT NULL, updated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO products (id, name, stock, version) VALUES (1, 'Phone', ?, 0)", INITIAL_STOCK);
+        productStockRepository = new ProductStockRepositoryImpl(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    /**
+     * Test: Decrement stock
+     *
+     * Ensures that lines with enough stock are applied and lines that are short or unknown are reported unchanged.
+     */
+    @Test
+    void testDecrementStock() {
+        jdbcTemplate.update("INSERT INTO products (id, name, stock, version) VALUES (2, 'Case', 1, 0)");
+
+        List<Long> unchanged = productStockRepository.decrementStock(new TreeMap<>(Map.of(1L, 3, 2L, 2, 3L, 1)));
+
+        assertEquals(List.of(2L, 3L), unchanged);
+        assertEquals(INITIAL_STOCK - 3, stock(1L));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT version FROM products WHERE id = 1", Long.class));
+        assertEquals(1, stock(2L));
+    }
+
+    /**
+     * Test: Decrement stock under contention
+     *
+     * Ensures that many threads buying the same product never sell more than its stock.
+     */
+    @Test
+    void testDecrementStock_NoOversellUnderContention() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(() -> {
+                    for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+                        if (productStockRepository.decrementStock(new TreeMap<>(Map.of(1L, 1))).isEmpty()) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        assertEquals(INITIAL_STOCK, sold.get());
+        assertEquals(0, stock(1L));
+    }
+
+    private int stock(Long id) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,158 @@
+package com.e_commerce_product_catalog_api.repository;
+
+import com.e_commerce_product_catalog_api.dtos.CategorySalesDTO;
+import com.e_commerce_product_catalog_api.support.PostgresDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the rollup statements, which only PostgreSQL accepts, against a real PostgreSQL holding three orders over
+ * two days.
+ */
+public class SalesRollupRepositoryTest {
+
+    // Day, product, category, units and revenue of every rollup row once all lines are counted
+    private static final List<String> ALL_COUNTED = List.of(
+            "2025-01-01 1 1 3 275.00",
+            "2025-01-01 2 2 1 10.00",
+            "2025-01-02 1 1 3 300.00",
+            "2025-01-02 2 2 4 40.00");
+
+    private PostgresDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SalesRollupRepository salesRollupRepository;
+
+    /**
+     * Sets up the tables the rollups read and write, with two products in two categories and five order lines, one
+     * of them without a recorded unit price.
+     */
+    @BeforeEach
+    void setUp() {
+        database = new PostgresDatabase();
+        jdbcTemplate = database.jdbcTemplate();
+        jdbcTemplate.execute("""
+                CREATE TABLE categories (id bigint PRIMARY KEY, name varchar(255) NOT NULL);
+                CREATE TABLE products (id bigint PRIMARY KEY, name varchar(255) NOT NULL, price numeric(38,2) NOT NULL,
+                    category_id bigint NOT NULL REFERENCES categories);
+                CREATE TABLE orders (id bigint PRIMARY KEY, order_date timestamp(6) NOT NULL);
+                CREATE TABLE order_items (id bigint PRIMARY KEY, order_id bigint NOT NULL REFERENCES orders,
+                    product_id bigint REFERENCES products, quantity integer NOT NULL, unit_price numeric(38,2),
+                    rolled_up boolean NOT NULL DEFAULT false);
+                CREATE TABLE sales_rollups (sale_date date NOT NULL, product_id bigint NOT NULL, category_id bigint NOT NULL,
+                    units bigint NOT NULL, revenue numeric(19,2) NOT NULL, PRIMARY KEY (sale_date, product_id));
+                INSERT INTO categories VALUES (1, 'Phones'), (2, 'Cases');
+                INSERT INTO products VALUES (1, 'Phone', 100.00, 1), (2, 'Case', 10.00, 2);
+                INSERT INTO orders VALUES (1, '2025-01-01 10:00'), (2, '2025-01-01 18:00'), (3, '2025-01-02 09:00');
+                INSERT INTO order_items (id, order_id, product_id, quantity, unit_price) VALUES
+                    (1, 1, 1, 2, 90.00), (2, 1, 2, 1, NULL), (3, 2, 1, 1, 95.00), (4, 3, 1, 3, 100.00), (5, 3, 2, 4, 10.00)
+                """);
+        salesRollupRepository = new SalesRollupRepository();
+        ReflectionTestUtils.setField(salesRollupRepository, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    /**
+     * Test: Apply pending lines
+     *
+     * Ensures that lines are counted a batch at a time, at their unit price or else the product's price, that a
+     * line locked by another transaction is skipped and counted on a later run, and that no line is counted twice.
+     */
+    @Test
+    void testApplyPending() throws Exception {
+        try (Connection locking = jdbcTemplate.getDataSource().getConnection()) {
+            locking.setAutoCommit(false);
+            locking.createStatement().execute("SELECT id FROM order_items WHERE id = 3 FOR UPDATE");
+
+            assertEquals(2, salesRollupRepository.applyPending(0, Long.MAX_VALUE, 2));
+            assertEquals(2, salesRollupRepository.applyPending(0, Long.MAX_VALUE, 2));
+            assertEquals(0, salesRollupRepository.applyPending(0, Long.MAX_VALUE, 2));
+            assertEquals(List.of(3L), jdbcTemplate.queryForList("SELECT id FROM order_items WHERE NOT rolled_up", Long.class));
+            locking.rollback();
+        }
+
+        assertEquals(1, salesRollupRepository.applyPending(0, Long.MAX_VALUE, 2));
+        assertEquals(0, salesRollupRepository.applyPending(0, Long.MAX_VALUE, 2));
+        assertEquals(ALL_COUNTED, rollups());
+    }
+
+    /**
+     * Test: Unroll an order
+     *
+     * Ensures that an order's counted lines are taken back out of the totals and flagged uncounted, so counting
+     * them again restores the totals.
+     */
+    @Test
+    void testUnrollOrder() {
+        salesRollupRepository.applyPending(0, Long.MAX_VALUE, 10);
+
+        salesRollupRepository.unrollOrder(1);
+
+        assertEquals(List.of(
+                "2025-01-01 1 1 1 95.00",
+                "2025-01-01 2 2 0 0.00",
+                "2025-01-02 1 1 3 300.00",
+                "2025-01-02 2 2 4 40.00"), rollups());
+        assertEquals(List.of(1L, 2L), jdbcTemplate.queryForList("SELECT id FROM order_items WHERE NOT rolled_up ORDER BY id", Long.class));
+        salesRollupRepository.unrollOrder(1);
+        assertEquals(2, salesRollupRepository.applyPending(0, Long.MAX_VALUE, 10));
+        assertEquals(ALL_COUNTED, rollups());
+    }
+
+    /**
+     * Test: Rebuild the rollups
+     *
+     * Ensures that a reset empties the rollups and uncounts every line, and that counting the line ids again in
+     * ranges, as a rebuild does, gives back the same totals.
+     */
+    @Test
+    void testResetAndRebuild() {
+        salesRollupRepository.applyPending(0, Long.MAX_VALUE, 10);
+
+        salesRollupRepository.reset();
+
+        assertEquals(List.of(), rollups());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items WHERE rolled_up", Integer.class));
+        long[] range = salesRollupRepository.findLineIdRange().orElseThrow();
+        assertArrayEquals(new long[]{1, 5}, range);
+        assertEquals(2, salesRollupRepository.applyPending(range[0], 3, 10));
+        assertEquals(3, salesRollupRepository.applyPending(3, range[1] + 1, 10));
+        assertEquals(ALL_COUNTED, rollups());
+    }
+
+    /**
+     * Test: Category sales after a product changes category
+     *
+     * Ensures that a day's sales of a product stay with the category it was in when the first of them was counted,
+     * while later days go to its new category.
+     */
+    @Test
+    void testFindCategorySales_CategoryWhenFirstCounted() {
+        salesRollupRepository.applyPending(0, 2, 10);
+        jdbcTemplate.update("UPDATE products SET category_id = 2 WHERE id = 1");
+        salesRollupRepository.applyPending(0, Long.MAX_VALUE, 10);
+
+        assertEquals(List.of(
+                new CategorySalesDTO(2L, "Cases", 8, new BigDecimal("350.00")),
+                new CategorySalesDTO(1L, "Phones", 3, new BigDecimal("275.00"))),
+                salesRollupRepository.findCategorySales(null, null));
+    }
+
+    private List<String> rollups() {
+        return jdbcTemplate.query("SELECT * FROM sales_rollups ORDER BY sale_date, product_id", (row, rowNum) ->
+                row.getDate("sale_date") + " " + row.getLong("product_id") + " " + row.getLong("category_id") + " "
+                        + row.getLong("units") + " " + row.getBigDecimal("revenue"));
+    }
+}
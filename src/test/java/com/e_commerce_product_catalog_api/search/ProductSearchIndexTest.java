@@ -0,0 +1,148 @@
+package com.e_commerce_product_catalog_api.search;
+
+import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex productSearchIndex;
+
+    private Category electronics;
+    private Category books;
+    private Pageable pageable;
+
+    /**
+     * Sets up an index built from three products in two categories.
+     */
+    @BeforeEach
+    void setUp() {
+        electronics = new Category();
+        electronics.setId(1L);
+        electronics.setName("Electronics");
+
+        books = new Category();
+        books.setId(2L);
+        books.setName("Books");
+
+        pageable = PageRequest.of(0, 10);
+
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                product(1L, "Phone", "Smartphone with 5G connectivity.", "500.00", electronics),
+                product(2L, "Laptop", "High-performance laptop for work and gaming.", "1000.00", electronics),
+                product(3L, "Novel", "Bestselling fiction novel.", "15.00", books)));
+
+        productSearchIndex = new ProductSearchIndex(productRepository);
+        productSearchIndex.build();
+    }
+
+    /**
+     * Test: Search by name
+     *
+     * Ensures that name filters match case-insensitive substrings.
+     */
+    @Test
+    void testSearch_ByName() {
+        assertTrue(productSearchIndex.isReady());
+        assertEquals(List.of(2L), search("APTO", null, null, pageable).getContent());
+        assertEquals(List.of(1L), search("phon", null, null, pageable).getContent());
+        assertTrue(search("tablet", null, null, pageable).getContent().isEmpty());
+    }
+
+    /**
+     * Test: Search with several filters
+     *
+     * Ensures that all filters have to match, including filters too short for trigrams.
+     */
+    @Test
+    void testSearch_CombinedFilters() {
+        assertEquals(List.of(1L, 2L), search(null, "electro", null, pageable).getContent());
+        assertEquals(List.of(2L), search(null, "electro", "gaming", pageable).getContent());
+        assertEquals(List.of(1L, 3L), search("n", null, null, pageable).getContent());
+        assertEquals(3, search(null, null, null, pageable).getTotalElements());
+    }
+
+    /**
+     * Test: Search sorting and paging
+     *
+     * Ensures that results are ordered by the requested sort and sliced to the requested page.
+     */
+    @Test
+    void testSearch_SortedAndPaged() {
+        Page<Long> page = search(null, null, null, PageRequest.of(0, 2, Sort.by("price").descending()));
+
+        assertEquals(List.of(2L, 1L), page.getContent());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(3L), search(null, null, null, PageRequest.of(1, 2, Sort.by("price").descending())).getContent());
+    }
+
+    /**
+     * Test: Search falls back
+     *
+     * Ensures that wildcard filters and unsupported sorts are left to the database.
+     */
+    @Test
+    void testSearch_UnsupportedRequests() {
+        assertTrue(productSearchIndex.search("lap%", null, null, pageable).isEmpty());
+        assertTrue(productSearchIndex.search(null, null, null, PageRequest.of(0, 10, Sort.by("stock"))).isEmpty());
+    }
+
+    /**
+     * Test: Incremental updates
+     *
+     * Ensures that updated, removed and re-categorised products are reflected immediately.
+     */
+    @Test
+    void testIncrementalUpdates() {
+        productSearchIndex.index(product(2L, "Gaming Laptop", "Laptop with a discrete GPU.", "1500.00", electronics));
+        productSearchIndex.index(product(4L, "Cookbook", "Recipes for every season.", "25.00", books));
+        productSearchIndex.remove(1L);
+
+        assertEquals(List.of(2L), search("gaming", null, null, pageable).getContent());
+        assertTrue(search(null, null, "5g", pageable).getContent().isEmpty());
+        assertEquals(List.of(3L, 4L), search(null, "books", null, pageable).getContent());
+
+        productSearchIndex.renameCategory(2L, "Literature");
+        assertTrue(search(null, "books", null, pageable).getContent().isEmpty());
+        assertEquals(List.of(3L, 4L), search(null, "literat", null, pageable).getContent());
+
+        productSearchIndex.removeCategory(2L);
+        assertEquals(List.of(2L), search(null, null, null, pageable).getContent());
+    }
+
+    private Page<Long> search(String name, String category, String description, Pageable pageable) {
+        return productSearchIndex.search(name, category, description, pageable).orElseThrow();
+    }
+
+    private static Product product(Long id, String name, String description, String price, Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(10);
+        product.setCategory(category);
+        return product;
+    }
+}
@@ -0,0 +1,117 @@
+package com.e_commerce_product_catalog_api.search;
+
+import com.e_commerce_product_catalog_api.dtos.SuggestionDTO;
+import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.repository.CategoryRepository;
+import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSuggestionIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    private Category electronics;
+    private Category books;
+
+    /**
+     * Sets up an index built from two categories and three products.
+     */
+    @BeforeEach
+    void setUp() {
+        electronics = category(1L, "Electronics");
+        books = category(2L, "Books");
+
+        when(categoryRepository.findAll()).thenReturn(List.of(electronics, books));
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                product(1L, "Phone", electronics),
+                product(2L, "Gaming Laptop", electronics),
+                product(3L, "Laptop Sleeve", electronics)));
+
+        productSuggestionIndex = new ProductSuggestionIndex(productRepository, categoryRepository);
+        productSuggestionIndex.build();
+    }
+
+    /**
+     * Test: Suggest by prefix
+     *
+     * Ensures that any word of a name can be completed, case-insensitively.
+     */
+    @Test
+    void testSuggest_CompletesAnyWord() {
+        List<SuggestionDTO> suggestions = productSuggestionIndex.suggest("LAP", 10);
+
+        assertEquals(List.of("Gaming Laptop", "Laptop Sleeve"), suggestions.stream().map(SuggestionDTO::getText).toList());
+        assertTrue(productSuggestionIndex.suggest("tablet", 10).isEmpty());
+    }
+
+    /**
+     * Test: Suggest ranking
+     *
+     * Ensures that categories are weighted by the number of products they hold.
+     */
+    @Test
+    void testSuggest_RanksByWeight() {
+        productSuggestionIndex.putCategory(category(3L, "Electric Guitars"));
+
+        List<SuggestionDTO> suggestions = productSuggestionIndex.suggest("elec", 1);
+
+        assertEquals(1, suggestions.size());
+        assertEquals("Electronics", suggestions.get(0).getText());
+        assertEquals(ProductSuggestionIndex.CATEGORY, suggestions.get(0).getType());
+    }
+
+    /**
+     * Test: Incremental updates
+     *
+     * Ensures that renamed and removed products and categories are reflected immediately.
+     */
+    @Test
+    void testIncrementalUpdates() {
+        productSuggestionIndex.putProduct(product(1L, "Smartphone", electronics));
+        assertTrue(productSuggestionIndex.suggest("pho", 10).isEmpty());
+        assertEquals("Smartphone", productSuggestionIndex.suggest("smart", 10).get(0).getText());
+
+        productSuggestionIndex.putCategory(category(2L, "Literature"));
+        assertTrue(productSuggestionIndex.suggest("boo", 10).isEmpty());
+        assertEquals("Literature", productSuggestionIndex.suggest("lit", 10).get(0).getText());
+
+        productSuggestionIndex.removeCategory(1L);
+        assertTrue(productSuggestionIndex.suggest("lap", 10).isEmpty());
+        assertTrue(productSuggestionIndex.suggest("elec", 10).isEmpty());
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+
+    private static Product product(Long id, String name, Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        return product;
+    }
+}
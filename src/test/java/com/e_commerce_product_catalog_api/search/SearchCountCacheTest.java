@@ -0,0 +1,41 @@
+package com.e_commerce_product_catalog_api.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchCountCacheTest {
+
+    /**
+     * Test: Count reuse
+     *
+     * Ensures that filters differing only in case share one count until it expires.
+     */
+    @Test
+    void testGetOrCount_ReusesCountForSameFilters() {
+        SearchCountCache cache = new SearchCountCache(Duration.ofMinutes(1), 100);
+        AtomicInteger queries = new AtomicInteger();
+
+        assertEquals(7, cache.getOrCount("Lap", null, null, () -> { queries.incrementAndGet(); return 7; }));
+        assertEquals(7, cache.getOrCount("lap", null, null, () -> { queries.incrementAndGet(); return 8; }));
+        assertEquals(2, cache.getOrCount("lap", "books", null, () -> { queries.incrementAndGet(); return 2; }));
+
+        assertEquals(2, queries.get());
+    }
+
+    /**
+     * Test: Count expiry
+     *
+     * Ensures that an expired count is recomputed.
+     */
+    @Test
+    void testGetOrCount_RecountsAfterExpiry() {
+        SearchCountCache cache = new SearchCountCache(Duration.ZERO, 100);
+
+        assertEquals(7, cache.getOrCount("lap", null, null, () -> 7));
+        assertEquals(8, cache.getOrCount("lap", null, null, () -> 8));
+    }
+}
@@ -5,6 +5,8 @@ import com.e_commerce_product_catalog_api.entity.Category;
 import com.e_commerce_product_catalog_api.exception.ResourceNotFoundException;
 import com.e_commerce_product_catalog_api.mapper.CategoryMapper;
 import com.e_commerce_product_catalog_api.repository.CategoryRepository;
+import com.e_commerce_product_catalog_api.search.ProductSearchIndex;
+import com.e_commerce_product_catalog_api.search.ProductSuggestionIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +32,12 @@ public class CategoryServiceTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggestionIndex productSuggestionIndex;
+
     @InjectMocks // Injects mocks into the service
     private CategoryService categoryService;
 
@@ -63,6 +71,7 @@ public class CategoryServiceTest {
         assertNotNull(result);
         assertEquals(categoryDTO.getName(), result.getName());
         verify(categoryRepository, times(1)).save(any(Category.class));
+        verify(productSuggestionIndex, times(1)).putCategory(category);
     }
 
     /**
@@ -157,6 +166,7 @@ public class CategoryServiceTest {
         categoryService.deleteCategory(1L);
 
         verify(categoryRepository, times(1)).delete(category);
+        verify(productSearchIndex, times(1)).removeCategory(1L);
     }
 
     /**
@@ -2,17 +2,21 @@ package com.e_commerce_product_catalog_api.service;
 
 import com.e_commerce_product_catalog_api.entity.User;
 import com.e_commerce_product_catalog_api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -24,7 +28,7 @@ public class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private CustomUserDetailsService customUserDetailsService;
 
     private User user;
@@ -34,6 +38,8 @@ public class CustomUserDetailsServiceTest {
      */
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        customUserDetailsService = new CustomUserDetailsService(userRepository, meterRegistry, 100, Duration.ofMinutes(5));
         user = new User();
         user.setId(1L);
         user.setUsername("testuser");
@@ -76,4 +82,69 @@ public class CustomUserDetailsServiceTest {
         assertEquals("User not found with username: nonexistentuser", exception.getMessage());
         verify(userRepository, times(1)).findByUsername("nonexistentuser");
     }
+
+    /**
+     * Test: Load a cached user
+     *
+     * Ensures that a user looked up again is answered from the cache, as a copy whose credentials can be erased
+     * without affecting the cached one.
+     */
+    @Test
+    void testLoadUserByUsername_Cached() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        UserDetails first = customUserDetailsService.loadUserByUsername("testuser");
+        ((org.springframework.security.core.userdetails.User) first).eraseCredentials();
+        UserDetails second = customUserDetailsService.loadUserByUsername("testuser");
+
+        assertEquals("password123", second.getPassword());
+        verify(userRepository, times(1)).findByUsername("testuser");
+        assertEquals(1.0, meterRegistry.get("users.details.db_calls_saved").functionCounter().count());
+    }
+
+    /**
+     * Test: Concurrent misses
+     *
+     * Ensures that lookups for the same user arriving while it is being loaded share that one database query.
+     */
+    @Test
+    void testLoadUserByUsername_CoalescesMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByUsername("testuser")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(user);
+        });
+
+        CompletableFuture<UserDetails> first = CompletableFuture.supplyAsync(() -> customUserDetailsService.loadUserByUsername("testuser"));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<UserDetails> second = CompletableFuture.supplyAsync(() -> customUserDetailsService.loadUserByUsername("testuser"));
+        release.countDown();
+
+        assertEquals("testuser", first.get(5, TimeUnit.SECONDS).getUsername());
+        assertEquals("testuser", second.get(5, TimeUnit.SECONDS).getUsername());
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    /**
+     * Test: Evict a changed user
+     *
+     * Ensures that after a user is evicted their current roles are loaded again.
+     */
+    @Test
+    void testEvict() {
+        User promoted = new User();
+        promoted.setUsername("testuser");
+        promoted.setPassword("password123");
+        promoted.setRoles(Set.of("ROLE_USER", "ROLE_ADMIN"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user), Optional.of(promoted));
+        customUserDetailsService.loadUserByUsername("testuser");
+
+        customUserDetailsService.evict("testuser");
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername("testuser");
+
+        assertEquals(2, userDetails.getAuthorities().size());
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
 }
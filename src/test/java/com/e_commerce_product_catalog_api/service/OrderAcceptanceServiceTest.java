@@ -0,0 +1,180 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+import com.e_commerce_product_catalog_api.dtos.OrderStatusDTO;
+import com.e_commerce_product_catalog_api.exception.ResourceNotFoundException;
+import com.e_commerce_product_catalog_api.exception.TooManyRequestsException;
+import com.e_commerce_product_catalog_api.idempotency.IdempotencyService;
+import com.e_commerce_product_catalog_api.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderAcceptanceServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderAcceptanceService orderAcceptanceService;
+    private OrderDTO orderDTO;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderDTO = new OrderDTO();
+        orderDTO.setOrderDate(LocalDateTime.of(2025, 1, 24, 10, 0));
+        orderDTO.setOrderItems(List.of());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (orderAcceptanceService != null) {
+            orderAcceptanceService.stop();
+        }
+    }
+
+    /**
+     * Test: Accept an order
+     *
+     * Ensures that an order is accepted under a reserved id and reported pending until its placement commits.
+     */
+    @Test
+    void testAccept_PendingThenConfirmed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.reserveOrderId()).thenReturn(42L);
+        when(orderService.createOrder(eq(42L), eq(orderDTO), any())).thenAnswer(invocation -> {
+            release.await();
+            return orderDTO;
+        });
+        orderAcceptanceService = acceptance(32, 100);
+
+        OrderDTO accepted = orderAcceptanceService.accept(orderDTO, null).get();
+
+        assertEquals(42L, accepted.getId());
+        assertEquals(OrderStatusDTO.Status.PENDING, orderAcceptanceService.getStatus(42L).getStatus());
+        release.countDown();
+        assertEquals(OrderStatusDTO.Status.CONFIRMED, awaitOutcome(42L).getStatus());
+        assertEquals(1, meterRegistry.get("orders.async.placement").timer().count());
+    }
+
+    /**
+     * Test: Accept an order that cannot be placed
+     *
+     * Ensures that an order failing placement is reported rejected with the reason.
+     */
+    @Test
+    void testAccept_Rejected() throws Exception {
+        when(orderService.reserveOrderId()).thenReturn(43L);
+        when(orderService.createOrder(eq(43L), eq(orderDTO), any()))
+                .thenThrow(new IllegalArgumentException("Insufficient stock for product ID: 1"));
+        orderAcceptanceService = acceptance(32, 100);
+
+        orderAcceptanceService.accept(orderDTO, null).get();
+
+        OrderStatusDTO status = awaitOutcome(43L);
+        assertEquals(OrderStatusDTO.Status.REJECTED, status.getStatus());
+        assertEquals("Insufficient stock for product ID: 1", status.getReason());
+    }
+
+    /**
+     * Test: Accept an order with an idempotency key that cannot be placed
+     *
+     * Ensures that the key is forgotten once the order is rejected, so a retry does not get the rejected order's id.
+     */
+    @Test
+    void testAccept_RejectedForgetsIdempotencyKey() throws Exception {
+        when(orderService.reserveOrderId()).thenReturn(44L);
+        when(orderService.createOrder(eq(44L), eq(orderDTO), any()))
+                .thenThrow(new IllegalArgumentException("Insufficient stock for product ID: 1"));
+        when(idempotencyService.execute(eq("key-1"), eq(orderDTO), any())).thenAnswer(invocation -> invocation
+                .<Function<Consumer<OrderDTO>, CompletableFuture<OrderDTO>>>getArgument(2).apply(placed -> { }));
+        orderAcceptanceService = acceptance(32, 100);
+
+        assertEquals(44L, orderAcceptanceService.accept(orderDTO, "key-1").get().getId());
+
+        assertEquals(OrderStatusDTO.Status.REJECTED, awaitOutcome(44L).getStatus());
+        verify(idempotencyService, times(1)).forget("key-1", 44L);
+    }
+
+    /**
+     * Test: Accept with too many orders pending
+     *
+     * Ensures that orders are turned away with a retry hint once max-pending orders wait to be placed.
+     */
+    @Test
+    void testAccept_TooManyPending() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.reserveOrderId()).thenReturn(1L);
+        when(orderService.createOrder(anyLong(), any(OrderDTO.class), any())).thenAnswer(invocation -> {
+            release.await();
+            return orderDTO;
+        });
+        orderAcceptanceService = acceptance(1, 1);
+
+        orderAcceptanceService.accept(orderDTO, null).get();
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> orderAcceptanceService.accept(orderDTO, null));
+
+        assertEquals(1, exception.getRetryAfterSeconds());
+        verify(orderService, times(1)).reserveOrderId();
+        release.countDown();
+    }
+
+    /**
+     * Test: Status of an order no longer remembered
+     *
+     * Ensures that a stored order is reported confirmed and an unknown one is not found.
+     */
+    @Test
+    void testGetStatus_FromStoredOrders() {
+        when(orderRepository.existsById(7L)).thenReturn(true);
+        when(orderRepository.existsById(8L)).thenReturn(false);
+        orderAcceptanceService = acceptance(32, 100);
+
+        assertEquals(OrderStatusDTO.Status.CONFIRMED, orderAcceptanceService.getStatus(7L).getStatus());
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> orderAcceptanceService.getStatus(8L));
+        assertEquals("Order not found with id: 8", exception.getMessage());
+    }
+
+    private OrderAcceptanceService acceptance(int maxConcurrency, int maxPending) {
+        return new OrderAcceptanceService(orderService, orderRepository, idempotencyService, meterRegistry, true,
+                maxConcurrency, maxPending, Duration.ofHours(1));
+    }
+
+    private OrderStatusDTO awaitOutcome(long orderId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        OrderStatusDTO status = orderAcceptanceService.getStatus(orderId);
+        while (status.getStatus() == OrderStatusDTO.Status.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = orderAcceptanceService.getStatus(orderId);
+        }
+        return status;
+    }
+}
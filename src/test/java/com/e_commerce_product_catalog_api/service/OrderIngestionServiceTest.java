@@ -0,0 +1,224 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+import com.e_commerce_product_catalog_api.exception.TooManyRequestsException;
+import com.e_commerce_product_catalog_api.idempotency.IdempotencyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderIngestionServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderIngestionService orderIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (orderIngestionService != null) {
+            orderIngestionService.stop();
+        }
+    }
+
+    /**
+     * Test: Submit without group commit
+     *
+     * Ensures that orders are placed right away on the calling thread when group commit is off.
+     */
+    @Test
+    void testSubmit_Disabled() throws Exception {
+        OrderDTO order = order();
+        when(orderService.createOrder(eq(order), any())).thenReturn(order);
+        orderIngestionService = ingestion(false, 64, Duration.ofMillis(5), 16);
+
+        CompletableFuture<OrderDTO> result = orderIngestionService.submit(order, null);
+
+        assertTrue(result.isDone());
+        assertSame(order, result.get());
+        verify(orderService, never()).createOrderBatch(anyList(), any());
+    }
+
+    /**
+     * Test: Submit with an idempotency key
+     *
+     * Ensures that keyed orders go through the idempotency check, which places them with its recorder.
+     */
+    @Test
+    void testSubmit_WithIdempotencyKey() throws Exception {
+        OrderDTO order = order();
+        when(idempotencyService.execute(eq("key-1"), eq(order), any())).thenAnswer(invocation -> {
+            Function<Consumer<OrderDTO>, CompletableFuture<OrderDTO>> placement = invocation.getArgument(2);
+            return placement.apply(placed -> { });
+        });
+        when(orderService.createOrder(eq(order), any())).thenReturn(order);
+        orderIngestionService = ingestion(false, 64, Duration.ofMillis(5), 16);
+
+        assertSame(order, orderIngestionService.submit(order, "key-1").get());
+        verify(idempotencyService, times(1)).execute(eq("key-1"), eq(order), any());
+    }
+
+    /**
+     * Test: Submit with group commit
+     *
+     * Ensures that orders arriving together are placed in one batch, and that every caller gets its own outcome
+     * once the batch has committed.
+     */
+    @Test
+    void testSubmit_GroupsOrdersIntoOneBatch() throws Exception {
+        OrderDTO first = order();
+        OrderDTO second = order();
+        OrderDTO third = order();
+        IllegalArgumentException rejected = new IllegalArgumentException("Insufficient stock for product ID: 1");
+        when(orderService.createOrderBatch(eq(List.of(first, second, third)), any())).thenReturn(List.of(
+                new OrderService.OrderOutcome(first, null),
+                new OrderService.OrderOutcome(null, rejected),
+                new OrderService.OrderOutcome(third, null)));
+        orderIngestionService = ingestion(true, 3, Duration.ofSeconds(5), 16);
+
+        CompletableFuture<OrderDTO> firstResult = orderIngestionService.submit(first, null);
+        CompletableFuture<OrderDTO> secondResult = orderIngestionService.submit(second, null);
+        CompletableFuture<OrderDTO> thirdResult = orderIngestionService.submit(third, null);
+
+        assertSame(first, firstResult.get(5, TimeUnit.SECONDS));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> secondResult.get(5, TimeUnit.SECONDS));
+        assertSame(rejected, exception.getCause());
+        assertSame(third, thirdResult.get(5, TimeUnit.SECONDS));
+        verify(orderService, times(1)).createOrderBatch(anyList(), any());
+        assertEquals(1, meterRegistry.get("orders.group_commit.batch_size").summary().count());
+        assertEquals(3.0, meterRegistry.get("orders.group_commit.batch_size").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("orders.group_commit.latency").timer().count());
+    }
+
+    /**
+     * Test: Submit while the batch fails
+     *
+     * Ensures that every order of a batch whose transaction fails is completed with the failure.
+     */
+    @Test
+    void testSubmit_BatchFails() {
+        IllegalStateException failure = new IllegalStateException("Connection refused");
+        when(orderService.createOrderBatch(anyList(), any())).thenThrow(failure);
+        orderIngestionService = ingestion(true, 64, Duration.ofMillis(1), 16);
+
+        CompletableFuture<OrderDTO> result = orderIngestionService.submit(order(), null);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertSame(failure, exception.getCause());
+    }
+
+    /**
+     * Test: Submit while one recorder fails
+     *
+     * Ensures that an order whose recorder fails is failed alone, and that the rest of its batch is placed again
+     * without it.
+     */
+    @Test
+    void testSubmit_RecorderFails() throws Exception {
+        IllegalStateException duplicate = new IllegalStateException("duplicate key value violates unique constraint");
+        when(idempotencyService.execute(anyString(), any(), any())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            Function<Consumer<OrderDTO>, CompletableFuture<OrderDTO>> placement = invocation.getArgument(2);
+            return placement.apply(placed -> {
+                if (key.equals("key-2")) {
+                    throw duplicate;
+                }
+            });
+        });
+        when(orderService.createOrderBatch(anyList(), any())).thenAnswer(invocation -> {
+            List<OrderDTO> orders = invocation.getArgument(0);
+            BiConsumer<Integer, OrderDTO> onPlaced = invocation.getArgument(1);
+            for (int i = 0; i < orders.size(); i++) {
+                onPlaced.accept(i, orders.get(i));
+            }
+            return orders.stream().map(order -> new OrderService.OrderOutcome(order, null)).toList();
+        });
+        orderIngestionService = ingestion(true, 3, Duration.ofSeconds(5), 16);
+        OrderDTO first = order();
+        OrderDTO third = order();
+
+        CompletableFuture<OrderDTO> firstResult = orderIngestionService.submit(first, "key-1");
+        CompletableFuture<OrderDTO> secondResult = orderIngestionService.submit(order(), "key-2");
+        CompletableFuture<OrderDTO> thirdResult = orderIngestionService.submit(third, "key-3");
+
+        assertSame(first, firstResult.get(5, TimeUnit.SECONDS));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> secondResult.get(5, TimeUnit.SECONDS));
+        assertSame(duplicate, exception.getCause());
+        assertSame(third, thirdResult.get(5, TimeUnit.SECONDS));
+        verify(orderService, times(2)).createOrderBatch(anyList(), any());
+    }
+
+    /**
+     * Test: Submit to a full queue
+     *
+     * Ensures that orders are turned away with a retry hint once the queue is full.
+     */
+    @Test
+    void testSubmit_QueueFull() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrderBatch(anyList(), any())).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            List<OrderDTO> orders = invocation.getArgument(0);
+            return orders.stream().map(order -> new OrderService.OrderOutcome(order, null)).toList();
+        });
+        orderIngestionService = ingestion(true, 1, Duration.ZERO, 1);
+
+        CompletableFuture<OrderDTO> committed = orderIngestionService.submit(order(), null);
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<OrderDTO> queued = orderIngestionService.submit(order(), null);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> orderIngestionService.submit(order(), null));
+        assertEquals(1, exception.getRetryAfterSeconds());
+
+        release.countDown();
+        assertNotNull(committed.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private OrderIngestionService ingestion(boolean enabled, int maxBatch, Duration maxWait, int queueCapacity) {
+        OrderIngestionService service = new OrderIngestionService(orderService, idempotencyService, meterRegistry, enabled, maxBatch,
+                maxWait, queueCapacity);
+        service.start();
+        return service;
+    }
+
+    private static OrderDTO order() {
+        OrderDTO order = new OrderDTO();
+        order.setOrderItems(List.of());
+        return order;
+    }
+}
@@ -0,0 +1,134 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.dtos.OrderDTO;
+import com.e_commerce_product_catalog_api.dtos.OrderItemDTO;
+import com.e_commerce_product_catalog_api.dtos.ProductDTO;
+import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.Order;
+import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.mapper.OrderMapper;
+import com.e_commerce_product_catalog_api.repository.IdSequences;
+import com.e_commerce_product_catalog_api.repository.OrderBulkRepository;
+import com.e_commerce_product_catalog_api.repository.OrderItemBulkRepository;
+import com.e_commerce_product_catalog_api.repository.OrderItemRepository;
+import com.e_commerce_product_catalog_api.repository.OrderPageRepositoryImpl;
+import com.e_commerce_product_catalog_api.repository.OrderRepository;
+import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import com.e_commerce_product_catalog_api.repository.ProductStockRepositoryImpl;
+import com.e_commerce_product_catalog_api.repository.SalesRollupRepository;
+import com.e_commerce_product_catalog_api.stock.HotStockLedger;
+import com.e_commerce_product_catalog_api.support.H2JpaDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Places orders through {@link OrderService} against an in-memory schema generated from the entities, with its
+ * foreign keys, so that every write the service makes through Hibernate or JDBC has to line up in one transaction.
+ */
+public class OrderPlacementTest {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private H2JpaDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OrderService orderService;
+    private Long productId;
+
+    /**
+     * Sets up an in-memory schema holding one product with stock for ten units, and an order service on top of it.
+     */
+    @BeforeEach
+    void setUp() {
+        database = new H2JpaDatabase();
+        jdbcTemplate = database.jdbcTemplate();
+        transactionTemplate = database.transactionTemplate();
+
+        IdSequences idSequences = new IdSequences(jdbcTemplate);
+        OrderMapper orderMapper = mock(OrderMapper.class);
+        when(orderMapper.toDTO(any(Order.class))).thenAnswer(invocation -> {
+            OrderDTO orderDTO = new OrderDTO();
+            orderDTO.setId(invocation.getArgument(0, Order.class).getId());
+            return orderDTO;
+        });
+        orderService = database.autowire(new OrderService(),
+                database.repository(ProductRepository.class, new ProductStockRepositoryImpl(jdbcTemplate)),
+                database.autowire(new OrderBulkRepository(), idSequences),
+                database.autowire(new OrderItemBulkRepository(), idSequences),
+                database.repository(OrderRepository.class, new OrderPageRepositoryImpl(database.entityManager())),
+                mock(OrderItemRepository.class), mock(SalesRollupRepository.class),
+                orderMapper, new ConcurrentMapCacheManager(), mock(HotStockLedger.class));
+
+        productId = transactionTemplate.execute(status -> {
+            Category category = new Category();
+            category.setName("Phones");
+            database.entityManager().persist(category);
+            Product product = new Product();
+            product.setName("Phone");
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStock(10);
+            product.setCategory(category);
+            database.entityManager().persist(product);
+            return product.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    /**
+     * Test: Create Order end to end
+     *
+     * Ensures that a new order is stored before its lines, which reference it, and that its stock is deducted.
+     */
+    @Test
+    void testCreateOrder() {
+        OrderDTO placed = transactionTemplate.execute(status -> orderService.createOrder(order(3)));
+
+        assertNotNull(placed.getId());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE id = ?", Integer.class, placed.getId()));
+        assertEquals(List.of(3), jdbcTemplate.queryForList(
+                "SELECT quantity FROM order_items WHERE order_id = ? AND product_id = ?", Integer.class, placed.getId(), productId));
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId));
+    }
+
+    /**
+     * Test: Create Order with insufficient stock end to end
+     *
+     * Ensures that a rejected order leaves neither an order row nor a stock change behind.
+     */
+    @Test
+    void testCreateOrder_InsufficientStock() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionTemplate.execute(status -> orderService.createOrder(order(11))));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId));
+    }
+
+    private OrderDTO order(int quantity) {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setId(productId);
+        OrderItemDTO orderItemDTO = new OrderItemDTO();
+        orderItemDTO.setProduct(productDTO);
+        orderItemDTO.setQuantity(quantity);
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setOrderDate(ORDER_DATE);
+        orderDTO.setOrderItems(List.of(orderItemDTO));
+        return orderDTO;
+    }
+}
@@ -1,30 +1,46 @@
 package com.e_commerce_product_catalog_api.service;
 
+import com.e_commerce_product_catalog_api.config.CacheConfig;
 import com.e_commerce_product_catalog_api.dtos.OrderDTO;
 import com.e_commerce_product_catalog_api.dtos.OrderItemDTO;
 import com.e_commerce_product_catalog_api.dtos.ProductDTO;
 import com.e_commerce_product_catalog_api.entity.Order;
 import com.e_commerce_product_catalog_api.entity.OrderItem;
+import com.e_commerce_product_catalog_api.entity.OrderKey;
 import com.e_commerce_product_catalog_api.entity.Product;
 import com.e_commerce_product_catalog_api.exception.ResourceNotFoundException;
 import com.e_commerce_product_catalog_api.mapper.OrderMapper;
+import com.e_commerce_product_catalog_api.repository.OrderBulkRepository;
+import com.e_commerce_product_catalog_api.repository.OrderItemBulkRepository;
 import com.e_commerce_product_catalog_api.repository.OrderItemRepository;
 import com.e_commerce_product_catalog_api.repository.OrderRepository;
 import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import com.e_commerce_product_catalog_api.repository.SalesRollupRepository;
+import com.e_commerce_product_catalog_api.stock.HotStockLedger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -40,9 +56,27 @@ public class OrderServiceTest {
     @Mock
     private OrderItemRepository orderItemRepository;
 
+    @Mock
+    private OrderItemBulkRepository orderItemBulkRepository;
+
+    @Mock
+    private OrderBulkRepository orderBulkRepository;
+
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache productCache;
+
+    @Mock
+    private HotStockLedger hotStockLedger;
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -98,34 +132,218 @@ public class OrderServiceTest {
      */
     @Test
     void testCreateOrder() {
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
-        when(orderItemRepository.saveAll(any())).thenReturn(List.of(orderItem));
+        when(productRepository.decrementStock(any())).thenReturn(List.of());
+        when(productRepository.findByIdIn(any())).thenReturn(List.of(product));
         when(orderMapper.toDTO(any(Order.class))).thenReturn(orderDTO);
+        when(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE)).thenReturn(productCache);
 
         OrderDTO result = orderService.createOrder(orderDTO);
 
         assertNotNull(result);
         assertEquals(orderDTO.getId(), result.getId());
-        verify(orderRepository, times(1)).save(any(Order.class));
-        verify(orderItemRepository, times(1)).saveAll(any());
+        ArgumentCaptor<List<Order>> orders = ArgumentCaptor.forClass(List.class);
+        verify(orderBulkRepository, times(1)).insertAll(orders.capture());
+        assertNotNull(orders.getValue().get(0).getOrderDate());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(productRepository, times(1)).decrementStock(new TreeMap<>(Map.of(1L, 2)));
+        verify(orderItemBulkRepository, times(1)).insertAll(anyList());
+        verify(productRepository, never()).findById(anyLong());
+        verify(productRepository, never()).save(any(Product.class));
+        verify(productCache, times(1)).evict(1L);
     }
 
     /**
-     * Test: Get All Orders
+     * Test: Create Order with several lines
      *
-     * Ensures that all orders are retrieved successfully.
+     * Ensures that stock is deducted in one call in ascending id order, with repeated products combined, and that
+     * the products are loaded in one query.
      */
     @Test
-    void testGetAllOrders() {
-        when(orderRepository.findAll()).thenReturn(Arrays.asList(order));
+    void testCreateOrder_DeductsStockInIdOrder() {
+        Product mouse = new Product();
+        mouse.setId(2L);
+        mouse.setName("Mouse");
+        mouse.setStock(5);
+        ProductDTO mouseDTO = new ProductDTO();
+        mouseDTO.setId(2L);
+
+        orderDTO.setOrderItems(List.of(orderItem(mouseDTO, 1), orderItem(productDTO, 3), orderItem(mouseDTO, 2)));
+        when(productRepository.decrementStock(any())).thenReturn(List.of());
+        when(productRepository.findByIdIn(any())).thenReturn(List.of(product, mouse));
         when(orderMapper.toDTO(any(Order.class))).thenReturn(orderDTO);
 
-        List<OrderDTO> result = orderService.getAllOrders();
+        orderService.createOrder(orderDTO);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(orderRepository, times(1)).findAll();
+        ArgumentCaptor<SortedMap<Long, Integer>> quantities = ArgumentCaptor.forClass(SortedMap.class);
+        verify(productRepository, times(1)).decrementStock(quantities.capture());
+        assertEquals(List.of(1L, 2L), List.copyOf(quantities.getValue().keySet()));
+        assertEquals(List.of(3, 3), List.copyOf(quantities.getValue().values()));
+        verify(productRepository, times(1)).findByIdIn(any());
+
+        ArgumentCaptor<List<OrderItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(orderItemBulkRepository, times(1)).insertAll(items.capture());
+        assertEquals(3, items.getValue().size());
+        assertSame(mouse, items.getValue().get(0).getProduct());
+    }
+
+    /**
+     * Test: Create Order under a reserved id
+     *
+     * Ensures that an accepted order is stored under the id it was accepted with.
+     */
+    @Test
+    void testCreateOrder_ReservedId() {
+        when(productRepository.decrementStock(any())).thenReturn(List.of());
+        when(productRepository.findByIdIn(any())).thenReturn(List.of(product));
+        when(orderMapper.toDTO(any(Order.class))).thenReturn(orderDTO);
+
+        orderService.createOrder(42L, orderDTO, placed -> { });
+
+        ArgumentCaptor<List<Order>> orders = ArgumentCaptor.forClass(List.class);
+        verify(orderBulkRepository, times(1)).insertAll(orders.capture());
+        assertEquals(42L, orders.getValue().get(0).getId());
+        verify(orderRepository, never()).save(any(Order.class));
+        ArgumentCaptor<List<OrderItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(orderItemBulkRepository, times(1)).insertAll(items.capture());
+        assertEquals(42L, items.getValue().get(0).getOrder().getId());
+    }
+
+    /**
+     * Test: Create Order for a hot product
+     *
+     * Ensures that a hot product is reserved from the ledger instead of the database and its line is left pending.
+     */
+    @Test
+    void testCreateOrder_HotProduct() {
+        when(hotStockLedger.isHot(1L)).thenReturn(true);
+        when(hotStockLedger.reserve(1L, 2)).thenReturn(true);
+        when(productRepository.findByIdIn(any())).thenReturn(List.of(product));
+        when(orderMapper.toDTO(any(Order.class))).thenReturn(orderDTO);
+
+        orderService.createOrder(orderDTO);
+
+        verify(productRepository, never()).decrementStock(any());
+        ArgumentCaptor<List<OrderItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(orderItemBulkRepository, times(1)).insertAll(items.capture());
+        assertTrue(items.getValue().get(0).isStockPending());
+    }
+
+    /**
+     * Test: Create Order for a sold-out hot product
+     *
+     * Ensures that the order is rejected and reservations already made for it are handed back.
+     */
+    @Test
+    void testCreateOrder_HotProductSoldOut() {
+        ProductDTO mouseDTO = new ProductDTO();
+        mouseDTO.setId(2L);
+        orderDTO.setOrderItems(List.of(orderItem(productDTO, 1), orderItem(mouseDTO, 1)));
+        when(hotStockLedger.isHot(anyLong())).thenReturn(true);
+        when(hotStockLedger.reserve(1L, 1)).thenReturn(true);
+        when(hotStockLedger.reserve(2L, 1)).thenReturn(false);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(orderDTO));
+
+        assertEquals("Insufficient stock for product ID: 2", exception.getMessage());
+        verify(hotStockLedger, times(1)).release(1L, 1);
+        verifyNoInteractions(orderItemBulkRepository);
+    }
+
+    /**
+     * Test: Create Order with insufficient stock
+     *
+     * Ensures that the order is rejected when the conditional decrement of an existing product matches no row.
+     */
+    @Test
+    void testCreateOrder_InsufficientStock() {
+        when(productRepository.decrementStock(any())).thenReturn(List.of(1L));
+        when(productRepository.findByIdIn(any())).thenReturn(List.of(product));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(orderDTO));
+
+        assertEquals("Insufficient stock for product ID: 1", exception.getMessage());
+        verifyNoInteractions(orderItemBulkRepository);
+    }
+
+    /**
+     * Test: Create Order with unknown product
+     *
+     * Ensures that an exception is thrown when an ordered product does not exist.
+     */
+    @Test
+    void testCreateOrder_ProductNotFound() {
+        when(productRepository.decrementStock(any())).thenReturn(List.of(1L));
+        when(productRepository.findByIdIn(any())).thenReturn(List.of());
+
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(orderDTO));
+
+        assertEquals("Product not found with ID: 1", exception.getMessage());
+        verifyNoInteractions(orderItemBulkRepository);
+    }
+
+    /**
+     * Test: Create a batch of Orders
+     *
+     * Ensures that the batch locks its products once, checks each order against the stock the earlier orders left,
+     * and reports rejected orders without failing the accepted ones.
+     */
+    @Test
+    void testCreateOrderBatch() {
+        ProductDTO unknownDTO = new ProductDTO();
+        unknownDTO.setId(3L);
+        OrderDTO tooLarge = new OrderDTO();
+        tooLarge.setOrderDate(LocalDateTime.now());
+        tooLarge.setOrderItems(List.of(orderItem(productDTO, 9)));
+        OrderDTO unknown = new OrderDTO();
+        unknown.setOrderDate(LocalDateTime.now());
+        unknown.setOrderItems(List.of(orderItem(unknownDTO, 1)));
+        when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(product));
+        when(orderMapper.toDTO(any(Order.class))).thenReturn(orderDTO);
+
+        List<OrderService.OrderOutcome> outcomes = orderService.createOrderBatch(List.of(orderDTO, tooLarge, unknown));
+
+        assertSame(orderDTO, outcomes.get(0).order());
+        assertEquals("Insufficient stock for product ID: 1", outcomes.get(1).error().getMessage());
+        assertInstanceOf(ResourceNotFoundException.class, outcomes.get(2).error());
+        assertEquals(8, product.getStock());
+        verify(productRepository, times(1)).findAllByIdForUpdate(any());
+        verify(productRepository, never()).decrementStock(any());
+
+        ArgumentCaptor<List<Order>> orders = ArgumentCaptor.forClass(List.class);
+        verify(orderBulkRepository, times(1)).insertAll(orders.capture());
+        assertEquals(1, orders.getValue().size());
+        ArgumentCaptor<List<OrderItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(orderItemBulkRepository, times(1)).insertAll(items.capture());
+        assertSame(orders.getValue().get(0), items.getValue().get(0).getOrder());
+    }
+
+    /**
+     * Test: Get Orders
+     *
+     * Ensures that a page of order ids is read first and the orders on it are loaded in one query bounded by the
+     * page's date span, in page order.
+     */
+    @Test
+    void testGetOrders() {
+        Order older = new Order();
+        older.setId(2L);
+        older.setOrderDate(order.getOrderDate().minusHours(5));
+        OrderDTO olderDTO = new OrderDTO();
+        Pageable pageable = PageRequest.of(0, 2);
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        when(orderRepository.findKeysByOrderDate(from, null, pageable)).thenReturn(new PageImpl<>(
+                List.of(key(order), key(older)), pageable, 5));
+        when(orderRepository.findWithItemsByIdIn(List.of(1L, 2L), older.getOrderDate(), order.getOrderDate()))
+                .thenReturn(List.of(older, order));
+        when(orderMapper.toDTO(order)).thenReturn(orderDTO);
+        when(orderMapper.toDTO(older)).thenReturn(olderDTO);
+
+        Page<OrderDTO> result = orderService.getOrders(from, null, pageable);
+
+        assertEquals(5, result.getTotalElements());
+        assertSame(orderDTO, result.getContent().get(0));
+        assertSame(olderDTO, result.getContent().get(1));
+        verify(orderRepository, never()).findAll();
     }
 
     /**
@@ -177,7 +395,26 @@ public class OrderServiceTest {
 
         assertNotNull(result);
         assertEquals(orderDTO.getId(), result.getId());
+        assertEquals(orderDTO.getOrderDate(), orderItem.getOrderDate());
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(salesRollupRepository, times(1)).unrollOrder(1L);
+    }
+
+    /**
+     * Test: Update Order (Same Date)
+     *
+     * Ensures that the order's sales stay in the rollups when its date does not change.
+     */
+    @Test
+    void testUpdateOrder_SameDate() {
+        orderDTO.setOrderDate(order.getOrderDate());
+        when(orderRepository.findById(anyLong())).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderMapper.toDTO(any(Order.class))).thenReturn(orderDTO);
+
+        orderService.updateOrder(1L, orderDTO);
+
+        verify(salesRollupRepository, never()).unrollOrder(anyLong());
     }
 
     /**
@@ -209,6 +446,7 @@ public class OrderServiceTest {
 
         orderService.deleteOrder(1L);
 
+        verify(salesRollupRepository, times(1)).unrollOrder(1L);
         verify(orderRepository, times(1)).delete(order);
     }
 
@@ -228,4 +466,25 @@ public class OrderServiceTest {
         assertEquals("Order not found with id: 1", exception.getMessage());
         verify(orderRepository, times(1)).findById(1L);
     }
+
+    private static OrderItemDTO orderItem(ProductDTO product, int quantity) {
+        OrderItemDTO orderItemDTO = new OrderItemDTO();
+        orderItemDTO.setProduct(product);
+        orderItemDTO.setQuantity(quantity);
+        return orderItemDTO;
+    }
+
+    private static OrderKey key(Order order) {
+        return new OrderKey() {
+            @Override
+            public Long getId() {
+                return order.getId();
+            }
+
+            @Override
+            public LocalDateTime getOrderDate() {
+                return order.getOrderDate();
+            }
+        };
+    }
 }
@@ -0,0 +1,197 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.config.SecurityConfig;
+import com.e_commerce_product_catalog_api.entity.User;
+import com.e_commerce_product_catalog_api.exception.TooManyRequestsException;
+import com.e_commerce_product_catalog_api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordVerificationServiceTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordVerificationService passwordVerificationService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        user = new User(1L, "testuser", "{bcrypt}stored-hash", Set.of("ROLE_USER"));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (passwordVerificationService != null) {
+            passwordVerificationService.stop();
+        }
+    }
+
+    /**
+     * Test: Verify a password
+     *
+     * Ensures that the password is checked on the verifier pool and both stages are timed, leaving a current hash
+     * alone.
+     */
+    @Test
+    void testVerify_Matches() throws Exception {
+        when(passwordEncoder.matches("password123", "{bcrypt}stored-hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("{bcrypt}stored-hash")).thenReturn(false);
+        passwordVerificationService = verifier(passwordEncoder, 2, 4);
+
+        assertTrue(passwordVerificationService.verify(user, "password123").get(5, TimeUnit.SECONDS));
+
+        assertEquals(1, meterRegistry.get("auth.password.queue_wait").timer().count());
+        assertEquals(1, meterRegistry.get("auth.password.verify").timer().count());
+        verify(userRepository, never()).updatePassword(any(), anyString(), anyString());
+    }
+
+    /**
+     * Test: Work chained on a verification
+     *
+     * Ensures that what the caller chains onto the outcome runs off the verifier pool, so a slow stage can not hold
+     * up the next password check.
+     */
+    @Test
+    void testVerify_ChainedStagesLeaveVerifierPool() throws Exception {
+        when(passwordEncoder.matches("password123", "{bcrypt}stored-hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("{bcrypt}stored-hash")).thenReturn(false);
+        when(passwordEncoder.matches("wrong", "{bcrypt}stored-hash")).thenReturn(false);
+        passwordVerificationService = verifier(passwordEncoder, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> session = passwordVerificationService.verify(user, "password123").thenApply(matches -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().getName();
+        });
+
+        assertFalse(passwordVerificationService.verify(user, "wrong").get(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertFalse(session.get(5, TimeUnit.SECONDS).startsWith("password-verifier-"));
+    }
+
+    /**
+     * Test: Verify against an outdated hash
+     *
+     * Ensures that a password matching an outdated hash is rehashed, stored and the cached user evicted.
+     */
+    @Test
+    void testVerify_UpgradesOutdatedHash() throws Exception {
+        when(passwordEncoder.matches("password123", "{bcrypt}stored-hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("{bcrypt}stored-hash")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("{bcrypt}new-hash");
+        when(userRepository.updatePassword(1L, "{bcrypt}stored-hash", "{bcrypt}new-hash")).thenReturn(1);
+        passwordVerificationService = verifier(passwordEncoder, 2, 4);
+
+        assertTrue(passwordVerificationService.verify(user, "password123").get(5, TimeUnit.SECONDS));
+
+        assertEquals("{bcrypt}new-hash", user.getPassword());
+        verify(userDetailsService, times(1)).evict("testuser");
+        assertEquals(1, meterRegistry.get("auth.password.rehash").timer().count());
+    }
+
+    /**
+     * Test: Verify a wrong password
+     *
+     * Ensures that a wrong password completes with false and never rehashes.
+     */
+    @Test
+    void testVerify_WrongPassword() throws Exception {
+        when(passwordEncoder.matches("wrong", "{bcrypt}stored-hash")).thenReturn(false);
+        passwordVerificationService = verifier(passwordEncoder, 2, 4);
+
+        assertFalse(passwordVerificationService.verify(user, "wrong").get(5, TimeUnit.SECONDS));
+
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    /**
+     * Test: Verify while the queue is full
+     *
+     * Ensures that logins are turned away with a retry hint once every verifier is busy and the queue is full.
+     */
+    @Test
+    void testVerify_QueueFull() throws Exception {
+        CountDownLatch verifying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            verifying.countDown();
+            release.await();
+            return false;
+        });
+        passwordVerificationService = verifier(passwordEncoder, 1, 1);
+
+        CompletableFuture<Boolean> running = passwordVerificationService.verify(user, "first");
+        assertTrue(verifying.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = passwordVerificationService.verify(user, "second");
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> passwordVerificationService.verify(user, "third"));
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+
+        release.countDown();
+        assertFalse(running.get(5, TimeUnit.SECONDS));
+        assertFalse(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test: Upgrade with the configured encoder
+     *
+     * Ensures that an unprefixed BCrypt hash, as stored before the encoder was configured, still matches and is
+     * rewritten with the configured id and cost.
+     */
+    @Test
+    void testVerify_UpgradesLegacyBCryptHash() throws Exception {
+        PasswordEncoder configured = new SecurityConfig(null, null, null, null, null).passwordEncoder("bcrypt", 5);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+        when(userRepository.updatePassword(eq(1L), eq(user.getPassword()), anyString())).thenReturn(1);
+        passwordVerificationService = verifier(configured, 1, 1);
+
+        assertTrue(passwordVerificationService.verify(user, "password123").get(5, TimeUnit.SECONDS));
+
+        ArgumentCaptor<String> upgraded = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq(1L), anyString(), upgraded.capture());
+        assertTrue(upgraded.getValue().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(configured.matches("password123", upgraded.getValue()));
+        assertFalse(configured.upgradeEncoding(upgraded.getValue()));
+    }
+
+    private PasswordVerificationService verifier(PasswordEncoder encoder, int threads, int queueCapacity) {
+        return new PasswordVerificationService(encoder, userRepository, userDetailsService, meterRegistry, threads,
+                queueCapacity);
+    }
+}
@@ -0,0 +1,198 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.dtos.ProductImportProgressDTO;
+import com.e_commerce_product_catalog_api.dtos.ProductImportResultDTO;
+import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.exception.BadRequestException;
+import com.e_commerce_product_catalog_api.repository.CategoryRepository;
+import com.e_commerce_product_catalog_api.repository.ProductBulkRepository;
+import com.e_commerce_product_catalog_api.search.ProductSearchIndex;
+import com.e_commerce_product_catalog_api.search.ProductSuggestionIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private ProductImportService productImportService;
+
+    private final List<List<Product>> insertedBatches = new ArrayList<>();
+
+    /**
+     * Sets up one category, batches of two rows and an id sequence starting at 100.
+     */
+    @BeforeEach
+    void setUp() {
+        Category electronics = new Category();
+        electronics.setId(1L);
+        electronics.setName("Electronics");
+        when(categoryRepository.findAll()).thenReturn(List.of(electronics));
+
+        ReflectionTestUtils.setField(productImportService, "batchSize", 2);
+        long[] nextId = {100};
+        lenient().when(productBulkRepository.allocateIds(anyInt())).thenAnswer(invocation ->
+                LongStream.range(0, invocation.<Integer>getArgument(0)).mapToObj(i -> nextId[0]++).toList());
+        lenient().doAnswer(invocation -> insertedBatches.add(List.copyOf(invocation.<List<Product>>getArgument(0))))
+                .when(productBulkRepository).insertAll(anyList());
+    }
+
+    /**
+     * Test: Import NDJSON
+     *
+     * Ensures that valid rows are written in batches and invalid rows are reported with their line numbers.
+     */
+    @Test
+    void testImportNdjson() {
+        String feed = """
+                {"name":"Phone","price":500.00,"stock":10,"categoryId":1}
+                {"name":"Laptop","price":1000.00,"stock":5,"categoryId":1}
+                {"name":"Ghost","price":1.00,"stock":1,"categoryId":99}
+                not json
+
+                {"name":"Tablet","price":-1,"stock":3,"categoryId":1}
+                {"name":"Charger","description":"USB-C","price":20.00,"stock":50,"categoryId":1}
+                """;
+
+        ProductImportResultDTO result = productImportService.importNdjson(stream(feed));
+
+        assertEquals(6, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(3L, 4L, 6L), result.getErrors().stream().map(ProductImportResultDTO.RowError::getLine).toList());
+        assertEquals("Category not found with id: 99", result.getErrors().get(0).getMessage());
+        assertEquals("Price must be greater than or equal to 0", result.getErrors().get(2).getMessage());
+
+        assertEquals(2, insertedBatches.size());
+        assertEquals(List.of(100L, 101L), insertedBatches.get(0).stream().map(Product::getId).toList());
+        assertEquals("Charger", insertedBatches.get(1).get(0).getName());
+        assertEquals(1L, insertedBatches.get(1).get(0).getCategory().getId());
+        verify(productSearchIndex, times(3)).index(any(Product.class));
+        verify(productSuggestionIndex, times(3)).putProduct(any(Product.class));
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    /**
+     * Test: Import NDJSON with streamed progress
+     *
+     * Ensures that a progress line is written after every batch with the rows rejected since the previous one, and
+     * that the last line is marked done.
+     */
+    @Test
+    void testImportNdjson_StreamsProgress() throws Exception {
+        String feed = """
+                {"name":"Phone","price":500.00,"stock":10,"categoryId":1}
+                {"description":"No name or price","stock":1,"categoryId":1}
+                {"name":"Laptop","price":1000.00,"stock":5,"categoryId":1}
+                {"name":"Charger","price":20.00,"stock":50,"categoryId":0}
+                {"name":"Tablet","price":300.00,"stock":3,"categoryId":1}
+                """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        productImportService.importNdjson(stream(feed), productImportService.ndjsonProgress(out));
+
+        List<ProductImportProgressDTO> lines = out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> assertDoesNotThrow(() -> objectMapper.readValue(line, ProductImportProgressDTO.class)))
+                .toList();
+        assertEquals(3, lines.size());
+        assertEquals(3, lines.get(0).getReceived());
+        assertEquals(2, lines.get(0).getImported());
+        assertEquals(List.of(new ProductImportResultDTO.RowError(2, "Product name is required; Price is required")),
+                lines.get(0).getErrors());
+        assertEquals(List.of(new ProductImportResultDTO.RowError(4, "Category ID must be valid")), lines.get(1).getErrors());
+        assertEquals(3, lines.get(1).getImported());
+        assertFalse(lines.get(1).isDone());
+        assertEquals(5, lines.get(2).getReceived());
+        assertEquals(2, lines.get(2).getFailed());
+        assertTrue(lines.get(2).getErrors().isEmpty());
+        assertTrue(lines.get(2).isDone());
+    }
+
+    /**
+     * Test: Import CSV
+     *
+     * Ensures that quoted fields are parsed and malformed rows are reported without stopping the import.
+     */
+    @Test
+    void testImportCsv() {
+        String feed = "name,description,price,stock,category_id\n"
+                + "\"Desk, oak\",\"Solid \"\"oak\"\" desk\nwith drawers\",250.00,4,1\n"
+                + "Chair,,abc,4,1\n"
+                + "Lamp,Desk lamp,30.00,12\n"
+                + "Shelf,,80.00,7,1\n";
+
+        ProductImportResultDTO result = productImportService.importCsv(stream(feed));
+
+        assertEquals(4, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals("Invalid price: abc", result.getErrors().get(0).getMessage());
+        assertEquals(4L, result.getErrors().get(0).getLine());
+        assertEquals(5L, result.getErrors().get(1).getLine());
+
+        Product desk = insertedBatches.get(0).get(0);
+        assertEquals("Desk, oak", desk.getName());
+        assertEquals("Solid \"oak\" desk\nwith drawers", desk.getDescription());
+        assertEquals(new BigDecimal("250.00"), desk.getPrice());
+        assertNull(insertedBatches.get(0).get(1).getDescription());
+    }
+
+    /**
+     * Test: Import CSV without required columns
+     *
+     * Ensures that a feed whose header lacks required columns is rejected before anything is written.
+     */
+    @Test
+    void testImportCsv_MissingColumns() {
+        Exception exception = assertThrows(BadRequestException.class,
+                () -> productImportService.importCsv(stream("name,price\nPhone,500.00\n")));
+
+        assertEquals("CSV header is missing the columns: stock, categoryid", exception.getMessage());
+        verifyNoInteractions(productBulkRepository);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
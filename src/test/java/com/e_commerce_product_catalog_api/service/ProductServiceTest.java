@@ -1,28 +1,51 @@
 package com.e_commerce_product_catalog_api.service;
 
+import com.e_commerce_product_catalog_api.dtos.CursorPageDTO;
 import com.e_commerce_product_catalog_api.dtos.ProductDTO;
+import com.e_commerce_product_catalog_api.dtos.ProductFacetsDTO;
 import com.e_commerce_product_catalog_api.entity.Category;
+import com.e_commerce_product_catalog_api.entity.EntityVersion;
+import com.e_commerce_product_catalog_api.entity.FacetCount;
+import com.e_commerce_product_catalog_api.entity.FilteredProducts;
 import com.e_commerce_product_catalog_api.entity.Product;
+import com.e_commerce_product_catalog_api.exception.BadRequestException;
 import com.e_commerce_product_catalog_api.exception.ResourceNotFoundException;
 import com.e_commerce_product_catalog_api.mapper.ProductMapper;
+import com.e_commerce_product_catalog_api.pagination.CountMode;
+import com.e_commerce_product_catalog_api.pagination.KeysetCursor;
 import com.e_commerce_product_catalog_api.repository.CategoryRepository;
 import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import com.e_commerce_product_catalog_api.search.ProductSearchIndex;
+import com.e_commerce_product_catalog_api.search.ProductSuggestionIndex;
+import com.e_commerce_product_catalog_api.search.SearchCountCache;
+import com.e_commerce_product_catalog_api.stock.HotStockLedger;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +60,24 @@ public class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @Mock
+    private SearchCountCache searchCountCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache productCache;
+
+    @Mock
+    private HotStockLedger hotStockLedger;
+
     @InjectMocks
     private ProductService productService;
 
@@ -115,6 +156,8 @@ public class ProductServiceTest {
         assertNotNull(result);
         assertEquals(productDTO.getName(), result.getName());
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productSearchIndex, times(1)).index(product);
+        verify(productSuggestionIndex, times(1)).putProduct(product);
     }
 
     /**
@@ -181,6 +224,95 @@ public class ProductServiceTest {
         verify(productRepository, times(1)).findById(1L);
     }
 
+    /**
+     * Test: Get Product version from the cache
+     *
+     * Ensures that a cached product answers the version lookup without touching the database.
+     */
+    @Test
+    void testGetProductVersion_FromCache() {
+        productDTO.setVersion(3L);
+        productDTO.setUpdatedAt(Instant.parse("2025-01-24T10:00:00Z"));
+        when(cacheManager.getCache("products")).thenReturn(productCache);
+        when(productCache.get(1L, ProductDTO.class)).thenReturn(productDTO);
+
+        EntityVersion result = productService.getProductVersion(1L);
+
+        assertEquals(new EntityVersion(3L, Instant.parse("2025-01-24T10:00:00Z")), result);
+        verifyNoInteractions(productRepository);
+    }
+
+    /**
+     * Test: Get Product version from the database
+     *
+     * Ensures that an uncached product is answered from the version-only query, and a missing one is reported.
+     */
+    @Test
+    void testGetProductVersion_FromDatabase() {
+        when(cacheManager.getCache("products")).thenReturn(productCache);
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.of(new EntityVersion(5L, null)));
+        when(productRepository.findVersionById(2L)).thenReturn(Optional.empty());
+
+        assertEquals(5L, productService.getProductVersion(1L).version());
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> productService.getProductVersion(2L));
+        assertEquals("Product not found with id: 2", exception.getMessage());
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    /**
+     * Test: Switch hot-SKU mode
+     *
+     * Ensures that the flag is stored and the product is moved into and out of the in-memory ledger.
+     */
+    @Test
+    void testSetHotSku() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(product)).thenReturn(product);
+        when(productMapper.toDTO(product)).thenReturn(productDTO);
+
+        productService.setHotSku(1L, true);
+        assertTrue(product.isHotSku());
+        verify(hotStockLedger, times(1)).track(1L);
+
+        productService.setHotSku(1L, false);
+        assertFalse(product.isHotSku());
+        verify(hotStockLedger, times(1)).untrack(1L);
+    }
+
+    /**
+     * Test: Update a hot product's stock
+     *
+     * Ensures that a cut below the units reserved by open orders is refused without storing anything, that units
+     * taken for a cut that fails to store are handed back, and that a raise is added to the in-memory stock.
+     */
+    @Test
+    void testUpdateProduct_HotSkuStock() {
+        product.setHotSku(true);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        productDTO.setCategoryId(1L);
+
+        productDTO.setStock(0);
+        when(hotStockLedger.cut(1L, 10)).thenReturn(false);
+        Exception exception = assertThrows(BadRequestException.class, () -> productService.updateProduct(1L, productDTO));
+        assertEquals("Stock of product 1 can not be set below the units reserved by open orders", exception.getMessage());
+        verify(productRepository, never()).save(any(Product.class));
+        assertEquals(10, product.getStock());
+
+        productDTO.setStock(4);
+        when(hotStockLedger.cut(1L, 6)).thenReturn(true);
+        when(productRepository.save(product)).thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productService.updateProduct(1L, productDTO));
+        verify(hotStockLedger, times(1)).release(1L, 6);
+
+        product.setStock(10);
+        productDTO.setStock(15);
+        doReturn(product).when(productRepository).save(product);
+        productService.updateProduct(1L, productDTO);
+        verify(hotStockLedger, times(1)).adjust(1L, 5);
+        verify(hotStockLedger, times(2)).cut(anyLong(), anyInt());
+    }
+
     /**
      * Test: Update Product (Success)
      *
@@ -255,6 +387,7 @@ public class ProductServiceTest {
         productService.deleteProduct(1L);
 
         verify(productRepository, times(1)).delete(product);
+        verify(productSearchIndex, times(1)).remove(1L);
     }
 
     /**
@@ -273,4 +406,207 @@ public class ProductServiceTest {
         assertEquals("Product not found with id: 1", exception.getMessage());
         verify(productRepository, times(1)).findById(1L);
     }
+
+    /**
+     * Test: Filter Products (Search Index)
+     *
+     * Ensures that filtered products are read from the search index and loaded by id in index order.
+     */
+    @Test
+    void testFilterProducts_FromSearchIndex() {
+        product2.setCategory(category);
+        Page<Long> idPage = new PageImpl<>(List.of(2L, 1L), pageable, 5);
+        when(productSearchIndex.search("o", null, null, pageable)).thenReturn(Optional.of(idPage));
+        when(productRepository.findByIdIn(List.of(2L, 1L))).thenReturn(List.of(product, product2));
+
+        Page<ProductDTO> result = productService.filterProducts("o", null, null, pageable);
+
+        assertEquals(5, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertEquals(1L, result.getContent().get(1).getId());
+        assertEquals("Electronics", result.getContent().get(1).getCategoryName());
+        verify(productRepository, never()).findByFilters(any(), any(), any(), any());
+    }
+
+    /**
+     * Test: Filter Products (Database Fallback)
+     *
+     * Ensures that the database query is used while the search index cannot answer.
+     */
+    @Test
+    void testFilterProducts_FallsBackToDatabase() {
+        FilteredProducts filteredProduct = mock(FilteredProducts.class);
+        when(filteredProduct.getProductId()).thenReturn(1L);
+        when(filteredProduct.getProductName()).thenReturn("Laptop");
+        when(productSearchIndex.search("lap", null, null, pageable)).thenReturn(Optional.empty());
+        when(productRepository.findByFilters("lap", null, null, pageable))
+                .thenReturn(new PageImpl<>(List.of(filteredProduct), pageable, 1));
+
+        Page<ProductDTO> result = productService.filterProducts("lap", null, null, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Laptop", result.getContent().get(0).getName());
+        verify(productRepository, times(1)).findByFilters("lap", null, null, pageable);
+    }
+
+    /**
+     * Test: Filter Products (Approximate Count)
+     *
+     * Ensures that pages after the first reuse a cached count instead of running the count query.
+     */
+    @Test
+    void testFilterProducts_LaterPagesUseApproximateCount() {
+        Pageable secondPage = PageRequest.of(1, 2);
+        FilteredProducts filteredProduct = mock(FilteredProducts.class);
+        when(productRepository.findByFiltersWithoutCount("lap", null, null, secondPage)).thenReturn(List.of(filteredProduct));
+        when(searchCountCache.getOrCount(eq("lap"), isNull(), isNull(), any())).thenReturn(3L);
+
+        Page<ProductDTO> result = productService.filterProducts("lap", null, null, secondPage);
+
+        assertEquals(3, result.getTotalElements());
+        verify(productRepository, never()).findByFilters(any(), any(), any(), any());
+    }
+
+    /**
+     * Test: Filter Products (No Count)
+     *
+     * Ensures that skipping the count reads one row past the page to tell whether another page follows, and that
+     * the page says it was not counted.
+     */
+    @Test
+    void testFilterProducts_WithoutCount() throws Exception {
+        Pageable secondPage = PageRequest.of(1, 2);
+        FilteredProducts filteredProduct = mock(FilteredProducts.class);
+        when(productRepository.findByFiltersWithoutCount(eq("lap"), isNull(), isNull(),
+                argThat(pageable -> pageable.getOffset() == 2 && pageable.getPageSize() == 3)))
+                .thenReturn(List.of(filteredProduct, filteredProduct, filteredProduct));
+
+        Page<ProductDTO> result = productService.filterProducts("lap", null, null, secondPage, CountMode.NONE);
+
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.hasNext());
+        assertFalse(result.isLast());
+        String json = new ObjectMapper().writeValueAsString(result);
+        assertFalse(json.contains("totalElements"));
+        assertFalse(json.contains("totalPages"));
+        assertTrue(json.contains("\"counted\":false"));
+        verify(productRepository, never()).countByFilters(any(), any(), any());
+        verifyNoInteractions(searchCountCache);
+    }
+
+    /**
+     * Test: Filter Products (No Count, Last Page)
+     *
+     * Ensures that a page without a row past it is reported as the last one.
+     */
+    @Test
+    void testFilterProducts_WithoutCountLastPage() {
+        FilteredProducts filteredProduct = mock(FilteredProducts.class);
+        when(productRepository.findByFiltersWithoutCount(eq("lap"), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(filteredProduct, filteredProduct));
+
+        Page<ProductDTO> result = productService.filterProducts("lap", null, null, PageRequest.of(0, 2), CountMode.NONE);
+
+        assertEquals(2, result.getContent().size());
+        assertFalse(result.hasNext());
+        assertTrue(result.isLast());
+    }
+
+    /**
+     * Test: Product Facets
+     *
+     * Ensures that the grouped facet rows are split into category counts, a price histogram and stock counts.
+     */
+    @Test
+    void testGetProductFacets() {
+        FacetCount electronicsCount = mock(FacetCount.class);
+        when(electronicsCount.getFacet()).thenReturn("category");
+        when(electronicsCount.getCategoryId()).thenReturn(1L);
+        when(electronicsCount.getCategoryName()).thenReturn("Electronics");
+        when(electronicsCount.getProductCount()).thenReturn(2L);
+
+        FacetCount expensiveCount = mock(FacetCount.class);
+        when(expensiveCount.getFacet()).thenReturn("price");
+        when(expensiveCount.getPriceBucket()).thenReturn(new BigDecimal("12"));
+        when(expensiveCount.getProductCount()).thenReturn(1L);
+
+        FacetCount cheapCount = mock(FacetCount.class);
+        when(cheapCount.getFacet()).thenReturn("price");
+        when(cheapCount.getPriceBucket()).thenReturn(new BigDecimal("6"));
+        when(cheapCount.getProductCount()).thenReturn(1L);
+
+        FacetCount inStockCount = mock(FacetCount.class);
+        when(inStockCount.getFacet()).thenReturn("stock");
+        when(inStockCount.getInStock()).thenReturn(true);
+        when(inStockCount.getProductCount()).thenReturn(2L);
+
+        BigDecimal bucketWidth = new BigDecimal("100");
+        when(productRepository.countFacetsByFilters(null, "electro", null, bucketWidth))
+                .thenReturn(List.of(electronicsCount, expensiveCount, cheapCount, inStockCount));
+
+        ProductFacetsDTO facets = productService.getProductFacets(null, "electro", null, bucketWidth);
+
+        assertEquals(1, facets.getCategories().size());
+        assertEquals("Electronics", facets.getCategories().get(0).getCategoryName());
+        assertEquals(2, facets.getCategories().get(0).getCount());
+        assertEquals(2, facets.getPriceHistogram().size());
+        assertEquals(0, new BigDecimal("600").compareTo(facets.getPriceHistogram().get(0).getFrom()));
+        assertEquals(0, new BigDecimal("700").compareTo(facets.getPriceHistogram().get(0).getTo()));
+        assertEquals(0, new BigDecimal("1200").compareTo(facets.getPriceHistogram().get(1).getFrom()));
+        assertEquals(2, facets.getInStock());
+        assertEquals(0, facets.getOutOfStock());
+        verify(productRepository, times(1)).countFacetsByFilters(null, "electro", null, bucketWidth);
+    }
+
+    /**
+     * Test: Scroll Products (Has Next)
+     *
+     * Ensures that a cursor page returns a continuation token holding the sort keys of its last row.
+     */
+    @Test
+    void testScrollProducts_ReturnsNextCursor() {
+        Window<Product> window = Window.from(List.of(product1, product2),
+                index -> ScrollPosition.forward(Map.of("name", index == 0 ? "Laptop" : "Smartphone", "id", index + 1L)), true);
+        when(productRepository.findBy(any(Specification.class), any())).thenReturn(window);
+        when(productMapper.toDTO(product1)).thenReturn(productDTO1);
+        when(productMapper.toDTO(product2)).thenReturn(productDTO2);
+
+        CursorPageDTO<ProductDTO> result = productService.scrollProducts(null, Sort.by("name"), 2);
+
+        assertTrue(result.isHasNext());
+        assertEquals(List.of(productDTO1, productDTO2), result.getContent());
+
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor(), Map.of("id", Long::valueOf, "name", value -> value));
+        assertEquals(Sort.by("name"), next.sort());
+        assertEquals(Map.of("name", "Smartphone", "id", 2L), ((KeysetScrollPosition) next.position()).getKeys());
+    }
+
+    /**
+     * Test: Scroll Products (Last Page)
+     *
+     * Ensures that the last cursor page has no continuation token.
+     */
+    @Test
+    void testScrollProducts_LastPage() {
+        Window<Product> window = Window.from(List.of(product1), index -> ScrollPosition.forward(Map.of("id", 1L)), false);
+        when(productRepository.findBy(any(Specification.class), any())).thenReturn(window);
+        when(productMapper.toDTO(product1)).thenReturn(productDTO1);
+
+        CursorPageDTO<ProductDTO> result = productService.scrollProducts(null, Sort.unsorted(), 2);
+
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    /**
+     * Test: Scroll Products (Invalid Requests)
+     *
+     * Ensures that unsupported sorts and malformed cursors are rejected before querying.
+     */
+    @Test
+    void testScrollProducts_InvalidRequests() {
+        assertThrows(BadRequestException.class, () -> productService.scrollProducts(null, Sort.by("stock"), 2));
+        assertThrows(BadRequestException.class, () -> productService.scrollProducts("not-a-cursor", Sort.unsorted(), 2));
+        verify(productRepository, never()).findBy(any(Specification.class), any());
+    }
 }
@@ -0,0 +1,149 @@
+package com.e_commerce_product_catalog_api.service;
+
+import com.e_commerce_product_catalog_api.entity.RefreshToken;
+import com.e_commerce_product_catalog_api.entity.User;
+import com.e_commerce_product_catalog_api.exception.UnauthorizedException;
+import com.e_commerce_product_catalog_api.jwt.JwtTokenUtil;
+import com.e_commerce_product_catalog_api.jwt.SessionRevocationList;
+import com.e_commerce_product_catalog_api.repository.RefreshTokenRepository;
+import com.e_commerce_product_catalog_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SessionRevocationList sessionRevocationList;
+
+    private JwtTokenUtil jwtTokenUtil;
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = new JwtTokenUtil("test-secret-test-secret-test-secret-test", Duration.ofMinutes(15));
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, jwtTokenUtil,
+                sessionRevocationList, Duration.ofDays(14));
+        user = new User(1L, "testuser", "{bcrypt}stored-hash", Set.of("ROLE_USER"));
+    }
+
+    /**
+     * Test: Start a session
+     *
+     * Ensures that a login gets an access token for a new session and a refresh token stored only as its hash.
+     */
+    @Test
+    void testStartSession() {
+        RefreshTokenService.Tokens tokens = refreshTokenService.startSession(user);
+
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(stored.capture());
+        assertNotEquals(tokens.refreshToken(), stored.getValue().getTokenHash());
+        assertEquals(64, stored.getValue().getTokenHash().length());
+        String sessionId = jwtTokenUtil.getSessionId(jwtTokenUtil.parseToken(tokens.accessToken()).orElseThrow());
+        assertEquals(stored.getValue().getSessionId(), sessionId);
+    }
+
+    /**
+     * Test: Refresh
+     *
+     * Ensures that a refresh token is spent and exchanged for a new pair in the same session.
+     */
+    @Test
+    void testRefresh() {
+        RefreshTokenService.Tokens first = refreshTokenService.startSession(user);
+        RefreshToken stored = captureSaved();
+        when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any(Instant.class))).thenReturn(1);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        RefreshTokenService.Tokens second = refreshTokenService.refresh(first.refreshToken());
+
+        assertNotEquals(first.refreshToken(), second.refreshToken());
+        assertEquals(stored.getSessionId(),
+                jwtTokenUtil.getSessionId(jwtTokenUtil.parseToken(second.accessToken()).orElseThrow()));
+        verify(sessionRevocationList, never()).revoke(anyString());
+    }
+
+    /**
+     * Test: Refresh with a spent token
+     *
+     * Ensures that presenting a spent refresh token again ends the whole session.
+     */
+    @Test
+    void testRefresh_Reused() {
+        RefreshTokenService.Tokens tokens = refreshTokenService.startSession(user);
+        RefreshToken stored = captureSaved();
+        when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any(Instant.class))).thenReturn(0);
+
+        Exception exception = assertThrows(UnauthorizedException.class, () -> refreshTokenService.refresh(tokens.refreshToken()));
+
+        assertEquals("Refresh token was already used, the session has been ended", exception.getMessage());
+        verify(refreshTokenRepository, times(1)).deleteBySessionId(stored.getSessionId());
+        verify(sessionRevocationList, times(1)).revoke(stored.getSessionId());
+    }
+
+    /**
+     * Test: Refresh with an unknown or expired token
+     *
+     * Ensures that unknown and expired refresh tokens are rejected without ending any session.
+     */
+    @Test
+    void testRefresh_InvalidOrExpired() {
+        when(refreshTokenRepository.findById(anyString())).thenReturn(Optional.empty());
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.refresh("unknown"));
+
+        RefreshToken expired = new RefreshToken("hash", "testuser", "session-1", Instant.now().minusSeconds(1), null);
+        when(refreshTokenRepository.findById(anyString())).thenReturn(Optional.of(expired));
+        Exception exception = assertThrows(UnauthorizedException.class, () -> refreshTokenService.refresh("expired"));
+
+        assertEquals("Refresh token has expired", exception.getMessage());
+        verify(sessionRevocationList, never()).revoke(anyString());
+    }
+
+    /**
+     * Test: Logout
+     *
+     * Ensures that logging out deletes the session's refresh tokens and revokes its access tokens.
+     */
+    @Test
+    void testLogout() {
+        RefreshTokenService.Tokens tokens = refreshTokenService.startSession(user);
+        RefreshToken stored = captureSaved();
+        when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+        refreshTokenService.logout(tokens.refreshToken());
+
+        verify(refreshTokenRepository, times(1)).deleteBySessionId(stored.getSessionId());
+        verify(sessionRevocationList, times(1)).revoke(stored.getSessionId());
+    }
+
+    private RefreshToken captureSaved() {
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(stored.capture());
+        return stored.getValue();
+    }
+}
@@ -0,0 +1,238 @@
+package com.e_commerce_product_catalog_api.stock;
+
+import com.e_commerce_product_catalog_api.config.CacheConfig;
+import com.e_commerce_product_catalog_api.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HotStockLedgerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache productCache;
+
+    private HotStockLedger hotStockLedger;
+
+    /**
+     * Sets up a ledger with four shards.
+     */
+    @BeforeEach
+    void setUp() {
+        hotStockLedger = new HotStockLedger(productRepository, cacheManager, Duration.ofMillis(100), 4);
+    }
+
+    /**
+     * Test: Reserve and release
+     *
+     * Ensures that reservations succeed while stock is left, may span shards, and that released stock can be
+     * reserved again.
+     */
+    @Test
+    void testReserveAndRelease() {
+        when(productRepository.findAvailableStock(1L)).thenReturn(Optional.of(10L));
+        hotStockLedger.track(1L);
+
+        assertTrue(hotStockLedger.isHot(1L));
+        assertFalse(hotStockLedger.isHot(2L));
+        assertTrue(hotStockLedger.reserve(1L, 7));
+        assertFalse(hotStockLedger.reserve(1L, 4));
+        assertTrue(hotStockLedger.reserve(1L, 3));
+        assertFalse(hotStockLedger.reserve(1L, 1));
+
+        hotStockLedger.release(1L, 2);
+        assertTrue(hotStockLedger.reserve(1L, 2));
+        assertFalse(hotStockLedger.reserve(2L, 1));
+    }
+
+    /**
+     * Test: Stock edit with reservations in flight
+     *
+     * Ensures that a stock edit moves the counter by the change, leaving reserved units taken, and that tracking a
+     * product already tracked keeps its counter.
+     */
+    @Test
+    void testAdjust_KeepsReservationsInFlight() {
+        when(productRepository.findAvailableStock(1L)).thenReturn(Optional.of(10L));
+        hotStockLedger.track(1L);
+        assertTrue(hotStockLedger.reserve(1L, 4));
+
+        hotStockLedger.adjust(1L, 5);
+        hotStockLedger.track(1L);
+
+        assertTrue(hotStockLedger.reserve(1L, 11));
+        assertFalse(hotStockLedger.reserve(1L, 1));
+        hotStockLedger.release(1L, 4);
+        hotStockLedger.adjust(1L, -6);
+        assertFalse(hotStockLedger.reserve(1L, 1));
+        hotStockLedger.adjust(1L, 3);
+        assertTrue(hotStockLedger.reserve(1L, 1));
+        assertFalse(hotStockLedger.reserve(1L, 1));
+        verify(productRepository, times(1)).findAvailableStock(1L);
+    }
+
+    /**
+     * Test: Stock cut
+     *
+     * Ensures that a cut takes units like a reservation and is refused when it would reach into reserved units, and
+     * that a product not in memory is checked against its stock less its pending lines.
+     */
+    @Test
+    void testCut() {
+        when(productRepository.findAvailableStock(1L)).thenReturn(Optional.of(10L));
+        hotStockLedger.track(1L);
+        assertTrue(hotStockLedger.reserve(1L, 4));
+
+        assertFalse(hotStockLedger.cut(1L, 7));
+        assertTrue(hotStockLedger.cut(1L, 6));
+        assertFalse(hotStockLedger.reserve(1L, 1));
+        hotStockLedger.release(1L, 6);
+        assertTrue(hotStockLedger.reserve(1L, 6));
+
+        when(productRepository.findAvailableStock(2L)).thenReturn(Optional.of(3L));
+        assertTrue(hotStockLedger.cut(2L, 3));
+        assertFalse(hotStockLedger.cut(2L, 4));
+    }
+
+    /**
+     * Test: Changes inside a transaction
+     *
+     * Ensures that tracking and stock edits take effect only once the caller's transaction commits, and not at all
+     * when it rolls back.
+     */
+    @Test
+    void testTrackAndAdjust_AfterCommit() {
+        when(productRepository.findAvailableStock(1L)).thenReturn(Optional.of(10L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            hotStockLedger.track(1L);
+            assertFalse(hotStockLedger.isHot(1L));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+            assertTrue(hotStockLedger.isHot(1L));
+
+            hotStockLedger.adjust(1L, -10);
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+            assertTrue(hotStockLedger.reserve(1L, 10));
+        }
+        finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test: Reserve under contention
+     *
+     * Ensures that many threads reserving the same product never take more than its stock.
+     */
+    @Test
+    void testReserve_NoOversellUnderContention() throws Exception {
+        when(productRepository.findAvailableStock(1L)).thenReturn(Optional.of(1000L));
+        hotStockLedger.track(1L);
+
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Void>> buyers = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                int quantity = i % 3 + 1;
+                buyers.add(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        if (hotStockLedger.reserve(1L, quantity)) {
+                            reserved.addAndGet(quantity);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(buyers)) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        assertTrue(reserved.get() <= 1000);
+        assertTrue(reserved.get() >= 998);
+        assertFalse(hotStockLedger.reserve(1L, 3));
+    }
+
+    /**
+     * Test: Rebuild
+     *
+     * Ensures that pending order lines are applied before the ledger is loaded from the database.
+     */
+    @Test
+    void testRebuild() {
+        when(productRepository.applyPendingStock()).thenReturn(List.of(1L));
+        when(productRepository.findHotStockAvailability()).thenReturn(Map.of(1L, 5L, 2L, 0L));
+        when(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE)).thenReturn(productCache);
+
+        hotStockLedger.rebuild();
+
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).applyPendingStock();
+        inOrder.verify(productRepository).findHotStockAvailability();
+        verify(productCache, times(1)).evict(1L);
+        assertTrue(hotStockLedger.reserve(1L, 5));
+        assertTrue(hotStockLedger.isHot(2L));
+        assertFalse(hotStockLedger.reserve(2L, 1));
+    }
+
+    /**
+     * Test: Untrack
+     *
+     * Ensures that a product leaving hot-SKU mode has its pending lines applied at once.
+     */
+    @Test
+    void testUntrack() {
+        when(productRepository.findAvailableStock(1L)).thenReturn(Optional.of(5L));
+        when(productRepository.applyPendingStock()).thenReturn(List.of(1L));
+        hotStockLedger.track(1L);
+
+        hotStockLedger.untrack(1L);
+
+        assertFalse(hotStockLedger.isHot(1L));
+        verify(productRepository, times(1)).applyPendingStock();
+    }
+
+    // Ends the pretend transaction with the given outcome and starts a fresh one
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.e_commerce_product_catalog_api.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An in-memory H2 database in PostgreSQL mode with the schema Hibernate generates from the entities, for tests that
+ * run repositories and services against real tables and foreign keys. The settings are those of {@code JpaConfig};
+ * extra Hibernate properties can be passed in. {@code regclass} is declared as a text domain, so the sequence
+ * queries of {@code IdSequences} run unchanged.
+ * <p>
+ * JDBC work through {@link #jdbcTemplate()} joins the transactions of {@link #transactionTemplate()}, as it does in
+ * the application. Close the database after each test.
+ */
+public class H2JpaDatabase implements AutoCloseable {
+
+    private final HikariDataSource dataSource;
+    private final LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public H2JpaDatabase() {
+        this(Map.of());
+    }
+
+    public H2JpaDatabase(Map<String, Object> hibernateProperties) {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE DOMAIN IF NOT EXISTS regclass AS VARCHAR");
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("com.e_commerce_product_catalog_api.entity");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        properties.put("hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+        properties.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        properties.putAll(hibernateProperties);
+        entityManagerFactoryBean.setJpaPropertyMap(properties);
+        entityManagerFactoryBean.afterPropertiesSet();
+
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public EntityManager entityManager() {
+        return entityManager;
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return transactionTemplate;
+    }
+
+    // Hibernate's statistics, collected only when hibernate.generate_statistics is passed in
+    public Statistics statistics() {
+        return entityManagerFactoryBean.getObject().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // A Spring Data repository on the shared entity manager, with the given implementations of its custom fragments
+    public <T> T repository(Class<T> repositoryInterface, Object... fragments) {
+        return new JpaRepositoryFactory(entityManager).getRepository(repositoryInterface, RepositoryFragments.just(fragments));
+    }
+
+    /**
+     * Fills the {@code @Autowired} fields of the bean by type, from the given dependencies and this database's
+     * {@link JdbcTemplate}, {@link EntityManager} and {@link TransactionTemplate}. A field no dependency matches
+     * fails the call, as it would fail the application context.
+     */
+    public <T> T autowire(T bean, Object... dependencies) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        AutowiredAnnotationBeanPostProcessor autowiring = new AutowiredAnnotationBeanPostProcessor();
+        autowiring.setBeanFactory(beanFactory);
+        beanFactory.addBeanPostProcessor(autowiring);
+        beanFactory.registerSingleton("jdbcTemplate", jdbcTemplate);
+        beanFactory.registerSingleton("entityManager", entityManager);
+        beanFactory.registerSingleton("transactionTemplate", transactionTemplate);
+        for (int i = 0; i < dependencies.length; i++) {
+            beanFactory.registerSingleton("dependency" + i, dependencies[i]);
+        }
+        beanFactory.autowireBean(bean);
+        return bean;
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactoryBean.destroy();
+        dataSource.close();
+    }
+}
@@ -0,0 +1,61 @@
+package com.e_commerce_product_catalog_api.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * An empty database on a real PostgreSQL, for tests of SQL that only PostgreSQL runs. The server is started once
+ * from the binaries bundled with the test dependencies, no docker needed, and shared by every test in the run;
+ * each instance of this class is a database of its own on it, dropped on close.
+ */
+public class PostgresDatabase implements AutoCloseable {
+
+    private static EmbeddedPostgres server;
+
+    private final String name = "test_" + UUID.randomUUID().toString().replace('-', '_');
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PostgresDatabase() {
+        new JdbcTemplate(server().getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(server().getJdbcUrl("postgres", name));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return transactionTemplate;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+        new JdbcTemplate(server().getPostgresDatabase()).execute("DROP DATABASE " + name);
+    }
+
+    // Stopped by the library's shutdown hook when the test run ends
+    private static synchronized EmbeddedPostgres server() {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.builder().start();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Could not start PostgreSQL", e);
+            }
+        }
+        return server;
+    }
+}